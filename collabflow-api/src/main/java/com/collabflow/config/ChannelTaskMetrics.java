@@ -0,0 +1,63 @@
+package com.collabflow.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task decorator for the STOMP channel executors. It measures the same things for platform
+ * pools and virtual threads:
+ *
+ * <ul>
+ *   <li>{@code collabflow.websocket.channel.pending}: tasks submitted but not yet started (queue depth)</li>
+ *   <li>{@code collabflow.websocket.channel.active}: tasks currently running</li>
+ *   <li>{@code collabflow.websocket.channel.wait}: time from submission to start</li>
+ *   <li>{@code collabflow.websocket.channel.task}: time spent handling the message</li>
+ * </ul>
+ *
+ * All meters are tagged with {@code channel=inbound|outbound}.
+ */
+public class ChannelTaskMetrics implements TaskDecorator {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer taskTimer;
+
+    public ChannelTaskMetrics(String channel, MeterRegistry meterRegistry) {
+        Gauge.builder("collabflow.websocket.channel.pending", pending, AtomicInteger::get)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("collabflow.websocket.channel.active", active, AtomicInteger::get)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("collabflow.websocket.channel.wait")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("collabflow.websocket.channel.task")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedAt = System.nanoTime();
+        pending.incrementAndGet();
+        return () -> {
+            long startedAt = System.nanoTime();
+            pending.decrementAndGet();
+            active.incrementAndGet();
+            waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                taskTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.collabflow.config;
+
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.team.exception.TeamException;
+import com.collabflow.domain.team.service.TeamAccessService;
+import com.collabflow.security.CustomUserDetails;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorizes project chat at the STOMP layer.
+ *
+ * <p>SUBSCRIBE to {@code /topic/chat/{projectId}} and SEND to {@code /app/chat.send/{projectId}}
+ * are checked once per session and project against {@link TeamAccessService}. The grant is kept
+ * in the session attributes, so later frames cost one map lookup. When a team's membership
+ * changes, grants for that team are dropped. Sessions whose user is no longer a member are
+ * unsubscribed from the team's chat topics on the server side.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatAccessInterceptor implements ChannelInterceptor {
+
+    private static final String SESSION_ATTRIBUTE = "collabflow.chatAccess";
+
+    private static final String CHAT_TOPIC_PREFIX = "/topic/chat/";
+    private static final String CHAT_SEND_PREFIX = "/app/chat.send/";
+
+    private final ProjectRepository projectRepository;
+    private final TeamAccessService teamAccessService;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    // sessionId → grants, the same objects that sit in the session attributes
+    private final Map<String, SessionChatAccess> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        teamAccessService.addInvalidationListener(this::onTeamMembershipChanged);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (StompCommand.SUBSCRIBE.equals(command)) {
+            UUID projectId = projectIdOf(accessor.getDestination(), CHAT_TOPIC_PREFIX);
+            if (projectId != null) {
+                SessionChatAccess access = authorize(accessor, projectId);
+                if (accessor.getSubscriptionId() != null) {
+                    access.subscriptions.put(accessor.getSubscriptionId(), projectId);
+                }
+            }
+        } else if (StompCommand.SEND.equals(command)) {
+            UUID projectId = projectIdOf(accessor.getDestination(), CHAT_SEND_PREFIX);
+            if (projectId != null) {
+                authorize(accessor, projectId);
+            }
+        } else if (StompCommand.UNSUBSCRIBE.equals(command) && accessor.getSessionId() != null) {
+            SessionChatAccess access = sessions.get(accessor.getSessionId());
+            if (access != null && accessor.getSubscriptionId() != null) {
+                access.subscriptions.remove(accessor.getSubscriptionId());
+            }
+        }
+        return message;
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private SessionChatAccess authorize(StompHeaderAccessor accessor, UUID projectId) {
+        SessionChatAccess access = accessOf(accessor);
+        if (access.grants.containsKey(projectId)) {
+            return access;
+        }
+
+        UUID teamId = projectRepository.findById(projectId)
+                .filter(project -> !project.isDeleted())
+                .map(Project::getTeamId)
+                .orElse(null);
+        if (teamId == null || !teamAccessService.isMember(teamId, access.userId)) {
+            log.warn("Chat access denied – session={}, user={}, project={}",
+                    accessor.getSessionId(), access.userId, projectId);
+            throw new TeamException("User is not a member of this team – chat access denied");
+        }
+        access.grants.put(projectId, teamId);
+        return access;
+    }
+
+    private SessionChatAccess accessOf(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null && attributes.get(SESSION_ATTRIBUTE) instanceof SessionChatAccess access) {
+            return access;
+        }
+
+        UUID userId = userIdOf(accessor);
+        String sessionId = accessor.getSessionId();
+        if (userId == null || sessionId == null) {
+            throw new TeamException("Unauthenticated WebSocket session – chat access denied");
+        }
+        SessionChatAccess access = sessions.computeIfAbsent(sessionId, key -> new SessionChatAccess(key, userId));
+        if (attributes != null) {
+            attributes.put(SESSION_ATTRIBUTE, access);
+        }
+        return access;
+    }
+
+    private void onTeamMembershipChanged(UUID teamId) {
+        for (SessionChatAccess access : sessions.values()) {
+            Set<UUID> revoked = new HashSet<>();
+            access.grants.forEach((projectId, grantTeamId) -> {
+                if (teamId.equals(grantTeamId)) {
+                    revoked.add(projectId);
+                }
+            });
+            if (revoked.isEmpty()) {
+                continue;
+            }
+            revoked.forEach(access.grants::remove);
+
+            if (teamAccessService.isMember(teamId, access.userId)) {
+                // Still a member: re-grant lazily on the next frame
+                continue;
+            }
+            List<Map.Entry<String, UUID>> closed = new ArrayList<>();
+            access.subscriptions.entrySet().removeIf(entry -> {
+                if (revoked.contains(entry.getValue())) {
+                    closed.add(Map.entry(entry.getKey(), entry.getValue()));
+                    return true;
+                }
+                return false;
+            });
+            closed.forEach(entry -> unsubscribe(access.sessionId, entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId, UUID projectId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setLeaveMutable(true);
+        String destination = CHAT_TOPIC_PREFIX + projectId;
+        messagingTemplate.getObject().send(destination, MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+        log.info("Revoked chat subscription – session={}, project={}", sessionId, projectId);
+    }
+
+    private UUID userIdOf(StompHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof UsernamePasswordAuthenticationToken auth
+                && auth.getPrincipal() instanceof CustomUserDetails details) {
+            return details.getUser().getId();
+        }
+        return null;
+    }
+
+    private UUID projectIdOf(String destination, String prefix) {
+        if (destination == null || !destination.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(destination.substring(prefix.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new TeamException("Invalid chat destination: " + destination);
+        }
+    }
+
+    static final class SessionChatAccess {
+        private final String sessionId;
+        private final UUID userId;
+        // projectId → owning teamId
+        private final Map<UUID, UUID> grants = new ConcurrentHashMap<>();
+        // subscriptionId → projectId
+        private final Map<String, UUID> subscriptions = new ConcurrentHashMap<>();
+
+        private SessionChatAccess(String sessionId, UUID userId) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.collabflow.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Destinations that clients connected to this node are subscribed to.
+ *
+ * <p>Lets broadcasts that arrive from other nodes be dropped in O(1) when nobody on this node
+ * is listening, instead of going through the broker's own matching.</p>
+ */
+@Component
+public class LocalSubscriptionRegistry {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // sessionId → (subscriptionId → destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> destinations = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> patterns = new ConcurrentHashMap<>();
+
+    public boolean hasSubscribers(String destination) {
+        if (destinations.containsKey(destination)) {
+            return true;
+        }
+        return !patterns.isEmpty()
+                && patterns.keySet().stream().anyMatch(pattern -> pathMatcher.match(pattern, destination));
+    }
+
+    public int subscriptionCount() {
+        return destinations.values().stream().mapToInt(AtomicInteger::get).sum()
+                + patterns.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        Message<?> message = event.getMessage();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        index(destination).computeIfAbsent(destination, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        Message<?> message = event.getMessage();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        String destination = subscriptions == null ? null : subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            release(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        index(destination).computeIfPresent(destination, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private Map<String, AtomicInteger> index(String destination) {
+        return pathMatcher.isPattern(destination) ? patterns : destinations;
+    }
+}
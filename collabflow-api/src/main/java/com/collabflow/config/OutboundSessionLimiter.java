@@ -0,0 +1,175 @@
+package com.collabflow.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of outbound messages queued per WebSocket session.
+ *
+ * <p>Without a cap, one slow client can hold an unbounded backlog on the outbound channel and
+ * delay delivery for everyone who shares the executor. When a session already has
+ * {@code max-queued} messages waiting, a new broker {@code MESSAGE} is either dropped
+ * ({@code drop}) or the session is closed with {@code SESSION_NOT_RELIABLE}
+ * ({@code disconnect}) so the client reconnects and resyncs. Protocol frames (CONNECTED,
+ * RECEIPT, ERROR, heartbeats) are never dropped.</p>
+ */
+@Slf4j
+@Component
+public class OutboundSessionLimiter implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public enum OverflowPolicy { DROP, DISCONNECT }
+
+    private final int maxQueued;
+    private final OverflowPolicy policy;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Counter droppedCounter;
+    private final Counter disconnectedCounter;
+
+    public OutboundSessionLimiter(
+            @Value("${app.websocket.outbound.session-max-queued:500}") int maxQueued,
+            @Value("${app.websocket.outbound.overflow-policy:drop}") String policy,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxQueued = maxQueued;
+        this.policy = OverflowPolicy.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+        this.droppedCounter = Counter.builder("collabflow.websocket.outbound.dropped")
+                .description("Outbound messages dropped because the session queue was full")
+                .register(meterRegistry);
+        this.disconnectedCounter = Counter.builder("collabflow.websocket.outbound.disconnected")
+                .description("Sessions closed because their outbound queue was full")
+                .register(meterRegistry);
+        Gauge.builder("collabflow.websocket.outbound.queued", this, OutboundSessionLimiter::totalQueued)
+                .description("Outbound messages queued across all sessions")
+                .register(meterRegistry);
+        Gauge.builder("collabflow.websocket.outbound.max-session-queued", this, OutboundSessionLimiter::maxSessionQueued)
+                .description("Deepest per-session outbound queue")
+                .register(meterRegistry);
+    }
+
+    // ─── Outbound channel ─────────────────────────────────────────────
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionState state = stateOf(message);
+        if (state == null) {
+            return message;
+        }
+        int depth = state.queued.incrementAndGet();
+        if (depth <= maxQueued || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        state.queued.decrementAndGet();
+        if (policy == OverflowPolicy.DISCONNECT) {
+            disconnect(state);
+        } else {
+            droppedCounter.increment();
+            if (state.dropped.getAndIncrement() == 0) {
+                log.warn("Outbound queue full for WebSocket session {} ({} queued), dropping messages",
+                        state.session.getId(), maxQueued);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Rejected by the executor: the task will never run, so afterMessageHandled won't either
+        if (ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message);
+    }
+
+    // ─── Session tracking ─────────────────────────────────────────────
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionState(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void disconnect(SessionState state) {
+        if (!state.closing.compareAndSet(false, true)) {
+            return;
+        }
+        disconnectedCounter.increment();
+        log.warn("Closing slow WebSocket session {}: more than {} outbound messages queued",
+                state.session.getId(), maxQueued);
+        try {
+            state.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ex) {
+            log.debug("Failed to close WebSocket session {}: {}", state.session.getId(), ex.getMessage());
+        }
+    }
+
+    private void release(Message<?> message) {
+        SessionState state = stateOf(message);
+        if (state != null) {
+            state.queued.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    private SessionState stateOf(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    private double totalQueued() {
+        return sessions.values().stream().mapToInt(state -> state.queued.get()).sum();
+    }
+
+    private double maxSessionQueued() {
+        return sessions.values().stream().mapToInt(state -> state.queued.get()).max().orElse(0);
+    }
+
+    private static final class SessionState {
+        private final WebSocketSession session;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger dropped = new AtomicInteger();
+        private final AtomicBoolean closing = new AtomicBoolean();
+
+        private SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.collabflow.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cross-node delivery for {@code app.websocket.broker.mode=redis}.
+ *
+ * <p>Each node keeps its in-memory simple broker. This interceptor sits on the broker channel
+ * and copies every locally originated {@code /topic/**} broadcast and {@code /user/**} send to a
+ * Redis pub/sub channel. The other nodes inject the copy into their own broker channel, but only
+ * if they have a matching local subscription ({@link LocalSubscriptionRegistry}) or a session for
+ * the target user. The copy is marked, so it is never published again. The added latency is one
+ * Redis publish.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "redis")
+public class RedisBrokerFanout implements ChannelInterceptor {
+
+    static final String FANOUT_CHANNEL = "ws:fanout";
+    static final String RELAYED_HEADER = "collabflow-relayed-from";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final String USER_PREFIX = "/user/";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LocalSubscriptionRegistry subscriptionRegistry;
+    private final ObjectProvider<SimpUserRegistry> userRegistry;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> receive(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(FANOUT_CHANNEL));
+        log.info("WebSocket broker mode: redis fan-out (node {})", nodeId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || destination == null
+                || !(destination.startsWith(TOPIC_PREFIX) || destination.startsWith(USER_PREFIX))
+                || message.getHeaders().containsKey(RELAYED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        MimeType contentType = accessor.getContentType();
+        Envelope envelope = new Envelope(
+                nodeId,
+                destination,
+                contentType == null ? null : contentType.toString(),
+                accessor.toNativeHeaderMap(),
+                payload
+        );
+        try {
+            redis.convertAndSend(FANOUT_CHANNEL, objectMapper.writeValueAsString(envelope));
+        } catch (DataAccessException | JsonProcessingException ex) {
+            // Local subscribers still get the message; remote nodes miss this one
+            log.warn("Failed to fan out {} to other nodes: {}", destination, ex.getMessage());
+        }
+        return message;
+    }
+
+    private void receive(String body) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(body, Envelope.class);
+        } catch (Exception ex) {
+            log.warn("Ignoring malformed fan-out message: {}", ex.getMessage());
+            return;
+        }
+        if (nodeId.equals(envelope.origin()) || !isWantedHere(envelope.destination())) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        if (envelope.nativeHeaders() != null) {
+            accessor.setHeader(NativeMessageHeaderAccessor.NATIVE_HEADERS, envelope.nativeHeaders());
+        }
+        accessor.setHeader(RELAYED_HEADER, envelope.origin());
+        accessor.setLeaveMutable(true);
+
+        messagingTemplate.getObject().send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+
+    private boolean isWantedHere(String destination) {
+        if (destination.startsWith(USER_PREFIX)) {
+            int end = destination.indexOf('/', USER_PREFIX.length());
+            String user = end < 0 ? destination.substring(USER_PREFIX.length()) : destination.substring(USER_PREFIX.length(), end);
+            return userRegistry.getObject().getUser(user) != null;
+        }
+        return subscriptionRegistry.hasSubscribers(destination);
+    }
+
+    record Envelope(
+            String origin,
+            String destination,
+            String contentType,
+            Map<String, List<String>> nativeHeaders,
+            byte[] payload
+    ) {
+    }
+}
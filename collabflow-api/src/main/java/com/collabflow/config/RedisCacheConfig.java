@@ -1,5 +1,7 @@
 package com.collabflow.config;
 
+import com.collabflow.domain.search.service.SearchResultCache;
+import com.collabflow.domain.search.service.WorkItemSearchService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
@@ -16,6 +18,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -31,11 +34,24 @@ public class RedisCacheConfig {
     @Value("${app.cache.ttl-seconds:300}")
     private long cacheTtlSeconds;
 
+    @Value("${app.search.suggest.cache-ttl-ms:5000}")
+    private long suggestCacheTtlMs;
+
+    @Value("${app.search.result-cache.ttl-ms:60000}")
+    private long searchResultCacheTtlMs;
+
     @Bean
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
 
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     @Bean
     public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         PolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
@@ -67,6 +83,16 @@ public class RedisCacheConfig {
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(5, TimeUnit.MINUTES));
+        // Kept short so new titles show up in suggestions within seconds
+        cacheManager.registerCustomCache(WorkItemSearchService.SUGGESTIONS_CACHE, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(suggestCacheTtlMs, TimeUnit.MILLISECONDS)
+                .build());
+        // Invalidated through per-team generations; the TTL only bounds memory and Redis outages
+        cacheManager.registerCustomCache(SearchResultCache.CACHE, Caffeine.newBuilder()
+                .maximumSize(5_000)
+                .expireAfterWrite(searchResultCacheTtlMs, TimeUnit.MILLISECONDS)
+                .build());
         return cacheManager;
     }
 
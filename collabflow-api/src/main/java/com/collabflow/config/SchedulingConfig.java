@@ -0,0 +1,12 @@
+package com.collabflow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (outbox relay, maintenance sweeps).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -34,6 +34,8 @@ import java.util.List;
  * On successful validation the {@link org.springframework.security.core.Authentication}
  * principal is set on the STOMP session so that downstream @MessageMapping controllers
  * can access it via {@code @AuthenticationPrincipal}.
+ *
+ * Frames that reach project chat destinations are then checked by {@link ChatAccessInterceptor}.
  */
 @Slf4j
 @Configuration
@@ -45,6 +47,7 @@ public class WebSocketAuthConfig implements WebSocketMessageBrokerConfigurer {
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService userDetailsService;
     private final PresenceService presenceService;
+    private final ChatAccessInterceptor chatAccessInterceptor;
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
@@ -92,11 +95,14 @@ public class WebSocketAuthConfig implements WebSocketMessageBrokerConfigurer {
                         log.warn("❌ WebSocket CONNECT rejected – missing or invalid access token");
                         throw new IllegalArgumentException("Missing or invalid access token");
                     }
+                } else if (accessor != null && accessor.getSessionId() != null) {
+                    // Any inbound frame, heartbeats included, proves the session is alive
+                    presenceService.touchSession(accessor.getSessionId());
                 }
 
                 return message;
             }
-        });
+        }, chatAccessInterceptor);
     }
 
     private String extractAccessTokenFromCookieHeader(List<String> cookieHeaders) {
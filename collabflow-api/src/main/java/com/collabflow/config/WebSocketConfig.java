@@ -1,13 +1,24 @@
 package com.collabflow.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.util.concurrent.Executor;
+
 /**
  * WebSocket / STOMP configuration.
  *
@@ -16,26 +27,185 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
  *   <li>Application destinations prefixed with <code>/app</code> are routed to @MessageMapping methods.</li>
  *   <li>Broker destinations prefixed with <code>/topic</code> are broadcast to subscribers.</li>
  * </ul>
+ *
+ * <p>{@code app.websocket.broker.mode} selects the broker:</p>
+ * <ul>
+ *   <li><code>simple</code> (default): in-memory broker. Only correct for a single node.</li>
+ *   <li><code>relay</code>: external STOMP broker (RabbitMQ, ActiveMQ). User destinations and
+ *       the user registry are broadcast through it, so {@code convertAndSendToUser} reaches
+ *       sessions on any node.</li>
+ *   <li><code>redis</code>: in-memory broker per node plus {@link RedisBrokerFanout}, which copies
+ *       <code>/topic</code> and <code>/user</code> sends to the other nodes over Redis pub/sub.</li>
+ * </ul>
+ *
+ * <p>The client inbound and outbound channels run on executors set by
+ * {@code app.websocket.inbound.*} and {@code app.websocket.outbound.*}. Each is either a bounded
+ * platform pool or virtual threads with a concurrency cap; see {@link ChannelTaskMetrics} for the
+ * exported meters. {@link OutboundSessionLimiter} caps the backlog of each session.</p>
  */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ObjectProvider<RedisBrokerFanout> redisBrokerFanout;
+    private final OutboundSessionLimiter outboundSessionLimiter;
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
     @Value("${app.websocket.max-message-size:65536}")
     private int maxMessageSize;
 
+    @Value("${app.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.inbound.executor:platform}")
+    private String inboundExecutor;
+
+    @Value("${app.websocket.inbound.core-pool-size:16}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:64}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:2000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.inbound.virtual-max-concurrency:1000}")
+    private int inboundVirtualMaxConcurrency;
+
+    @Value("${app.websocket.outbound.executor:platform}")
+    private String outboundExecutor;
+
+    @Value("${app.websocket.outbound.core-pool-size:16}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:64}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.virtual-max-concurrency:2000}")
+    private int outboundVirtualMaxConcurrency;
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("inbound", inboundExecutor,
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity, inboundVirtualMaxConcurrency));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("outbound", outboundExecutor,
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity, outboundVirtualMaxConcurrency))
+                .interceptors(outboundSessionLimiter);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Simple in-memory broker for /topic broadcasts and /queue user destinations
-        registry.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode) {
+            case "relay" -> enableRelay(registry);
+            case "redis" -> {
+                enableSimpleBroker(registry);
+                registry.configureBrokerChannel().interceptors(redisBrokerFanout.getObject());
+            }
+            case "simple" -> enableSimpleBroker(registry);
+            default -> throw new IllegalStateException("Unknown app.websocket.broker.mode: " + brokerMode);
+        }
         // Prefix for messages bound for @MessageMapping methods
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
 
+    private void enableSimpleBroker(MessageBrokerRegistry registry) {
+        // Simple in-memory broker for /topic broadcasts and /queue user destinations.
+        // Heartbeats let clients keep their presence TTL fresh while idle.
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(heartbeatScheduler());
+    }
+
+    private void enableRelay(MessageBrokerRegistry registry) {
+        StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                .setSystemHeartbeatSendInterval(heartbeatMs)
+                .setSystemHeartbeatReceiveInterval(heartbeatMs)
+                // Lets each node resolve /user destinations for sessions held by the others
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        if (!relayVirtualHost.isBlank()) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
+        log.info("WebSocket broker mode: relay to {}:{}", relayHost, relayPort);
+    }
+
+    // Kept out of the context so Boot's default applicationTaskExecutor (used by @Async) stays in place
+    private Executor channelExecutor(String channel, String type, int corePoolSize, int maxPoolSize,
+                                     int queueCapacity, int virtualMaxConcurrency) {
+        ChannelTaskMetrics metrics = new ChannelTaskMetrics(channel, meterRegistry);
+        switch (type) {
+            case "virtual" -> {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ws-" + channel + "-");
+                executor.setVirtualThreads(true);
+                // Submitters block once the cap is reached, which pushes back on the sender
+                executor.setConcurrencyLimit(virtualMaxConcurrency);
+                executor.setTaskDecorator(metrics);
+                log.info("WebSocket {} channel: virtual threads (max concurrency {})", channel, virtualMaxConcurrency);
+                return executor;
+            }
+            case "platform" -> {
+                ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(corePoolSize);
+                executor.setMaxPoolSize(maxPoolSize);
+                executor.setQueueCapacity(queueCapacity);
+                executor.setAllowCoreThreadTimeOut(true);
+                executor.setThreadNamePrefix("ws-" + channel + "-");
+                executor.setDaemon(true);
+                executor.setTaskDecorator(metrics);
+                executor.initialize();
+                return executor;
+            }
+            default -> throw new IllegalStateException("Unknown app.websocket." + channel + ".executor: " + type);
+        }
+    }
+
+    // Kept out of the context so it does not replace the scheduler used by @Scheduled
+    private ThreadPoolTaskScheduler heartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -47,6 +217,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
         registry.setMessageSizeLimit(maxMessageSize)
                 .setSendBufferSizeLimit(maxMessageSize * 2)
-                .setSendTimeLimit(20_000);
+                .setSendTimeLimit(20_000)
+                .addDecoratorFactory(outboundSessionLimiter);
     }
 }
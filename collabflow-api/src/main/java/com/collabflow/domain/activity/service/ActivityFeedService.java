@@ -3,9 +3,7 @@ package com.collabflow.domain.activity.service;
 import com.collabflow.domain.activity.dto.ActivityFeedItemResponse;
 import com.collabflow.domain.activity.repository.ActivityFeedItemRepository;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.exception.TeamNotFoundException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -22,16 +20,10 @@ public class ActivityFeedService {
     private static final int MAX_LIMIT = 100;
 
     private final ActivityFeedItemRepository activityFeedItemRepository;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
 
     public List<ActivityFeedItemResponse> getTeamActivity(UUID teamId, UUID userId, int limit) {
-        Team team = teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamNotFoundException("Team not found: " + teamId));
-
-        boolean isMember = team.getTeamMemberships().stream()
-                .anyMatch(membership -> membership.getUser().getId().equals(userId));
-
-        if (!isMember) {
+        if (!teamAccessService.isMember(teamId, userId)) {
             throw new TeamException("User is not a member of this team");
         }
 
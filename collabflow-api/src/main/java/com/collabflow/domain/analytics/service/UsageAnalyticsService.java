@@ -2,8 +2,7 @@ package com.collabflow.domain.analytics.service;
 
 import com.collabflow.domain.analytics.dto.UsageAnalyticsResponse;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -21,7 +20,7 @@ public class UsageAnalyticsService {
     private static final UUID ZERO_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
     private final JdbcTemplate jdbcTemplate;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
 
     @Transactional(readOnly = true)
     public UsageAnalyticsResponse getUsage(UUID teamId, UUID projectId, int days, UUID userId) {
@@ -97,12 +96,8 @@ public class UsageAnalyticsService {
     }
 
     private void verifyTeamMembership(UUID teamId, UUID userId) {
-        Team team = teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamException("Team not found"));
-
-        team.getTeamMemberships().stream()
-                .filter(membership -> membership.getUser().getId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new TeamException("User is not a member of this team"));
+        if (!teamAccessService.isMember(teamId, userId)) {
+            throw new TeamException("User is not a member of this team");
+        }
     }
 }
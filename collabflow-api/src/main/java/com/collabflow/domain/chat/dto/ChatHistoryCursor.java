@@ -0,0 +1,40 @@
+package com.collabflow.domain.chat.dto;
+
+import com.collabflow.domain.chat.exception.ChatException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Keyset cursor for chat history, written as {@code <createdAt>,<id>}
+ * (e.g. {@code 2026-03-01T10:00:00.123456Z,0190f3c2-...}).
+ *
+ * <p>Clients take it from the oldest message they already have, so no server state is kept
+ * between pages.</p>
+ */
+public record ChatHistoryCursor(Instant createdAt, UUID id) {
+
+    public static ChatHistoryCursor parse(String value) {
+        int comma = value == null ? -1 : value.lastIndexOf(',');
+        if (comma <= 0) {
+            throw new ChatException("Invalid history cursor, expected <createdAt>,<id>");
+        }
+        try {
+            return new ChatHistoryCursor(
+                    Instant.parse(value.substring(0, comma).trim()),
+                    UUID.fromString(value.substring(comma + 1).trim()));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new ChatException("Invalid history cursor, expected <createdAt>,<id>", ex);
+        }
+    }
+
+    public static ChatHistoryCursor of(ChatMessageResponse message) {
+        return new ChatHistoryCursor(message.getCreatedAt(), message.getId());
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "," + id;
+    }
+}
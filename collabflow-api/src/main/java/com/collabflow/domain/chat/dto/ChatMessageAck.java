@@ -0,0 +1,21 @@
+package com.collabflow.domain.chat.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Sent to the author on {@code /user/queue/chat-acks} once a write-behind chat message has been
+ * stored ({@code persisted = true}) or has failed for good ({@code persisted = false}).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatMessageAck {
+
+    private UUID id;
+    private UUID projectId;
+    private boolean persisted;
+}
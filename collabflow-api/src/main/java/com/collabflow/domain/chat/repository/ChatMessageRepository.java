@@ -1,5 +1,6 @@
 package com.collabflow.domain.chat.repository;
 
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
 import com.collabflow.domain.chat.model.ChatMessage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,7 +24,27 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID>
             SELECT m FROM ChatMessage m
             JOIN FETCH m.sender
             WHERE m.project.id = :projectId
-            ORDER BY m.createdAt DESC
+            ORDER BY m.createdAt DESC, m.id DESC
             """)
     List<ChatMessage> findLatestByProjectId(@Param("projectId") UUID projectId, Pageable pageable);
+
+    /**
+     * Keyset page of messages strictly older than the {@code (createdAt, id)} cursor, newest first.
+     * Reads one range of {@code idx_chat_messages_project_created_id} no matter how far back the
+     * cursor is, and selects only the response columns.
+     */
+    @Query("""
+            SELECT new com.collabflow.domain.chat.dto.ChatMessageResponse(
+                m.id, m.project.id, s.id, s.username, m.content, m.createdAt)
+            FROM ChatMessage m
+            JOIN m.sender s
+            WHERE m.project.id = :projectId
+              AND (m.createdAt, m.id) < (:beforeCreatedAt, :beforeId)
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<ChatMessageResponse> findPageBefore(
+            @Param("projectId") UUID projectId,
+            @Param("beforeCreatedAt") Instant beforeCreatedAt,
+            @Param("beforeId") UUID beforeId,
+            Pageable pageable);
 }
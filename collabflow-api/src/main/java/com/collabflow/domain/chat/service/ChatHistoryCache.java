@@ -0,0 +1,402 @@
+package com.collabflow.domain.chat.service;
+
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The latest {@code capacity} messages of each project, oldest first.
+ *
+ * <p>Two tiers: a bounded in-process ring per project (Caffeine) and a capped Redis list shared
+ * by all nodes. A ring is created only by warming, from Redis or else from the loader. After
+ * that, sends are appended to it. A ring is therefore always an exact suffix of the project's
+ * history, and it is "complete" if the project has fewer messages than the capacity. Each
+ * append is pushed onto the Redis list (only if it exists) and published to every node in one
+ * script, so rings elsewhere stay current too.</p>
+ *
+ * <p>Warming from the loader must not lose a message appended meanwhile, or one accepted but
+ * not stored yet (write-behind). So the append script also bumps a per-project generation and
+ * keeps the latest appends in a short list of their own. A warm-up reads the generation first,
+ * merges those recent appends into what the loader returned, and fills the Redis list only if
+ * the generation is unchanged, as {@code TeamAccessService} does. Appends to this node while
+ * its ring is being built are buffered and applied once it is in place.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatHistoryCache {
+
+    private static final String KEY_PREFIX = "chat:recent:";
+    private static final String GENERATION_KEY_PREFIX = "chat:recent:generation:";
+    private static final String APPENDS_KEY_PREFIX = "chat:recent:appends:";
+    private static final String APPENDED_CHANNEL = "chat:recent:appended";
+
+    private static final Comparator<ChatMessageResponse> CHRONOLOGICAL = Comparator
+            .comparing(ChatMessageResponse::getCreatedAt)
+            .thenComparing(ChatMessageResponse::getId);
+
+    // KEYS: ring list, generation, recent appends. ARGV: message json, capacity, channel, ttl.
+    private static final RedisScript<Long> APPEND = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[4])
+            redis.call('RPUSH', KEYS[3], ARGV[1])
+            redis.call('LTRIM', KEYS[3], -tonumber(ARGV[2]), -1)
+            redis.call('EXPIRE', KEYS[3], ARGV[4])
+            local present = redis.call('EXISTS', KEYS[1])
+            if present == 1 then
+              redis.call('RPUSH', KEYS[1], ARGV[1])
+              redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1)
+            end
+            redis.call('PUBLISH', ARGV[3], ARGV[1])
+            return present
+            """, Long.class);
+
+    // KEYS: ring list, generation. ARGV: generation seen before loading, ttl, message json...
+    // Skipped if anything was appended since, since the loaded messages may be missing it.
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 3, #ARGV do
+              redis.call('RPUSH', KEYS[1], ARGV[i])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.chat.history.capacity:100}")
+    private int capacity;
+
+    @Value("${app.chat.history.local-max-projects:5000}")
+    private long localMaxProjects;
+
+    @Value("${app.chat.history.local-ttl-seconds:600}")
+    private long localTtlSeconds;
+
+    @Value("${app.chat.history.redis-ttl-seconds:3600}")
+    private long redisTtlSeconds;
+
+    private Cache<UUID, Ring> rings;
+    // Appends that arrived while a project's ring was being warmed
+    private final Map<UUID, List<ChatMessageResponse>> warming = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        rings = Caffeine.newBuilder()
+                .maximumSize(localMaxProjects)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+
+        listenerContainer.addMessageListener((message, pattern) -> {
+            ChatMessageResponse appended = fromJson(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (appended != null) {
+                appendLocal(appended);
+            }
+        }, new ChannelTopic(APPENDED_CHANNEL));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * The latest {@code limit} messages, oldest first. {@code loader} is called on a miss and
+     * must return the project's latest {@link #capacity()} messages, oldest first.
+     */
+    public List<ChatMessageResponse> latest(UUID projectId, int limit, Supplier<List<ChatMessageResponse>> loader) {
+        Ring ring = rings.getIfPresent(projectId);
+        if (ring == null) {
+            ring = warmed(projectId, loader);
+        }
+        Optional<List<ChatMessageResponse>> served = ring.latest(limit);
+        if (served.isPresent()) {
+            return served.get();
+        }
+        // Asked for more than the ring holds; serve it from the source
+        List<ChatMessageResponse> loaded = loader.get();
+        return loaded.subList(Math.max(0, loaded.size() - limit), loaded.size());
+    }
+
+    /** Appends a message that has just been sent (or accepted for write-behind storage). */
+    public void append(ChatMessageResponse message) {
+        appendLocal(message);
+        String json = toJson(message);
+        if (json == null) {
+            return;
+        }
+        UUID projectId = message.getProjectId();
+        try {
+            redis.execute(APPEND, List.of(key(projectId), generationKey(projectId), appendsKey(projectId)),
+                    json, Integer.toString(capacity), APPENDED_CHANNEL, Long.toString(redisTtlSeconds));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to append chat message {} to shared history: {}", message.getId(), ex.getMessage());
+        }
+    }
+
+    /** Drops both tiers for a project, e.g. after a write-behind message failed to persist. */
+    public void evict(UUID projectId) {
+        rings.invalidate(projectId);
+        try {
+            // The generation bump keeps a warm-up that already read the message from caching it
+            redis.opsForValue().increment(generationKey(projectId));
+            redis.delete(List.of(key(projectId), appendsKey(projectId)));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to evict chat history for project {}: {}", projectId, ex.getMessage());
+        }
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void appendLocal(ChatMessageResponse message) {
+        warming.compute(message.getProjectId(), (projectId, buffered) -> {
+            if (buffered != null) {
+                buffered.add(message);
+                return buffered;
+            }
+            Ring ring = rings.getIfPresent(projectId);
+            if (ring != null) {
+                ring.add(message);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Warms the ring, buffering appends until it is in place. The buffer is applied and removed
+     * under the same lock appends take, so every append reaches either the buffer or the ring.
+     */
+    private Ring warmed(UUID projectId, Supplier<List<ChatMessageResponse>> loader) {
+        Ring[] built = new Ring[1];
+        try {
+            built[0] = rings.get(projectId, id -> {
+                warming.putIfAbsent(id, new ArrayList<>());
+                return warm(id, loader);
+            });
+        } finally {
+            warming.computeIfPresent(projectId, (id, buffered) -> {
+                if (built[0] != null) {
+                    buffered.forEach(built[0]::add);
+                }
+                return null;
+            });
+        }
+        return built[0];
+    }
+
+    private Ring warm(UUID projectId, Supplier<List<ChatMessageResponse>> loader) {
+        List<ChatMessageResponse> shared = readFromRedis(projectId);
+        if (shared != null) {
+            return new Ring(capacity, shared, shared.size() < capacity);
+        }
+        // Read before the loader: anything appended after this makes the fill a no-op
+        String generation = readGeneration(projectId);
+        List<ChatMessageResponse> recent = readRecentAppends(projectId);
+        List<ChatMessageResponse> loaded = loader.get();
+        List<ChatMessageResponse> messages = merge(loaded, recent, capacity);
+        if (generation != null) {
+            writeToRedis(projectId, generation, messages);
+        }
+        return new Ring(capacity, messages, loaded.size() < capacity && messages.size() < capacity);
+    }
+
+    /** The latest {@code limit} messages of both lists, oldest first, each message once. */
+    static List<ChatMessageResponse> merge(List<ChatMessageResponse> first, List<ChatMessageResponse> second, int limit) {
+        if (second.isEmpty()) {
+            return first.subList(Math.max(0, first.size() - limit), first.size());
+        }
+        Map<UUID, ChatMessageResponse> byId = new HashMap<>();
+        first.forEach(message -> byId.put(message.getId(), message));
+        second.forEach(message -> byId.putIfAbsent(message.getId(), message));
+        List<ChatMessageResponse> merged = new ArrayList<>(byId.values());
+        merged.sort(CHRONOLOGICAL);
+        return merged.subList(Math.max(0, merged.size() - limit), merged.size());
+    }
+
+    private List<ChatMessageResponse> readFromRedis(UUID projectId) {
+        try {
+            return readList(key(projectId));
+        } catch (DataAccessException ex) {
+            log.warn("Shared chat history unavailable for project {}, using database: {}", projectId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private List<ChatMessageResponse> readRecentAppends(UUID projectId) {
+        try {
+            List<ChatMessageResponse> recent = readList(appendsKey(projectId));
+            return recent == null ? List.of() : recent;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read recent chat appends for project {}: {}", projectId, ex.getMessage());
+            return List.of();
+        }
+    }
+
+    // Null if the list is missing or holds an unreadable entry
+    private List<ChatMessageResponse> readList(String key) {
+        List<String> entries = redis.opsForList().range(key, 0, -1);
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+        List<ChatMessageResponse> messages = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            ChatMessageResponse message = fromJson(entry);
+            if (message == null) {
+                return null;
+            }
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private String readGeneration(UUID projectId) {
+        try {
+            String generation = redis.opsForValue().get(generationKey(projectId));
+            return generation == null ? "0" : generation;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read chat history generation for project {}, not caching: {}", projectId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(UUID projectId, String generation, List<ChatMessageResponse> messages) {
+        // Redis cannot hold an empty list; such projects are only cached locally
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(2 + messages.size());
+        args.add(generation);
+        args.add(Long.toString(redisTtlSeconds));
+        for (ChatMessageResponse message : messages) {
+            String json = toJson(message);
+            if (json == null) {
+                return;
+            }
+            args.add(json);
+        }
+
+        try {
+            Long filled = redis.execute(FILL, List.of(key(projectId), generationKey(projectId)), args.toArray());
+            if (filled == null || filled == 0) {
+                log.debug("Chat history of project {} changed while loading, not cached in Redis", projectId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Failed to store shared chat history for project {}: {}", projectId, ex.getMessage());
+        }
+    }
+
+    private String toJson(ChatMessageResponse message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to serialize chat message {}: {}", message.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private ChatMessageResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, ChatMessageResponse.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed chat history entry: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String key(UUID projectId) {
+        return KEY_PREFIX + projectId;
+    }
+
+    private String generationKey(UUID projectId) {
+        return GENERATION_KEY_PREFIX + projectId;
+    }
+
+    private String appendsKey(UUID projectId) {
+        return APPENDS_KEY_PREFIX + projectId;
+    }
+
+    /** Bounded, chronologically ordered suffix of a project's history. */
+    private static final class Ring {
+
+        private final int capacity;
+        private final Deque<ChatMessageResponse> messages;
+        // True while the ring holds the project's entire history
+        private boolean complete;
+
+        private Ring(int capacity, List<ChatMessageResponse> initial, boolean complete) {
+            this.capacity = capacity;
+            this.messages = new ArrayDeque<>(initial.subList(Math.max(0, initial.size() - capacity), initial.size()));
+            this.complete = complete;
+        }
+
+        synchronized void add(ChatMessageResponse message) {
+            for (ChatMessageResponse existing : messages) {
+                if (existing.getId().equals(message.getId())) {
+                    return;
+                }
+            }
+            if (messages.isEmpty() || CHRONOLOGICAL.compare(messages.peekLast(), message) <= 0) {
+                messages.addLast(message);
+            } else {
+                // Rare: arrived out of order from another node; re-insert in place
+                List<ChatMessageResponse> sorted = new ArrayList<>(messages);
+                sorted.add(message);
+                sorted.sort(CHRONOLOGICAL);
+                messages.clear();
+                messages.addAll(sorted);
+            }
+            while (messages.size() > capacity) {
+                messages.pollFirst();
+                complete = false;
+            }
+        }
+
+        synchronized Optional<List<ChatMessageResponse>> latest(int limit) {
+            if (limit > messages.size() && !complete) {
+                return Optional.empty();
+            }
+            int skip = Math.max(0, messages.size() - limit);
+            List<ChatMessageResponse> result = new ArrayList<>(Math.min(limit, messages.size()));
+            Iterator<ChatMessageResponse> iterator = messages.iterator();
+            for (int i = 0; iterator.hasNext(); i++) {
+                ChatMessageResponse message = iterator.next();
+                if (i >= skip) {
+                    result.add(message);
+                }
+            }
+            return Optional.of(result);
+        }
+    }
+}
@@ -1,31 +1,44 @@
 package com.collabflow.domain.chat.service;
 
+import com.collabflow.domain.chat.dto.ChatHistoryCursor;
 import com.collabflow.domain.chat.dto.ChatMessageRequest;
 import com.collabflow.domain.chat.dto.ChatMessageResponse;
 import com.collabflow.domain.chat.exception.ChatException;
 import com.collabflow.domain.chat.mapper.ChatMessageMapper;
 import com.collabflow.domain.chat.model.ChatMessage;
 import com.collabflow.domain.chat.repository.ChatMessageRepository;
+import com.collabflow.domain.chat.service.ChatWriteBehindWriter.PendingChatMessage;
+import com.collabflow.domain.common.id.TimeOrderedIds;
 import com.collabflow.domain.project.exception.ProjectNotFoundException;
 import com.collabflow.domain.project.model.Project;
 import com.collabflow.domain.project.repository.ProjectRepository;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.exception.TeamNotFoundException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import com.collabflow.domain.user.model.User;
 import com.collabflow.events.model.DomainEvent;
 import com.collabflow.events.model.DomainEventType;
 import com.collabflow.events.publisher.DomainEventPublisher;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Business logic for project-scoped chat messaging.
@@ -33,6 +46,10 @@ import java.util.UUID;
  * <p>Every operation verifies that the calling user is a member of the team
  * that owns the given project – ensuring only authorised team members can read
  * or write messages.</p>
+ *
+ * <p>Messages are written either synchronously ({@link #sendMessage}) or, with
+ * {@code app.chat.pipeline=write-behind}, accepted without touching the database
+ * ({@link #acceptMessage}) and stored later by {@link ChatWriteBehindWriter}.</p>
  */
 @Slf4j
 @Service
@@ -41,39 +58,68 @@ import java.util.UUID;
 public class ChatService {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     private final ChatMessageRepository chatMessageRepository;
     private final ProjectRepository projectRepository;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
     private final ChatMessageMapper mapper;
     private final DomainEventPublisher domainEventPublisher;
+    private final ObjectProvider<ChatWriteBehindWriter> writeBehindWriter;
+    private final ChatHistoryCache historyCache;
+
+    // projectId → owning teamId, so reading history or accepting a message needs no query
+    private final Cache<UUID, UUID> projectTeams = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
 
     // ─── Queries ──────────────────────────────────────────────────────
 
     /**
      * Retrieves the latest messages for a project, oldest-first.
      *
+     * <p>Served from {@link ChatHistoryCache} whenever the window fits, so opening a busy
+     * project normally runs no query at all (hence no surrounding transaction).</p>
+     *
      * @param projectId the project whose chat to fetch
      * @param userId    the requesting user (must be a team member)
      * @param limit     max number of messages to return (capped at {@value DEFAULT_PAGE_SIZE})
      * @return chronologically ordered list of messages
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ChatMessageResponse> getLatestMessages(UUID projectId, UUID userId, int limit) {
-        Project project = getProject(projectId);
-        verifyTeamMembership(project.getTeamId(), userId);
+        verifyTeamMembership(teamOf(projectId), userId);
 
         int safeLimit = Math.min(Math.max(limit, 1), DEFAULT_PAGE_SIZE);
 
-        List<ChatMessage> messages =
-                chatMessageRepository.findLatestByProjectId(projectId, PageRequest.of(0, safeLimit));
+        return historyCache.latest(projectId, safeLimit,
+                () -> loadLatest(projectId, Math.max(safeLimit, historyCache.capacity())));
+    }
 
-        // The query returns newest-first; reverse so the UI sees oldest-first
-        List<ChatMessageResponse> result = messages.stream()
-                .map(mapper::toResponse)
-                .collect(java.util.stream.Collectors.toList());
+    /**
+     * Retrieves the page of messages just older than {@code before}, oldest-first.
+     *
+     * <p>Keyset paging on {@code (created_at, id)}: every page costs one index range scan,
+     * however far back it is. The next (older) cursor is the first message of the page, and a
+     * page shorter than {@code limit} is the last one.</p>
+     *
+     * @param projectId the project whose chat to fetch
+     * @param userId    the requesting user (must be a team member)
+     * @param before    cursor of the oldest message the client already has
+     * @param limit     max number of messages to return (capped at {@value MAX_HISTORY_PAGE_SIZE})
+     * @return chronologically ordered list of messages
+     */
+    public List<ChatMessageResponse> getMessagesBefore(UUID projectId, UUID userId, ChatHistoryCursor before, int limit) {
+        verifyTeamMembership(teamOf(projectId), userId);
 
-        Collections.reverse(result);
-        return result;
+        int safeLimit = Math.min(Math.max(limit, 1), MAX_HISTORY_PAGE_SIZE);
+
+        List<ChatMessageResponse> page = new ArrayList<>(chatMessageRepository.findPageBefore(
+                projectId, before.createdAt(), before.id(), PageRequest.of(0, safeLimit)));
+
+        Collections.reverse(page);
+        return page;
     }
 
     // ─── Commands ─────────────────────────────────────────────────────
@@ -103,26 +149,109 @@ public class ChatService {
 
         ChatMessage saved = chatMessageRepository.save(message);
 
-        domainEventPublisher.publish(DomainEvent.builder()
-            .eventType(DomainEventType.CHAT_MESSAGE_SENT)
-            .aggregateType("ChatMessage")
-            .aggregateId(saved.getId())
-            .actorId(user.getId())
-            .actorUsername(user.getUsername())
-            .teamId(project.getTeamId())
-            .projectId(project.getId())
-            .payload(java.util.Map.of(
-                "contentPreview", abbreviate(saved.getContent(), 80)
-            ))
-            .build());
+        domainEventPublisher.publish(messageSentEvent(
+                saved.getId(), project.getId(), project.getTeamId(), user.getId(), user.getUsername(), saved.getContent()));
 
         log.info("💬 Chat message saved – project={}, sender={}", projectId, user.getUsername());
 
-        return mapper.toResponse(saved);
+        ChatMessageResponse response = mapper.toResponse(saved);
+        afterCommit(() -> historyCache.append(response));
+        return response;
+    }
+
+    /**
+     * Accepts a message for write-behind storage and hands it to {@code broadcast}.
+     *
+     * <p>The id is time-ordered and assigned here, so the broadcast copy and the stored row
+     * are the same message. Id, queueing and broadcast happen under the project's lock in
+     * {@link ChatWriteBehindWriter#submit}, so subscribers see messages in the order they are
+     * stored. No transaction is opened. Membership comes from the team-access index and the
+     * project's team from a local cache.</p>
+     *
+     * @param projectId the target project
+     * @param user      the authenticated sender
+     * @param request   the message payload
+     * @param broadcast sends the message to the project's subscribers
+     * @return the message as it will be stored
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChatMessageResponse acceptMessage(UUID projectId, User user, ChatMessageRequest request,
+                                             Consumer<ChatMessageResponse> broadcast) {
+        if (request == null || request.getContent() == null || request.getContent().isBlank()) {
+            throw new ChatException("Message content cannot be blank");
+        }
+
+        UUID teamId = teamOf(projectId);
+        verifyTeamMembership(teamId, user.getId());
+        String content = sanitizeHtml(request.getContent().trim());
+
+        return writeBehindWriter.getObject().submit(projectId,
+                () -> new PendingChatMessage(ChatMessageResponse.builder()
+                        .id(TimeOrderedIds.next())
+                        .projectId(projectId)
+                        .senderId(user.getId())
+                        .senderUsername(user.getUsername())
+                        .content(content)
+                        .createdAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                        .build(), teamId),
+                message -> {
+                    historyCache.append(message);
+                    broadcast.accept(message);
+                });
+    }
+
+    static DomainEvent messageSentEvent(UUID messageId, UUID projectId, UUID teamId,
+                                        UUID senderId, String senderUsername, String content) {
+        return DomainEvent.builder()
+                .eventType(DomainEventType.CHAT_MESSAGE_SENT)
+                .aggregateType("ChatMessage")
+                .aggregateId(messageId)
+                .actorId(senderId)
+                .actorUsername(senderUsername)
+                .teamId(teamId)
+                .projectId(projectId)
+                .payload(Map.of(
+                    "contentPreview", abbreviate(content, 80)
+                ))
+                .build();
     }
 
     // ─── Internal helpers ─────────────────────────────────────────────
 
+    private List<ChatMessageResponse> loadLatest(UUID projectId, int limit) {
+        // Write-behind messages not stored yet; read first so none falls between the two reads
+        ChatWriteBehindWriter writer = writeBehindWriter.getIfAvailable();
+        List<ChatMessageResponse> unstored = writer == null ? List.of() : writer.unstored(projectId);
+
+        List<ChatMessage> messages =
+                chatMessageRepository.findLatestByProjectId(projectId, PageRequest.of(0, limit));
+
+        // The query returns newest-first; reverse so the UI sees oldest-first
+        List<ChatMessageResponse> result = messages.stream()
+                .map(mapper::toResponse)
+                .collect(java.util.stream.Collectors.toList());
+
+        Collections.reverse(result);
+        return ChatHistoryCache.merge(result, unstored, limit);
+    }
+
+    private UUID teamOf(UUID projectId) {
+        return projectTeams.get(projectId, id -> getProject(id).getTeamId());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
     private Project getProject(UUID projectId) {
         return projectRepository.findById(projectId)
                 .filter(p -> !p.isDeleted())
@@ -130,13 +259,7 @@ public class ChatService {
     }
 
     private void verifyTeamMembership(UUID teamId, UUID userId) {
-        Team team = teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamNotFoundException("Team not found: " + teamId));
-
-        boolean isMember = team.getTeamMemberships().stream()
-                .anyMatch(m -> m.getUser().getId().equals(userId));
-
-        if (!isMember) {
+        if (!teamAccessService.isMember(teamId, userId)) {
             throw new TeamException("User is not a member of this team – chat access denied");
         }
     }
@@ -144,7 +267,7 @@ public class ChatService {
      * HTML sanitization to prevent stored XSS.
      * Strips all HTML tags, decodes entities, and removes script-related content.
      */
-    private String sanitizeHtml(String input) {
+    private static String sanitizeHtml(String input) {
         if (input == null) return null;
         // Strip HTML tags (including self-closing and malformed)
         String result = input.replaceAll("<[^>]*>", "");
@@ -155,7 +278,7 @@ public class ChatService {
         return result;
     }
 
-    private String abbreviate(String input, int maxLength) {
+    private static String abbreviate(String input, int maxLength) {
         if (input == null || input.length() <= maxLength) {
             return input;
         }
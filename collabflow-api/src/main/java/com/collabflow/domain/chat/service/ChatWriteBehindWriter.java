@@ -0,0 +1,324 @@
+package com.collabflow.domain.chat.service;
+
+import com.collabflow.domain.chat.dto.ChatMessageAck;
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
+import com.collabflow.domain.chat.exception.ChatException;
+import com.collabflow.events.publisher.DomainEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Persists chat messages after they have been broadcast ({@code app.chat.pipeline=write-behind}).
+ *
+ * <p>Messages are spread over a fixed number of lanes by project id. Each lane is one bounded
+ * queue drained by one thread, so messages of a project are stored in the order they were
+ * accepted. A lane takes whatever has queued up, at most {@code batch-size} messages, and writes
+ * it in one transaction. That transaction holds one multi-row insert plus the
+ * {@code CHAT_MESSAGE_SENT} events. The author then gets a {@link ChatMessageAck}. A batch that
+ * keeps failing is retried row by row, so one bad message cannot hold back the rest. When a lane
+ * is full, {@link #enqueue} blocks for up to {@code enqueue-timeout-ms} and then rejects the
+ * message.</p>
+ *
+ * <p>{@link #submit} creates, queues and broadcasts a message under a lock per lane. Messages of a
+ * project are therefore broadcast in the order they are stored, and the lane holds a message's ack
+ * back until its broadcast has gone out.</p>
+ *
+ * <p>Messages still queued when the process dies are lost. They were broadcast but never
+ * acknowledged, so clients can resend anything without an ack.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.chat.pipeline", havingValue = "write-behind")
+public class ChatWriteBehindWriter {
+
+    private static final String ACK_DESTINATION = "/queue/chat-acks";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainEventPublisher domainEventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatHistoryCache historyCache;
+
+    private final List<BlockingQueue<PendingChatMessage>> lanes;
+    private final List<Object> acceptLocks;
+    // Queued or being written, by message id; removed once stored or dropped
+    private final Map<UUID, ChatMessageResponse> unstored = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final int batchSize;
+    private final long enqueueTimeoutMs;
+    private final int maxAttempts;
+    private volatile boolean running = true;
+
+    private final Timer batchTimer;
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+
+    public ChatWriteBehindWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DomainEventPublisher domainEventPublisher,
+            SimpMessagingTemplate messagingTemplate,
+            ChatHistoryCache historyCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.chat.write-behind.lanes:4}") int laneCount,
+            @Value("${app.chat.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.chat.write-behind.batch-size:200}") int batchSize,
+            @Value("${app.chat.write-behind.enqueue-timeout-ms:200}") long enqueueTimeoutMs,
+            @Value("${app.chat.write-behind.max-attempts:3}") int maxAttempts
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.domainEventPublisher = domainEventPublisher;
+        this.messagingTemplate = messagingTemplate;
+        this.historyCache = historyCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        List<BlockingQueue<PendingChatMessage>> queues = new ArrayList<>(laneCount);
+        for (int i = 0; i < Math.max(1, laneCount); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        this.lanes = List.copyOf(queues);
+        List<Object> locks = new ArrayList<>(lanes.size());
+        for (int i = 0; i < lanes.size(); i++) {
+            locks.add(new Object());
+        }
+        this.acceptLocks = List.copyOf(locks);
+
+        this.batchTimer = Timer.builder("collabflow.chat.persist.batch")
+                .description("Time to store one write-behind chat batch")
+                .register(meterRegistry);
+        this.persistedCounter = Counter.builder("collabflow.chat.persisted")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("collabflow.chat.persist.failed")
+                .description("Chat messages that could not be stored after all retries")
+                .register(meterRegistry);
+        Gauge.builder("collabflow.chat.write-behind.queued", this, ChatWriteBehindWriter::queued)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < lanes.size(); i++) {
+            BlockingQueue<PendingChatMessage> lane = lanes.get(i);
+            Thread worker = new Thread(() -> drain(lane), "chat-write-behind-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Chat write-behind started with {} lanes", lanes.size());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Creates a message of {@code projectId}, queues it for storage and broadcasts it, all under
+     * the project's lane lock, so the id {@code create} assigns follows the queue order.
+     */
+    public ChatMessageResponse submit(UUID projectId, Supplier<PendingChatMessage> create,
+                                      Consumer<ChatMessageResponse> broadcast) {
+        synchronized (acceptLocks.get(laneOf(projectId))) {
+            PendingChatMessage created = create.get();
+            PendingChatMessage pending = new PendingChatMessage(created.message(), created.teamId(), new CountDownLatch(1));
+            enqueue(pending);
+            try {
+                broadcast.accept(pending.message());
+            } finally {
+                pending.broadcastDone().countDown();
+            }
+            return pending.message();
+        }
+    }
+
+    /** Queues a message for storage; per-project order is preserved. */
+    public void enqueue(PendingChatMessage pending) {
+        if (!running) {
+            throw new ChatException("Chat is shutting down, please retry");
+        }
+        ChatMessageResponse message = pending.message();
+        BlockingQueue<PendingChatMessage> lane = lanes.get(laneOf(message.getProjectId()));
+        unstored.put(message.getId(), message);
+        boolean queued = false;
+        try {
+            queued = lane.offer(pending, enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!queued) {
+                throw new ChatException("Chat is busy, please retry");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ChatException("Interrupted while queueing chat message", ex);
+        } finally {
+            if (!queued) {
+                unstored.remove(message.getId());
+            }
+        }
+    }
+
+    /**
+     * Messages of {@code projectId} accepted but not stored yet. Read before querying the
+     * database, a message is then seen by one or the other.
+     */
+    public List<ChatMessageResponse> unstored(UUID projectId) {
+        return unstored.values().stream()
+                .filter(message -> projectId.equals(message.getProjectId()))
+                .toList();
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private int laneOf(UUID projectId) {
+        return Math.floorMod(projectId.hashCode(), lanes.size());
+    }
+
+    private void drain(BlockingQueue<PendingChatMessage> lane) {
+        List<PendingChatMessage> batch = new ArrayList<>(batchSize);
+        while (running || !lane.isEmpty()) {
+            try {
+                PendingChatMessage first = lane.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                lane.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Chat write-behind lane failed: {}", ex.getMessage(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingChatMessage> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                batchTimer.record(() -> persist(batch));
+                persistedCounter.increment(batch.size());
+                batch.forEach(pending -> unstored.remove(pending.message().getId()));
+                batch.forEach(pending -> acknowledge(pending, true));
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Chat batch of {} failed (attempt {}/{}): {}", batch.size(), attempt, maxAttempts, ex.getMessage());
+                if (attempt < maxAttempts) {
+                    Thread.sleep(200L * attempt);
+                }
+            }
+        }
+
+        // Isolate the message(s) that keep the batch from committing
+        for (PendingChatMessage pending : batch) {
+            try {
+                persist(List.of(pending));
+                persistedCounter.increment();
+                unstored.remove(pending.message().getId());
+                acknowledge(pending, true);
+            } catch (RuntimeException ex) {
+                unstored.remove(pending.message().getId());
+                failedCounter.increment();
+                log.error("Dropping chat message {} for project {}: {}",
+                        pending.message().getId(), pending.message().getProjectId(), ex.getMessage());
+                acknowledge(pending, false);
+                // The cached history already shows it; rebuild from what was actually stored
+                historyCache.evict(pending.message().getProjectId());
+            }
+        }
+    }
+
+    private void persist(List<PendingChatMessage> batch) {
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>(batch.size() * 5);
+        for (PendingChatMessage pending : batch) {
+            ChatMessageResponse message = pending.message();
+            values.add("(?, ?, ?, ?, ?)");
+            args.add(message.getId());
+            args.add(message.getProjectId());
+            args.add(message.getSenderId());
+            args.add(message.getContent());
+            args.add(Timestamp.from(message.getCreatedAt()));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    INSERT INTO chat_messages (id, project_id, sender_id, content, created_at)
+                    VALUES %s
+                    ON CONFLICT (id) DO NOTHING
+                    """.formatted(values), args.toArray());
+            for (PendingChatMessage pending : batch) {
+                ChatMessageResponse message = pending.message();
+                domainEventPublisher.publish(ChatService.messageSentEvent(
+                        message.getId(), message.getProjectId(), pending.teamId(),
+                        message.getSenderId(), message.getSenderUsername(), message.getContent()));
+            }
+        });
+    }
+
+    private void acknowledge(PendingChatMessage pending, boolean persisted) {
+        ChatMessageResponse message = pending.message();
+        try {
+            // Normally long done; bounded so a stuck broadcast cannot stall the lane
+            if (!pending.broadcastDone().await(1, TimeUnit.SECONDS)) {
+                log.warn("Chat message {} acknowledged before its broadcast finished", message.getId());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(
+                    message.getSenderUsername(),
+                    ACK_DESTINATION,
+                    new ChatMessageAck(message.getId(), message.getProjectId(), persisted));
+        } catch (RuntimeException ex) {
+            log.debug("Failed to acknowledge chat message {}: {}", message.getId(), ex.getMessage());
+        }
+    }
+
+    private double queued() {
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * A message awaiting storage, with the owning team for its domain event. {@code broadcastDone}
+     * opens once the message has been broadcast.
+     */
+    public record PendingChatMessage(ChatMessageResponse message, UUID teamId, CountDownLatch broadcastDone) {
+
+        public PendingChatMessage(ChatMessageResponse message, UUID teamId) {
+            this(message, teamId, new CountDownLatch(0));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.collabflow.domain.common.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7).
+ *
+ * <p>The top 48 bits hold the Unix time in milliseconds, so ids sort by creation time and can be
+ * assigned before a row is written. Within one millisecond the 12-bit {@code rand_a} field is
+ * used as a counter. Ids from this JVM therefore increase strictly, even when the clock stalls
+ * or steps back. The remaining 62 bits are random.</p>
+ */
+public final class TimeOrderedIds {
+
+    // (unix millis << 12) | counter of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long nowMillis) {
+        long stamp = LAST.updateAndGet(previous -> Math.max(previous + 1, nowMillis << 12));
+        long mostSigBits = ((stamp >>> 12) << 16) | 0x7000L | (stamp & 0xFFFL);
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,153 @@
+package com.collabflow.domain.common.ordering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fractional-key ordering for kanban positions.
+ *
+ * <p>Items are ordered by a {@code double} key. Placing an item between two neighbours takes
+ * the midpoint of their keys, so a move rewrites exactly one row. Each insert into the same gap
+ * halves it. Once a gap drops below {@link #COMPACTION_GAP} the owning collection should be
+ * compacted in the background. Once it drops below {@link #MIN_GAP} a new key can no longer be
+ * placed reliably and the collection must be renumbered first.</p>
+ */
+public final class FractionalRanker {
+
+    public static final double STEP = 1000.0;
+
+    /** Gap below which a background compaction should be scheduled. */
+    public static final double COMPACTION_GAP = 1e-3;
+
+    /** Gap below which midpoints are no longer distinct enough to be trusted. */
+    public static final double MIN_GAP = 1e-9;
+
+    private FractionalRanker() {
+    }
+
+    /**
+     * Key for an item placed between {@code before} and {@code after}; either may be
+     * {@code null} to mean the start or end of the collection.
+     */
+    public static double between(Double before, Double after) {
+        if (before == null && after == null) {
+            return STEP;
+        }
+        if (before == null) {
+            return after - STEP;
+        }
+        if (after == null) {
+            return before + STEP;
+        }
+        return before + (after - before) / 2.0;
+    }
+
+    /** Whether a distinct key can still be placed between the two neighbours. */
+    public static boolean hasRoom(Double before, Double after) {
+        return before == null || after == null || after - before > MIN_GAP;
+    }
+
+    /** Whether placing a key between the two neighbours leaves gaps small enough to compact. */
+    public static boolean shouldCompact(Double before, Double after) {
+        return before != null && after != null && (after - before) / 2.0 < COMPACTION_GAP;
+    }
+
+    /** Whether a key already placed between the two neighbours leaves gaps small enough to compact. */
+    public static boolean shouldCompactAround(Double before, double key, Double after) {
+        return (before != null && key - before < COMPACTION_GAP) || (after != null && after - key < COMPACTION_GAP);
+    }
+
+    /**
+     * Computes the minimal set of key changes that put the items in the given order.
+     *
+     * <p>The longest run of keys that is already increasing keeps its keys. Every other item gets
+     * a key spaced evenly between its nearest kept neighbours. A single drag in a full-order
+     * request therefore rewrites one key instead of all of them.</p>
+     *
+     * @param keysInTargetOrder current keys, listed in the desired order ({@code null} = unranked)
+     * @return index → new key for each item that must change, or {@code null} when some gap has
+     * no room left and the collection has to be renumbered
+     */
+    public static Map<Integer, Double> rerank(List<Double> keysInTargetOrder) {
+        boolean[] kept = longestIncreasingRun(keysInTargetOrder);
+        Map<Integer, Double> changes = new HashMap<>();
+
+        int i = 0;
+        int n = keysInTargetOrder.size();
+        while (i < n) {
+            if (kept[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < n && !kept[i]) {
+                i++;
+            }
+            int count = i - start;
+            Double lower = start > 0 ? keysInTargetOrder.get(start - 1) : null;
+            Double upper = i < n ? keysInTargetOrder.get(i) : null;
+
+            if (lower != null && upper != null && (upper - lower) / (count + 1) <= MIN_GAP) {
+                return null;
+            }
+
+            for (int j = 0; j < count; j++) {
+                double key;
+                if (lower == null && upper == null) {
+                    key = STEP * (j + 1);
+                } else if (lower == null) {
+                    key = upper - STEP * (count - j);
+                } else if (upper == null) {
+                    key = lower + STEP * (j + 1);
+                } else {
+                    key = lower + (upper - lower) * (j + 1) / (count + 1);
+                }
+                changes.put(start + j, key);
+            }
+        }
+        return changes;
+    }
+
+    // Patience-sort LIS over non-null keys, O(n log n).
+    private static boolean[] longestIncreasingRun(List<Double> keys) {
+        int n = keys.size();
+        int[] previous = new int[n];
+        List<Integer> tails = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            Double key = keys.get(i);
+            previous[i] = -1;
+            if (key == null || key.isNaN()) {
+                continue;
+            }
+            int lo = 0;
+            int hi = tails.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys.get(tails.get(mid)) < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo > 0) {
+                previous[i] = tails.get(lo - 1);
+            }
+            if (lo == tails.size()) {
+                tails.add(i);
+            } else {
+                tails.set(lo, i);
+            }
+        }
+
+        boolean[] kept = new boolean[n];
+        int cursor = tails.isEmpty() ? -1 : tails.get(tails.size() - 1);
+        while (cursor >= 0) {
+            kept[cursor] = true;
+            cursor = previous[cursor];
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,77 @@
+package com.collabflow.domain.common.ordering;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs position compactions off the request path.
+ *
+ * <p>Requests are deduplicated per key, so a burst of drags into the same column compacts it
+ * once. Each compaction runs after the triggering transaction commits, in its own transaction,
+ * on a single background thread.</p>
+ */
+@Slf4j
+@Component
+public class OrderCompactionScheduler {
+
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderCompactionScheduler(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param key        identifies the collection, e.g. {@code "tasks:<taskListId>"}
+     * @param compaction renumbers the collection and returns the number of rows rewritten
+     */
+    public void schedule(String key, IntSupplier compaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(key, compaction);
+                }
+            });
+            return;
+        }
+        submit(key, compaction);
+    }
+
+    private void submit(String key, IntSupplier compaction) {
+        if (!pending.add(key)) {
+            return;
+        }
+        executor.execute(() -> {
+            pending.remove(key);
+            try {
+                Integer rewritten = transactionTemplate.execute(status -> compaction.getAsInt());
+                log.debug("Compacted positions for {} ({} rows rewritten)", key, rewritten);
+            } catch (Exception ex) {
+                log.warn("Position compaction failed for {}: {}", key, ex.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,17 +3,29 @@ package com.collabflow.domain.notification.service;
 import com.collabflow.domain.notification.dto.InAppNotificationResponse;
 import com.collabflow.domain.notification.model.InAppNotification;
 import com.collabflow.domain.notification.repository.InAppNotificationRepository;
+import com.collabflow.domain.user.model.User;
+import com.collabflow.domain.user.repository.UserRepository;
 import com.collabflow.events.model.DomainEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 @Service
@@ -22,9 +34,16 @@ import java.util.UUID;
 public class NotificationService {
 
     private static final int MAX_LIMIT = 100;
+    private static final String NOTIFICATIONS_DESTINATION = "/queue/notifications";
+
+    // 8 bind parameters per row keeps each statement well below the driver's 65535 limit.
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
 
     private final InAppNotificationRepository inAppNotificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCountService unreadCountService;
+    private final UserRepository userRepository;
 
     public List<InAppNotificationResponse> getNotifications(UUID userId, int limit) {
         int safeLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
@@ -36,7 +55,7 @@ public class NotificationService {
     }
 
     public long getUnreadCount(UUID userId) {
-        return inAppNotificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        return unreadCountService.get(userId);
     }
 
     @Transactional
@@ -48,6 +67,7 @@ public class NotificationService {
         if (!notification.isRead()) {
             notification.setRead(true);
             notification = inAppNotificationRepository.save(notification);
+            unreadCountService.decrementAfterCommit(userId, notification.getRecipientUsername());
         }
 
         return toResponse(notification);
@@ -55,7 +75,12 @@ public class NotificationService {
 
     @Transactional
     public int markAllRead(UUID userId) {
-        return inAppNotificationRepository.markAllReadByRecipientId(userId);
+        int updated = inAppNotificationRepository.markAllReadByRecipientId(userId);
+        if (updated > 0) {
+            String username = userRepository.findById(userId).map(User::getUsername).orElse(null);
+            unreadCountService.resetAfterCommit(userId, username);
+        }
+        return updated;
     }
 
     @Transactional
@@ -89,10 +114,110 @@ public class NotificationService {
         }
 
         InAppNotificationResponse response = toResponse(saved);
-        messagingTemplate.convertAndSendToUser(recipientUsername, "/queue/notifications", response);
+        messagingTemplate.convertAndSendToUser(recipientUsername, NOTIFICATIONS_DESTINATION, response);
+        unreadCountService.incrementAfterCommit(Map.of(recipientId, recipientUsername));
         return response;
     }
 
+    /**
+     * Creates one notification per recipient for the same event with a single
+     * {@code INSERT ... ON CONFLICT DO NOTHING RETURNING} per chunk of recipients.
+     *
+     * <p>Recipients that already have this event's notification are skipped by the unique
+     * constraint, so redelivered events are harmless. Only the rows that were actually inserted
+     * are pushed over STOMP, and only after the transaction commits.</p>
+     *
+     * @return the notifications that were inserted
+     */
+    @Transactional
+    public List<InAppNotificationResponse> fanOut(
+            List<Recipient> recipients,
+            DomainEvent event,
+            String title,
+            String message,
+            String route
+    ) {
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+
+        // Postgres TIMESTAMP keeps microseconds; truncate so the pushed value matches what is stored
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp createdAtValue = Timestamp.from(createdAt);
+        List<Inserted> inserted = new ArrayList<>(recipients.size());
+
+        for (int from = 0; from < recipients.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Recipient> chunk = recipients.subList(from, Math.min(recipients.size(), from + MAX_ROWS_PER_STATEMENT));
+
+            StringJoiner values = new StringJoiner(", ");
+            List<Object> args = new ArrayList<>(chunk.size() * 8);
+            for (Recipient recipient : chunk) {
+                values.add("(?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(event.getEventId());
+                args.add(event.getEventType().name());
+                args.add(recipient.userId());
+                args.add(recipient.username());
+                args.add(title);
+                args.add(message);
+                args.add(route);
+                args.add(createdAtValue);
+            }
+
+            inserted.addAll(jdbcTemplate.query(
+                    """
+                    INSERT INTO in_app_notifications
+                        (event_id, event_type, recipient_id, recipient_username, title, message, route, created_at)
+                    VALUES %s
+                    ON CONFLICT (event_id, recipient_id) DO NOTHING
+                    RETURNING id, recipient_id, recipient_username
+                    """.formatted(values),
+                    (rs, rowNum) -> new Inserted(
+                            rs.getObject("id", UUID.class),
+                            rs.getObject("recipient_id", UUID.class),
+                            rs.getString("recipient_username")),
+                    args.toArray()
+            ));
+        }
+
+        List<InAppNotificationResponse> responses = new ArrayList<>(inserted.size());
+        for (Inserted row : inserted) {
+            responses.add(new InAppNotificationResponse(
+                    row.id(),
+                    event.getEventId(),
+                    event.getEventType(),
+                    title,
+                    message,
+                    route,
+                    false,
+                    createdAt
+            ));
+        }
+
+        afterCommit(() -> {
+            for (int i = 0; i < inserted.size(); i++) {
+                messagingTemplate.convertAndSendToUser(inserted.get(i).username(), NOTIFICATIONS_DESTINATION, responses.get(i));
+            }
+        });
+
+        Map<UUID, String> newUnread = new LinkedHashMap<>();
+        inserted.forEach(row -> newUnread.put(row.recipientId(), row.username()));
+        unreadCountService.incrementAfterCommit(newUnread);
+        return responses;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
     private InAppNotificationResponse toResponse(InAppNotification entity) {
         return new InAppNotificationResponse(
                 entity.getId(),
@@ -105,4 +230,10 @@ public class NotificationService {
                 entity.getCreatedAt()
         );
     }
+
+    public record Recipient(UUID userId, String username) {
+    }
+
+    private record Inserted(UUID id, UUID recipientId, String username) {
+    }
 }
@@ -0,0 +1,173 @@
+package com.collabflow.domain.notification.service;
+
+import com.collabflow.domain.notification.dto.UnreadCountResponse;
+import com.collabflow.domain.notification.repository.InAppNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-user unread notification counters kept in Redis.
+ *
+ * <p>Counters are adjusted only if they already exist. A missing counter is rebuilt from
+ * {@code in_app_notifications} on the next read and stored with {@code SET NX}, so Redis
+ * restarts, evictions and TTL expiry heal on their own. The TTL also bounds the drift from the
+ * small race between a rebuild and a concurrent insert. Every change is pushed to the user on
+ * {@code /user/queue/notifications} as an {@link UnreadCountResponse} with a
+ * {@code type: unread-count} header, so clients don't need to poll.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCountService {
+
+    public static final String PUSH_TYPE_HEADER = "type";
+    public static final String PUSH_TYPE_UNREAD_COUNT = "unread-count";
+
+    private static final String KEY_PREFIX = "notifications:unread:";
+    private static final String DESTINATION = "/queue/notifications";
+
+    // Returns the new value, or -1 when the counter is absent (and must be rebuilt)
+    private static final byte[] ADJUST_IF_PRESENT = """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return -1
+            end
+            local value = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if value < 0 then
+              redis.call('SET', KEYS[1], 0, 'KEEPTTL')
+              value = 0
+            end
+            return value
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redis;
+    private final InAppNotificationRepository inAppNotificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.notifications.unread-ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    public long get(UUID userId) {
+        try {
+            String cached = redis.opsForValue().get(key(userId));
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (DataAccessException | NumberFormatException ex) {
+            log.warn("Unread counter unavailable for user {}, using database: {}", userId, ex.getMessage());
+            return inAppNotificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        }
+        return rebuild(userId);
+    }
+
+    /** Adds one unread notification per recipient (userId → username) once the insert commits. */
+    public void incrementAfterCommit(Map<UUID, String> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> adjustAndPush(recipients, 1));
+    }
+
+    public void decrementAfterCommit(UUID userId, String username) {
+        afterCommit(() -> adjustAndPush(Map.of(userId, username), -1));
+    }
+
+    public void resetAfterCommit(UUID userId, String username) {
+        afterCommit(() -> {
+            try {
+                redis.opsForValue().set(key(userId), "0", Duration.ofSeconds(ttlSeconds));
+            } catch (DataAccessException ex) {
+                log.warn("Failed to reset unread counter for user {}: {}", userId, ex.getMessage());
+            }
+            push(username, 0);
+        });
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void adjustAndPush(Map<UUID, String> recipients, long delta) {
+        List<UUID> userIds = new ArrayList<>(recipients.keySet());
+        List<Object> results;
+        try {
+            byte[] deltaArg = Long.toString(delta).getBytes(StandardCharsets.UTF_8);
+            results = redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID userId : userIds) {
+                    adjust(connection, key(userId), deltaArg);
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Failed to update {} unread counters: {}", userIds.size(), ex.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < userIds.size(); i++) {
+            UUID userId = userIds.get(i);
+            Object result = results.get(i);
+            long count = result instanceof Number number && number.longValue() >= 0
+                    ? number.longValue()
+                    : rebuild(userId);
+            push(recipients.get(userId), count);
+        }
+    }
+
+    private void adjust(RedisConnection connection, String key, byte[] delta) {
+        connection.scriptingCommands().eval(
+                ADJUST_IF_PRESENT, ReturnType.INTEGER, 1, key.getBytes(StandardCharsets.UTF_8), delta);
+    }
+
+    private long rebuild(UUID userId) {
+        long count = inAppNotificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        try {
+            redis.opsForValue().setIfAbsent(key(userId), Long.toString(count), Duration.ofSeconds(ttlSeconds));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to store unread counter for user {}: {}", userId, ex.getMessage());
+        }
+        return count;
+    }
+
+    private void push(String username, long count) {
+        if (username == null) {
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(
+                username,
+                DESTINATION,
+                new UnreadCountResponse(count),
+                Map.of(PUSH_TYPE_HEADER, PUSH_TYPE_UNREAD_COUNT)
+        );
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private String key(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -1,94 +1,333 @@
 package com.collabflow.domain.presence.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks which users have at least one open WebSocket session.
+ *
+ * <p>Redis layout:</p>
+ * <ul>
+ *   <li>{@code presence:user:<userId>} – "online" marker, read in bulk with {@code MGET}</li>
+ *   <li>{@code presence:user-sessions:<userId>} – set of the user's open session ids</li>
+ *   <li>{@code presence:node-sessions:<nodeId>} – hash sessionId → userId owned by a node</li>
+ *   <li>{@code presence:node:<nodeId>} / {@code presence:nodes} – node liveness</li>
+ * </ul>
+ *
+ * <p>Connect, disconnect and refresh are each one Lua script, so a transition can't be
+ * observed half-applied. The scripts also publish online/offline transitions on
+ * {@value #PRESENCE_CHANGED_CHANNEL}. Inbound STOMP frames, heartbeats included, refresh a
+ * session's TTL at most once per {@code refresh-interval-seconds}. If a node dies, its liveness
+ * key expires and the reaper on a surviving node removes the sessions it owned.</p>
+ *
+ * <p>Lookups go through a short-lived local near-cache. Misses are resolved with one
+ * {@code MGET}, and the change notifications evict the near-cache on every node.</p>
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PresenceService {
 
     private static final String PRESENCE_ONLINE_PREFIX = "presence:user:";
-    private static final String PRESENCE_CONNECTIONS_PREFIX = "presence:user-connections:";
-    private static final String PRESENCE_SESSION_PREFIX = "presence:session:";
+    private static final String PRESENCE_SESSIONS_PREFIX = "presence:user-sessions:";
+    private static final String NODE_SESSIONS_PREFIX = "presence:node-sessions:";
+    private static final String NODE_PREFIX = "presence:node:";
+    private static final String NODES_KEY = "presence:nodes";
+    private static final String REAPER_LOCK_PREFIX = "presence:reaper-lock:";
+    private static final String PRESENCE_CHANGED_CHANNEL = "presence:changed";
 
-    @Value("${app.presence.session-ttl-seconds:7200}")
-    private long sessionTtlSeconds;
+    // KEYS: user sessions, user online, node sessions. ARGV: userId, sessionId, ttl, channel.
+    // Idempotent, so it also serves as the heartbeat refresh.
+    private static final RedisScript<Long> CONNECT = new DefaultRedisScript<>("""
+            redis.call('SADD', KEYS[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            redis.call('HSET', KEYS[3], ARGV[2], ARGV[1])
+            local wasOnline = redis.call('EXISTS', KEYS[2])
+            redis.call('SET', KEYS[2], 'online', 'EX', ARGV[3])
+            if wasOnline == 0 then
+              redis.call('PUBLISH', ARGV[4], ARGV[1])
+            end
+            return redis.call('SCARD', KEYS[1])
+            """, Long.class);
 
-    @Value("${app.presence.online-ttl-seconds:7200}")
-    private long onlineTtlSeconds;
+    // KEYS: user sessions, user online, node sessions. ARGV: userId, sessionId, channel.
+    // Returns the user's remaining sessions, or -1 if the session was already gone.
+    private static final RedisScript<Long> DISCONNECT = new DefaultRedisScript<>("""
+            redis.call('HDEL', KEYS[3], ARGV[2])
+            if redis.call('SREM', KEYS[1], ARGV[2]) == 0 then
+              return -1
+            end
+            local remaining = redis.call('SCARD', KEYS[1])
+            if remaining == 0 then
+              redis.call('DEL', KEYS[2])
+              redis.call('PUBLISH', ARGV[3], ARGV[1])
+            end
+            return remaining
+            """, Long.class);
 
     private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String nodeId;
+    private final Map<String, LocalSession> localSessions = new ConcurrentHashMap<>();
 
-    public void markSessionOnline(UUID userId, String sessionId) {
-        String userKey = userKey(userId);
-        String connectionCountKey = connectionCountKey(userId);
-        String sessionKey = sessionKey(sessionId);
+    @Value("${app.presence.session-ttl-seconds:120}")
+    private long sessionTtlSeconds;
 
-        redis.opsForValue().set(sessionKey, userId.toString(), Duration.ofSeconds(sessionTtlSeconds));
+    @Value("${app.presence.refresh-interval-seconds:30}")
+    private long refreshIntervalSeconds;
 
-        Long count = redis.opsForValue().increment(connectionCountKey);
-        redis.expire(connectionCountKey, Duration.ofSeconds(sessionTtlSeconds));
+    @Value("${app.presence.node-ttl-seconds:30}")
+    private long nodeTtlSeconds;
 
-        if (count != null && count > 0) {
-            redis.opsForValue().set(userKey, "online", Duration.ofSeconds(onlineTtlSeconds));
-        }
+    @Value("${app.presence.near-cache-ttl-millis:2000}")
+    private long nearCacheTtlMillis;
+
+    @Value("${app.presence.near-cache-max-users:50000}")
+    private long nearCacheMaxUsers;
+
+    private Cache<UUID, Boolean> nearCache;
+
+    public PresenceService(
+            StringRedisTemplate redis,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.presence.node-id:}") String nodeId
+    ) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
     }
 
-    public void markSessionOffline(String sessionId) {
-        String sessionKey = sessionKey(sessionId);
-        String userId = redis.opsForValue().get(sessionKey);
+    @PostConstruct
+    void init() {
+        nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxUsers)
+                .expireAfterWrite(Duration.ofMillis(nearCacheTtlMillis))
+                .build();
 
-        if (userId == null) {
-            return;
-        }
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                nearCache.invalidate(UUID.fromString(body));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed presence change: {}", body);
+            }
+        }, new ChannelTopic(PRESENCE_CHANGED_CHANNEL));
+
+        heartbeatNode();
+    }
 
-        UUID parsedUserId = UUID.fromString(userId);
-        String userKey = userKey(parsedUserId);
-        String connectionCountKey = connectionCountKey(parsedUserId);
+    // ─── Session lifecycle ────────────────────────────────────────────
 
-        Long count = redis.opsForValue().decrement(connectionCountKey);
+    public void markSessionOnline(UUID userId, String sessionId) {
+        localSessions.put(sessionId, new LocalSession(userId, System.currentTimeMillis()));
+        runConnect(userId, sessionId);
+        nearCache.invalidate(userId);
+    }
 
-        if (count == null || count <= 0) {
-            redis.delete(connectionCountKey);
-            redis.delete(userKey);
-        } else {
-            redis.expire(connectionCountKey, Duration.ofSeconds(sessionTtlSeconds));
-            redis.opsForValue().set(userKey, "online", Duration.ofSeconds(onlineTtlSeconds));
+    public void markSessionOffline(String sessionId) {
+        LocalSession session = localSessions.remove(sessionId);
+        UUID userId = session != null ? session.userId() : ownerOf(nodeId, sessionId);
+        if (userId == null) {
+            return;
         }
+        runDisconnect(userId, sessionId, nodeId);
+        nearCache.invalidate(userId);
+    }
 
-        redis.delete(sessionKey);
+    /**
+     * Extends the session's presence TTL. Called for every inbound frame, heartbeats included,
+     * and throttled locally so Redis sees at most one refresh per session per interval.
+     */
+    public void touchSession(String sessionId) {
+        LocalSession session = localSessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - session.lastRefreshMillis() < refreshIntervalSeconds * 1000) {
+            return;
+        }
+        localSessions.replace(sessionId, session, new LocalSession(session.userId(), now));
+        try {
+            runConnect(session.userId(), sessionId);
+            if (!localSessions.containsKey(sessionId)) {
+                // Disconnected while we were refreshing; don't leave the session resurrected
+                runDisconnect(session.userId(), sessionId, nodeId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Failed to refresh presence for session {}: {}", sessionId, ex.getMessage());
+        }
     }
 
+    // ─── Queries ──────────────────────────────────────────────────────
+
     public boolean isOnline(UUID userId) {
-        Boolean present = redis.hasKey(userKey(userId));
-        return Boolean.TRUE.equals(present);
+        return getOnlineStatus(List.of(userId)).getOrDefault(userId, false);
     }
 
     public Map<UUID, Boolean> getOnlineStatus(Collection<UUID> userIds) {
         Map<UUID, Boolean> result = new LinkedHashMap<>();
+        List<UUID> misses = new ArrayList<>();
+
         for (UUID userId : userIds) {
-            result.put(userId, isOnline(userId));
+            Boolean cached = nearCache.getIfPresent(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else if (!result.containsKey(userId)) {
+                result.put(userId, false);
+                misses.add(userId);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        List<String> values;
+        try {
+            values = redis.opsForValue().multiGet(misses.stream().map(this::userKey).toList());
+        } catch (DataAccessException ex) {
+            log.warn("Presence lookup failed for {} users, reporting offline: {}", misses.size(), ex.getMessage());
+            return result;
+        }
+        if (values == null) {
+            return result;
+        }
+
+        for (int i = 0; i < misses.size(); i++) {
+            boolean online = values.get(i) != null;
+            result.put(misses.get(i), online);
+            nearCache.put(misses.get(i), online);
         }
         return result;
     }
 
+    // ─── Node liveness and reaping ────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${app.presence.node-heartbeat-ms:10000}")
+    public void heartbeatNode() {
+        try {
+            redis.opsForValue().set(NODE_PREFIX + nodeId, "alive", Duration.ofSeconds(nodeTtlSeconds));
+            redis.opsForSet().add(NODES_KEY, nodeId);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to publish presence heartbeat for node {}: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    /** Removes sessions owned by nodes whose liveness key has expired. */
+    @Scheduled(fixedDelayString = "${app.presence.reaper-interval-ms:30000}")
+    public void reapDeadNodes() {
+        Set<String> nodes;
+        try {
+            nodes = redis.opsForSet().members(NODES_KEY);
+        } catch (DataAccessException ex) {
+            log.warn("Presence reaper could not list nodes: {}", ex.getMessage());
+            return;
+        }
+        if (nodes == null) {
+            return;
+        }
+
+        for (String node : nodes) {
+            if (node.equals(nodeId)) {
+                continue;
+            }
+            try {
+                reapIfDead(node);
+            } catch (DataAccessException | IllegalArgumentException ex) {
+                log.warn("Presence reaper failed for node {}: {}", node, ex.getMessage());
+            }
+        }
+    }
+
+    private void reapIfDead(String node) {
+        if (Boolean.TRUE.equals(redis.hasKey(NODE_PREFIX + node))) {
+            return;
+        }
+        // Only one surviving node reaps a given dead node
+        Boolean claimed = redis.opsForValue()
+                .setIfAbsent(REAPER_LOCK_PREFIX + node, nodeId, Duration.ofSeconds(nodeTtlSeconds * 2));
+        if (!Boolean.TRUE.equals(claimed)) {
+            return;
+        }
+
+        Map<Object, Object> sessions = redis.opsForHash().entries(NODE_SESSIONS_PREFIX + node);
+        sessions.forEach((sessionId, userId) ->
+                runDisconnect(UUID.fromString(userId.toString()), sessionId.toString(), node));
+        redis.delete(NODE_SESSIONS_PREFIX + node);
+        redis.opsForSet().remove(NODES_KEY, node);
+        log.info("Presence reaper removed {} sessions of dead node {}", sessions.size(), node);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Let a surviving node reap our sessions right away instead of after the TTL
+        try {
+            redis.delete(NODE_PREFIX + nodeId);
+        } catch (DataAccessException ex) {
+            log.debug("Could not clear presence node key on shutdown: {}", ex.getMessage());
+        }
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void runConnect(UUID userId, String sessionId) {
+        redis.execute(
+                CONNECT,
+                List.of(sessionsKey(userId), userKey(userId), NODE_SESSIONS_PREFIX + nodeId),
+                userId.toString(),
+                sessionId,
+                Long.toString(sessionTtlSeconds),
+                PRESENCE_CHANGED_CHANNEL
+        );
+    }
+
+    private void runDisconnect(UUID userId, String sessionId, String ownerNodeId) {
+        redis.execute(
+                DISCONNECT,
+                List.of(sessionsKey(userId), userKey(userId), NODE_SESSIONS_PREFIX + ownerNodeId),
+                userId.toString(),
+                sessionId,
+                PRESENCE_CHANGED_CHANNEL
+        );
+    }
+
+    private UUID ownerOf(String node, String sessionId) {
+        Object userId = redis.opsForHash().get(NODE_SESSIONS_PREFIX + node, sessionId);
+        return userId == null ? null : UUID.fromString(userId.toString());
+    }
+
     private String userKey(UUID userId) {
         return PRESENCE_ONLINE_PREFIX + userId;
     }
 
-    private String connectionCountKey(UUID userId) {
-        return PRESENCE_CONNECTIONS_PREFIX + userId;
+    private String sessionsKey(UUID userId) {
+        return PRESENCE_SESSIONS_PREFIX + userId;
     }
 
-    private String sessionKey(String sessionId) {
-        return PRESENCE_SESSION_PREFIX + sessionId;
+    private record LocalSession(UUID userId, long lastRefreshMillis) {
     }
 }
@@ -11,11 +11,8 @@ import com.collabflow.domain.project.model.Project;
 import com.collabflow.domain.project.repository.ProjectRepository;
 import com.collabflow.domain.search.service.SearchIndexService;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.exception.TeamNotFoundException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.model.TeamMembership;
 import com.collabflow.domain.team.model.enums.TeamRole;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import com.collabflow.domain.user.model.User;
 import com.collabflow.events.model.DomainEvent;
 import com.collabflow.events.model.DomainEventType;
@@ -38,7 +35,7 @@ import java.util.stream.Collectors;
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
     private final ProjectMapper mapper;
     private final DomainEventPublisher domainEventPublisher;
     private final SearchIndexService searchIndexService;
@@ -59,11 +56,10 @@ public class ProjectService {
         }
 
         // Verify user is a member of the team
-        Team team = getTeam(request.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(request.getTeamId(), user.getId());
 
         // Only OWNER and ADMIN can create projects
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new ProjectException("Only team owners and admins can create projects");
         }
 
@@ -109,8 +105,7 @@ public class ProjectService {
         Project project = getProject(projectId);
 
         // Verify user has access to this project's team
-        Team team = getTeam(project.getTeamId());
-        verifyTeamMembership(team, userId);
+        verifyTeamMembership(project.getTeamId(), userId);
 
         return mapper.toResponse(project);
     }
@@ -118,8 +113,7 @@ public class ProjectService {
     @Cacheable(cacheNames = "projectsByTeamAndUser", key = "#teamId.toString() + ':' + #userId.toString()")
     public List<ProjectResponse> findAllByTeam(UUID teamId, UUID userId) {
         // Verify user is a member of the team
-        Team team = getTeam(teamId);
-        verifyTeamMembership(team, userId);
+        verifyTeamMembership(teamId, userId);
 
         List<Project> projects = projectRepository.findAllByTeamIdAndDeletedFalse(teamId);
         return projects.stream()
@@ -155,10 +149,9 @@ public class ProjectService {
         }
 
         // Verify user has permission (is owner or admin of the team)
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new ProjectException("Only team owners and admins can update projects");
         }
 
@@ -209,17 +202,16 @@ public class ProjectService {
         Project project = getProject(projectId);
 
         // Verify user has permission (is owner or admin of the team)
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new ProjectException("Only team owners and admins can delete projects");
         }
 
         project.setDeleted(true);
         project.setUpdatedAt(Instant.now());
         projectRepository.save(project);
-        searchIndexService.deleteProject(project.getId());
+        searchIndexService.deleteProject(project);
 
         domainEventPublisher.publish(DomainEvent.builder()
             .eventType(DomainEventType.PROJECT_DELETED)
@@ -243,15 +235,8 @@ public class ProjectService {
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
     }
 
-    private Team getTeam(UUID teamId) {
-        return teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamNotFoundException("Team not found with id: " + teamId));
-    }
-
-    private TeamMembership verifyTeamMembership(Team team, UUID userId) {
-        return team.getTeamMemberships().stream()
-                .filter(m -> m.getUser().getId().equals(userId))
-                .findFirst()
+    private TeamRole verifyTeamMembership(UUID teamId, UUID userId) {
+        return teamAccessService.roleOf(teamId, userId)
                 .orElseThrow(() -> new TeamException("User is not a member of this team"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.collabflow.domain.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress of the last full search reindex on this node. {@code indexed} counts documents per
+ * source, including those loaded before a resume; {@code documentsPerSecond} covers this node's
+ * run only.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReindexStatusResponse {
+
+    private String state;
+    private String targetIndex;
+    private Map<String, Long> indexed;
+    private double documentsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
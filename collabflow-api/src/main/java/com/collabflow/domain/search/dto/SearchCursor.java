@@ -0,0 +1,66 @@
+package com.collabflow.domain.search.dto;
+
+import com.collabflow.domain.search.exception.SearchException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for the next page of a search: the point-in-time the pages are read from, the
+ * total counted on the first page, and the sort values of the last hit ({@code search_after}).
+ * Written as URL-safe base64, so clients pass it back untouched.
+ */
+public record SearchCursor(String pointInTimeId, int total, List<Object> searchAfter) {
+
+    public static SearchCursor parse(String value) {
+        try {
+            String[] lines = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\n", -1);
+            List<Object> searchAfter = new ArrayList<>();
+            for (int i = 2; i < lines.length; i++) {
+                searchAfter.add(decodeValue(lines[i]));
+            }
+            if (searchAfter.isEmpty()) {
+                throw new SearchException("Invalid search cursor");
+            }
+            return new SearchCursor(lines[0].isEmpty() ? null : lines[0], Integer.parseInt(lines[1]), searchAfter);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new SearchException("Invalid search cursor", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(pointInTimeId == null ? "" : pointInTimeId).append('\n').append(total);
+        for (Object value : searchAfter) {
+            text.append('\n').append(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Sort values keep their type, since Elasticsearch compares them against the sort fields
+    private static String encodeValue(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return "l:" + value;
+        }
+        if (value instanceof Number) {
+            return "d:" + value;
+        }
+        if (value instanceof Boolean) {
+            return "b:" + value;
+        }
+        return "s:" + Base64.getUrlEncoder().encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object decodeValue(String text) {
+        String value = text.substring(2);
+        return switch (text.substring(0, 2)) {
+            case "l:" -> Long.parseLong(value);
+            case "d:" -> Double.parseDouble(value);
+            case "b:" -> Boolean.parseBoolean(value);
+            case "s:" -> new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown sort value type");
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.collabflow.domain.search.dto;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Facet filters of a search. Values of one facet are ORed, facets are ANDed. Priority, completion
+ * and assignee only exist on tasks, so filtering on them leaves projects and activity out.
+ */
+public record SearchFilters(
+        List<String> types,
+        List<Integer> priorities,
+        Boolean completed,
+        List<String> assignees,
+        List<UUID> projectIds
+) {
+
+    public static final SearchFilters NONE = of(null, null, null, null, null);
+
+    /**
+     * Drops blanks, lower-cases types and assignees as they are indexed, and sorts values so equal
+     * filters have equal {@link #toString()} (used in cache keys).
+     */
+    public static SearchFilters of(List<String> types, List<Integer> priorities, Boolean completed,
+                                   List<String> assignees, List<UUID> projectIds) {
+        return new SearchFilters(
+                lowerCase(types),
+                priorities == null ? List.of() : priorities.stream().filter(Objects::nonNull).distinct().sorted().toList(),
+                completed,
+                lowerCase(assignees),
+                projectIds == null ? List.of() : projectIds.stream().filter(Objects::nonNull).distinct().sorted().toList());
+    }
+
+    public boolean includesType(String type) {
+        if (!types.isEmpty() && !types.contains(type)) {
+            return false;
+        }
+        return "task".equals(type) || !tasksOnly();
+    }
+
+    public boolean tasksOnly() {
+        return !priorities.isEmpty() || completed != null || !assignees.isEmpty();
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
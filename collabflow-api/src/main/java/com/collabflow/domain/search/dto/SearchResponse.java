@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -17,4 +18,8 @@ public class SearchResponse {
     private String query;
     private int total;
     private List<SearchResultItemResponse> items;
+    // Facet name (resourceType, priority, completed, assignees, projectId) to buckets; null unless requested
+    private Map<String, List<SearchFacetBucketResponse>> facets;
+    // Pass back as cursor for the next page; null on the last page
+    private String nextCursor;
 }
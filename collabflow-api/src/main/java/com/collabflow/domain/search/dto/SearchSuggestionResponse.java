@@ -0,0 +1,18 @@
+package com.collabflow.domain.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchSuggestionResponse {
+    private String id;
+    private String resourceType;
+    private String title;
+}
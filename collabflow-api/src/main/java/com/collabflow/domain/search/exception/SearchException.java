@@ -0,0 +1,15 @@
+package com.collabflow.domain.search.exception;
+
+/**
+ * Thrown when a search request is invalid, e.g. a malformed paging cursor.
+ */
+public class SearchException extends RuntimeException {
+
+    public SearchException(String message) {
+        super(message);
+    }
+
+    public SearchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import java.time.Instant;
 import java.util.List;
@@ -20,6 +23,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(indexName = "collabflow-work-items")
+@Setting(settingPath = "/elasticsearch/work-item-settings.json")
 public class WorkItemDocument {
 
     @Id
@@ -37,7 +41,11 @@ public class WorkItemDocument {
     @Field(type = FieldType.Keyword)
     private String projectId;
 
-    @Field(type = FieldType.Text)
+    // title.prefix holds edge n-grams of each word, so suggestions are a plain term lookup
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = @InnerField(suffix = "prefix", type = FieldType.Text,
+                    analyzer = "title_prefix", searchAnalyzer = "title_prefix_search"))
     private String title;
 
     @Field(type = FieldType.Text)
@@ -63,4 +71,11 @@ public class WorkItemDocument {
 
     @Field(type = FieldType.Date, format = DateFormat.date_time)
     private Instant occurredAt;
+
+    // Partition and (id, updatedAt) checksum compared against Postgres by the reconciler
+    @Field(type = FieldType.Integer)
+    private Integer syncBucket;
+
+    @Field(type = FieldType.Integer)
+    private Integer syncChecksum;
 }
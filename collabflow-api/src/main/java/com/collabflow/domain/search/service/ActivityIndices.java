@@ -0,0 +1,161 @@
+package com.collabflow.domain.search.service;
+
+import com.collabflow.domain.search.model.WorkItemDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.PutIndexTemplateRequest;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Activity documents live in monthly indices ({@code collabflow-activity-yyyy.MM}, by UTC
+ * occurrence time) behind the {@value #ALIAS} alias, so the task and project index stays small
+ * and only searches that can return activity read them.
+ *
+ * <p>An index template gives every monthly index the work item settings and mapping and adds it
+ * to the alias; Elasticsearch creates a month's index on its first write. Indices whose month lies
+ * more than {@code retention-months} back are deleted. A Redis lock makes one node check this per
+ * {@code retention-interval-ms}. The activity rows in Postgres are kept.</p>
+ */
+@Slf4j
+@Component
+public class ActivityIndices {
+
+    public static final String ALIAS = "collabflow-activity";
+    // Unlike the alias, a pattern matching no index yet is not an error to search
+    static final String PATTERN = ALIAS + "-*";
+    private static final String PREFIX = ALIAS + "-";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy.MM");
+    private static final String LOCK_KEY = "search:activity:retention:lock";
+
+    private final ElasticsearchOperations operations;
+    private final StringRedisTemplate redis;
+
+    private final boolean enabled;
+    private final int retentionMonths;
+    private final long retentionIntervalMs;
+
+    private final Counter droppedCounter;
+    private volatile boolean templateReady;
+
+    public ActivityIndices(
+            ElasticsearchOperations operations,
+            StringRedisTemplate redis,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.enabled:true}") boolean enabled,
+            @Value("${app.search.activity.retention-months:12}") int retentionMonths,
+            @Value("${app.search.activity.retention-interval-ms:3600000}") long retentionIntervalMs
+    ) {
+        this.operations = operations;
+        this.redis = redis;
+        this.enabled = enabled;
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.retentionIntervalMs = retentionIntervalMs;
+
+        this.droppedCounter = Counter.builder("collabflow.search.activity.indices.dropped")
+                .description("Monthly activity indices deleted after the retention period")
+                .register(meterRegistry);
+    }
+
+    /** Monthly index of an activity document; null for task and project documents. */
+    public static String indexOf(WorkItemDocument document) {
+        if (!"activity".equals(document.getResourceType())) {
+            return null;
+        }
+        Instant occurredAt = document.getOccurredAt() == null ? Instant.now() : document.getOccurredAt();
+        return PREFIX + MONTH.format(YearMonth.from(occurredAt.atZone(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Installs the template monthly indices are created from, once per node. Activity documents
+     * are held back until it is in place, or Elasticsearch would create the month's index with a
+     * guessed mapping.
+     */
+    public boolean ensureTemplate() {
+        if (templateReady) {
+            return true;
+        }
+        synchronized (this) {
+            if (templateReady) {
+                return true;
+            }
+            try {
+                IndexOperations workItems = operations.indexOps(WorkItemDocument.class);
+                operations.indexOps(IndexCoordinates.of(ALIAS)).putIndexTemplate(PutIndexTemplateRequest.builder()
+                        .withName(ALIAS)
+                        .withIndexPatterns(PATTERN)
+                        .withSettings(workItems.createSettings())
+                        .withMapping(workItems.createMapping())
+                        .withAliasActions(new AliasActions(new AliasAction.Add(
+                                AliasActionParameters.builderForTemplate().withAliases(ALIAS).build())))
+                        .build());
+                templateReady = true;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to install the activity index template, holding activity documents back: {}", ex.getMessage());
+            }
+            return templateReady;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.activity.retention-interval-ms:3600000}",
+            initialDelayString = "${app.search.activity.retention-interval-ms:3600000}")
+    public void dropExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Boolean claimed = redis.opsForValue().setIfAbsent(LOCK_KEY, "locked", Duration.ofMillis(retentionIntervalMs));
+            if (!Boolean.TRUE.equals(claimed)) {
+                return;
+            }
+            YearMonth oldestKept = oldestKept();
+            for (IndexInformation index : operations.indexOps(IndexCoordinates.of(PATTERN)).getInformation()) {
+                YearMonth month = monthOf(index.getName());
+                if (month != null && month.isBefore(oldestKept)) {
+                    operations.indexOps(IndexCoordinates.of(index.getName())).delete();
+                    droppedCounter.increment();
+                    log.info("Deleted activity search index {}, older than {} months", index.getName(), retentionMonths);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Activity search index retention skipped: {}", ex.getMessage());
+        }
+    }
+
+    /** Start of the oldest month whose index is kept; older activity is not indexed. */
+    public Instant retainedSince() {
+        return oldestKept().atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private YearMonth oldestKept() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+    }
+
+    private static YearMonth monthOf(String index) {
+        try {
+            return YearMonth.parse(index.substring(PREFIX.length()), MONTH);
+        } catch (DateTimeParseException ex) {
+            // Not one of ours, e.g. created by hand
+            return null;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.collabflow.domain.search.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import com.collabflow.domain.search.dto.SearchCursor;
+import com.collabflow.domain.search.dto.SearchFacetBucketResponse;
+import com.collabflow.domain.search.dto.SearchFilters;
+import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.dto.SearchResultItemResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchSearchEngine implements SearchEngine {
+
+    // Facet field to the number of buckets returned
+    private static final Map<String, Integer> FACETS = facetSizes();
+    // Newest first; resourceId breaks ties so search_after never skips or repeats a hit
+    private static final Sort SORT = Sort.by(
+            Sort.Order.desc("updatedAt"), Sort.Order.desc("occurredAt"), Sort.Order.asc("resourceId"));
+    private static final List<FieldValue> SUGGEST_TYPES = List.of(FieldValue.of("task"), FieldValue.of("project"));
+    private static final IndexCoordinates WORK_ITEMS = IndexCoordinates.of(SearchReindexJob.ALIAS);
+    private static final IndexCoordinates WITH_ACTIVITY = IndexCoordinates.of(SearchReindexJob.ALIAS, ActivityIndices.PATTERN);
+
+    private final ElasticsearchOperations operations;
+
+    @Value("${app.search.paging.keep-alive-ms:120000}")
+    private long keepAliveMs;
+
+    @Override
+    public SearchResponse search(UUID teamId, String query, SearchFilters filters, SearchCursor cursor, int limit,
+                                 boolean withFacets) {
+        // Later pages carry the first page's total forward, and skip counting and facets
+        boolean firstPage = cursor == null;
+        // Activity indices are only read when activity can be among the results
+        IndexCoordinates indices = filters.includesType("activity") ? WITH_ACTIVITY : WORK_ITEMS;
+        // Opened once a client asks for a second page, so first pages (cached and shared within
+        // the team) never hold one, and searches nobody pages through never leave one behind
+        String pointInTimeId = firstPage ? null
+                : cursor.pointInTimeId() != null ? cursor.pointInTimeId() : openPointInTime(indices);
+        SearchHits<WorkItemDocument> hits;
+        try {
+            hits = operations.search(searchQuery(teamId, query, filters, cursor, pointInTimeId, limit,
+                    firstPage && withFacets), WorkItemDocument.class, indices);
+        } catch (DataAccessException e) {
+            if (pointInTimeId == null) {
+                throw e;
+            }
+            // Point-in-time expired or gone with a reindex: continue after the same hit on the live index
+            log.debug("Search point-in-time failed, paging on without it: {}", e.getMessage());
+            pointInTimeId = null;
+            hits = operations.search(searchQuery(teamId, query, filters, cursor, null, limit, false),
+                    WorkItemDocument.class, indices);
+        }
+        if (hits.getPointInTimeId() != null) {
+            pointInTimeId = hits.getPointInTimeId();
+        }
+
+        List<SearchResultItemResponse> items = hits.getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .map(doc -> SearchResultItemResponse.builder()
+                        .id(doc.getId())
+                        .resourceType(doc.getResourceType())
+                        .resourceId(doc.getResourceId())
+                        .teamId(doc.getTeamId())
+                        .projectId(doc.getProjectId())
+                        .title(doc.getTitle())
+                        .description(doc.getDescription())
+                        .taskListName(doc.getTaskListName())
+                        .actorUsername(doc.getActorUsername())
+                        .priority(doc.getPriority())
+                        .completed(doc.getCompleted())
+                        .updatedAt(doc.getUpdatedAt())
+                        .occurredAt(doc.getOccurredAt())
+                        .build())
+                .toList();
+
+        int total = firstPage ? (int) hits.getTotalHits() : cursor.total();
+        return SearchResponse.builder()
+                .query(query)
+                .total(total)
+                .items(items)
+                .facets(firstPage && withFacets ? facets((ElasticsearchAggregations) hits.getAggregations()) : null)
+                .nextCursor(nextCursor(hits, pointInTimeId, total, limit))
+                .build();
+    }
+
+    @Override
+    public List<SearchSuggestionResponse> suggest(UUID teamId, String prefix, int limit) {
+        // Only the title n-grams are matched, without fuzziness or total hit counting
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .filter(f -> f.term(t -> t.field("teamId").value(teamId.toString())))
+                        .filter(f -> f.terms(t -> t.field("resourceType").terms(ts -> ts.value(SUGGEST_TYPES))))
+                        .must(m -> m.match(mt -> mt
+                                .field("title.prefix")
+                                .query(prefix)
+                                .operator(Operator.And)))))
+                .withSourceFilter(FetchSourceFilter.of(f -> f.withIncludes("resourceType", "title")))
+                .withTrackTotalHits(false)
+                .withPageable(PageRequest.of(0, limit))
+                .build();
+
+        return operations.search(nativeQuery, WorkItemDocument.class).getSearchHits().stream()
+                .map(hit -> SearchSuggestionResponse.builder()
+                        .id(hit.getId())
+                        .resourceType(hit.getContent().getResourceType())
+                        .title(hit.getContent().getTitle())
+                        .build())
+                .toList();
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private NativeQuery searchQuery(UUID teamId, String query, SearchFilters filters, SearchCursor cursor,
+                                    String pointInTimeId, int limit, boolean withFacets) {
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> {
+                    b.filter(f -> f.term(t -> t.field("teamId").value(teamId.toString())));
+                    filterAny(b, "resourceType", filters.types().stream().map(FieldValue::of).toList());
+                    filterAny(b, "priority", filters.priorities().stream().map(p -> FieldValue.of(p.longValue())).toList());
+                    filterAny(b, "assignees", filters.assignees().stream().map(FieldValue::of).toList());
+                    filterAny(b, "projectId", filters.projectIds().stream().map(id -> FieldValue.of(id.toString())).toList());
+                    if (filters.completed() != null) {
+                        b.filter(f -> f.term(t -> t.field("completed").value(filters.completed())));
+                    }
+
+                    if (!query.isBlank()) {
+                        b.must(m -> m.multiMatch(mm -> mm
+                                .query(query)
+                                .fields("title^3", "description^2", "taskListName", "actorUsername", "assignees")
+                                .fuzziness("AUTO")));
+                    }
+                    return b;
+                }))
+                .withSort(SORT)
+                .withPageable(PageRequest.of(0, limit));
+        if (withFacets) {
+            FACETS.forEach((field, size) ->
+                    builder.withAggregation(field, Aggregation.of(a -> a.terms(t -> t.field(field).size(size)))));
+        }
+        if (cursor != null) {
+            List<Object> searchAfter = cursor.searchAfter();
+            if (pointInTimeId != null) {
+                builder.withPointInTime(new Query.PointInTime(pointInTimeId, keepAlive()));
+                if (searchAfter.size() == SORT.toList().size()) {
+                    // Sort values from before the point-in-time lack its _shard_doc tiebreaker; the
+                    // other values already identify the hit, so the highest one continues after it
+                    searchAfter = new ArrayList<>(searchAfter);
+                    searchAfter.add(Long.MAX_VALUE);
+                }
+            } else if (searchAfter.size() > SORT.toList().size()) {
+                // Drop the _shard_doc tiebreaker Elasticsearch adds to point-in-time sort values
+                searchAfter = searchAfter.subList(0, SORT.toList().size());
+            }
+            builder.withSearchAfter(searchAfter).withTrackTotalHits(false);
+        }
+        return builder.build();
+    }
+
+    /** A full page may have more after it: the cursor continues after its last hit. */
+    private String nextCursor(SearchHits<WorkItemDocument> hits, String pointInTimeId, int total, int limit) {
+        List<SearchHit<WorkItemDocument>> page = hits.getSearchHits();
+        if (page.size() < limit) {
+            closePointInTime(pointInTimeId);
+            return null;
+        }
+        return new SearchCursor(pointInTimeId, total, page.get(page.size() - 1).getSortValues()).toString();
+    }
+
+    private String openPointInTime(IndexCoordinates indices) {
+        try {
+            return operations.openPointInTime(indices, keepAlive());
+        } catch (DataAccessException e) {
+            log.debug("Could not open search point-in-time, paging without it: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        if (pointInTimeId == null) {
+            return;
+        }
+        try {
+            operations.closePointInTime(pointInTimeId);
+        } catch (DataAccessException e) {
+            log.debug("Could not close search point-in-time, it expires on its own: {}", e.getMessage());
+        }
+    }
+
+    private Duration keepAlive() {
+        return Duration.ofMillis(keepAliveMs);
+    }
+
+    private static Map<String, Integer> facetSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put("resourceType", 3);
+        sizes.put("priority", 6);
+        sizes.put("completed", 2);
+        sizes.put("assignees", 20);
+        sizes.put("projectId", 20);
+        return sizes;
+    }
+
+    private static void filterAny(BoolQuery.Builder bool, String field, List<FieldValue> values) {
+        if (!values.isEmpty()) {
+            bool.filter(f -> f.terms(t -> t.field(field).terms(ts -> ts.value(values))));
+        }
+    }
+
+    private static Map<String, List<SearchFacetBucketResponse>> facets(ElasticsearchAggregations aggregations) {
+        Map<String, List<SearchFacetBucketResponse>> facets = new LinkedHashMap<>();
+        for (String field : FACETS.keySet()) {
+            ElasticsearchAggregation aggregation = aggregations == null ? null : aggregations.get(field);
+            Aggregate aggregate = aggregation == null ? null : aggregation.aggregation().getAggregate();
+            List<SearchFacetBucketResponse> buckets = new ArrayList<>();
+            // Keyword fields give string terms, integer and boolean fields long terms; unmapped gives neither
+            if (aggregate != null && aggregate.isSterms()) {
+                for (StringTermsBucket bucket : aggregate.sterms().buckets().array()) {
+                    buckets.add(new SearchFacetBucketResponse(bucket.key().stringValue(), bucket.docCount()));
+                }
+            } else if (aggregate != null && aggregate.isLterms()) {
+                for (LongTermsBucket bucket : aggregate.lterms().buckets().array()) {
+                    String value = bucket.keyAsString() != null ? bucket.keyAsString() : String.valueOf(bucket.key());
+                    buckets.add(new SearchFacetBucketResponse(value, bucket.docCount()));
+                }
+            }
+            facets.put(field, buckets);
+        }
+        return facets;
+    }
+}
@@ -0,0 +1,210 @@
+package com.collabflow.domain.search.service;
+
+import com.collabflow.domain.search.dto.SearchCursor;
+import com.collabflow.domain.search.dto.SearchFilters;
+import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.dto.SearchResultItemResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the {@code search_vector} columns of tasks, projects and activity (see V20), ranked
+ * with {@code ts_rank}. Every word of the query must match, the last one also as a prefix, so
+ * results fill in while typing. Unlike Elasticsearch there is no fuzzy matching, task list
+ * names and assignees are not searched, and no facet counts are returned (filters still apply).
+ * Results are a single page: a cursor from an Elasticsearch page gets an empty last page.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostgresSearchEngine implements SearchEngine {
+
+    private static final String TASKS = """
+            SELECT 'task' AS resource_type, r.id, p.team_id, r.project_id, r.title, r.description,
+                   tl.name AS task_list_name, NULL::text AS actor_username, r.priority::int AS priority,
+                   r.is_completed AS completed, r.updated_at, NULL::timestamptz AS occurred_at, %s AS rank
+            FROM tasks r
+            JOIN projects p ON p.id = r.project_id
+            LEFT JOIN task_lists tl ON tl.id = r.task_list_id
+            WHERE p.team_id = ? AND r.is_deleted = false %s
+            """;
+
+    private static final String PROJECTS = """
+            SELECT 'project' AS resource_type, r.id, r.team_id, r.id AS project_id, r.name AS title, r.description,
+                   NULL::text AS task_list_name, NULL::text AS actor_username, NULL::int AS priority,
+                   NULL::boolean AS completed, r.updated_at, NULL::timestamptz AS occurred_at, %s AS rank
+            FROM projects r
+            WHERE r.team_id = ? AND r.is_deleted = false %s
+            """;
+
+    private static final String ACTIVITY = """
+            SELECT 'activity' AS resource_type, r.id, r.team_id, r.project_id, r.event_type AS title, r.message AS description,
+                   NULL::text AS task_list_name, r.actor_username, NULL::int AS priority,
+                   NULL::boolean AS completed, r.occurred_at::timestamptz AS updated_at, r.occurred_at::timestamptz AS occurred_at, %s AS rank
+            FROM activity_feed_items r
+            WHERE r.team_id = ? %s
+            """;
+
+    // Titles carry weight A in search_vector, so title matches rank above description matches
+    private static final String SUGGEST = """
+            SELECT resource_type, id, title
+            FROM (
+                SELECT 'task' AS resource_type, t.id, t.title, ts_rank(t.search_vector, q.query) AS rank, t.updated_at
+                FROM tasks t
+                JOIN projects p ON p.id = t.project_id, to_tsquery('simple', ?) q(query)
+                WHERE p.team_id = ? AND t.is_deleted = false AND t.search_vector @@ q.query
+                UNION ALL
+                SELECT 'project', p.id, p.name, ts_rank(p.search_vector, q.query), p.updated_at
+                FROM projects p, to_tsquery('simple', ?) q(query)
+                WHERE p.team_id = ? AND p.is_deleted = false AND p.search_vector @@ q.query
+            ) hits
+            ORDER BY rank DESC, updated_at DESC NULLS LAST
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public SearchResponse search(UUID teamId, String query, SearchFilters filters, SearchCursor cursor, int limit,
+                                 boolean withFacets) {
+        if (cursor != null) {
+            // Cursors come from Elasticsearch pages; ranked results here are a single page
+            return SearchResponse.builder().query(query).total(cursor.total()).items(List.of()).build();
+        }
+        String tsQuery = toTsQuery(query);
+        StringJoiner union = new StringJoiner(" UNION ALL ");
+        List<Object> args = new ArrayList<>();
+        addType(union, args, "task", TASKS, "r.project_id", filters, teamId, tsQuery);
+        addType(union, args, "project", PROJECTS, "r.id", filters, teamId, tsQuery);
+        addType(union, args, "activity", ACTIVITY, "r.project_id", filters, teamId, tsQuery);
+
+        if (union.length() == 0) {
+            return SearchResponse.builder().query(query).total(0).items(List.of()).build();
+        }
+        args.add(limit);
+
+        int[] total = {0};
+        List<SearchResultItemResponse> items = jdbcTemplate.query("""
+                SELECT hits.*, count(*) OVER () AS total
+                FROM (%s) hits
+                ORDER BY rank DESC, updated_at DESC NULLS LAST
+                LIMIT ?
+                """.formatted(union), (rs, rowNum) -> {
+            total[0] = rs.getInt("total");
+            return toItem(rs);
+        }, args.toArray());
+
+        return SearchResponse.builder()
+                .query(query)
+                .total(total[0])
+                .items(items)
+                .build();
+    }
+
+    @Override
+    public List<SearchSuggestionResponse> suggest(UUID teamId, String prefix, int limit) {
+        String tsQuery = toTsQuery(prefix);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SUGGEST, (rs, rowNum) -> SearchSuggestionResponse.builder()
+                .id(rs.getString("resource_type") + ":" + rs.getObject("id", UUID.class))
+                .resourceType(rs.getString("resource_type"))
+                .title(rs.getString("title"))
+                .build(), tsQuery, teamId, tsQuery, teamId, limit);
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private static void addType(StringJoiner union, List<Object> args, String type, String sql, String projectColumn,
+                                SearchFilters filters, UUID teamId, String tsQuery) {
+        if (!filters.includesType(type)) {
+            return;
+        }
+        StringBuilder where = new StringBuilder();
+        List<Object> whereArgs = new ArrayList<>();
+        if (tsQuery != null) {
+            where.append(" AND r.search_vector @@ to_tsquery('simple', ?)");
+            whereArgs.add(tsQuery);
+            args.add(tsQuery);
+        }
+        anyOf(where, whereArgs, projectColumn, filters.projectIds());
+        // Only tasks remain once one of these is set
+        anyOf(where, whereArgs, "r.priority", filters.priorities());
+        if (filters.completed() != null) {
+            where.append(" AND r.is_completed = ?");
+            whereArgs.add(filters.completed());
+        }
+        if (!filters.assignees().isEmpty()) {
+            where.append(" AND EXISTS (SELECT 1 FROM task_assignments ta JOIN users u ON u.id = ta.user_id"
+                    + " WHERE ta.task_id = r.id");
+            anyOf(where, whereArgs, "lower(u.username)", filters.assignees());
+            where.append(")");
+        }
+
+        union.add(sql.formatted(tsQuery == null ? "0" : "ts_rank(r.search_vector, to_tsquery('simple', ?))", where));
+        args.add(teamId);
+        args.addAll(whereArgs);
+    }
+
+    private static void anyOf(StringBuilder where, List<Object> args, String column, List<?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        where.append(" AND ").append(column).append(" IN (")
+                .append(String.join(", ", Collections.nCopies(values.size(), "?")))
+                .append(")");
+        args.addAll(values);
+    }
+
+    /** {@code "fix login bu"} becomes {@code "fix & login & bu:*"}; {@code null} when nothing is left. */
+    static String toTsQuery(String query) {
+        List<String> words = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+        if (words.isEmpty()) {
+            return null;
+        }
+        return words.stream().collect(Collectors.joining(" & ")) + ":*";
+    }
+
+    private static SearchResultItemResponse toItem(ResultSet rs) throws SQLException {
+        String type = rs.getString("resource_type");
+        UUID id = rs.getObject("id", UUID.class);
+        UUID teamId = rs.getObject("team_id", UUID.class);
+        UUID projectId = rs.getObject("project_id", UUID.class);
+        return SearchResultItemResponse.builder()
+                .id(type + ":" + id)
+                .resourceType(type)
+                .resourceId(id.toString())
+                .teamId(teamId == null ? null : teamId.toString())
+                .projectId(projectId == null ? null : projectId.toString())
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .taskListName(rs.getString("task_list_name"))
+                .actorUsername(rs.getString("actor_username"))
+                .priority((Integer) rs.getObject("priority"))
+                .completed((Boolean) rs.getObject("completed"))
+                .updatedAt(instant(rs.getTimestamp("updated_at")))
+                .occurredAt(instant(rs.getTimestamp("occurred_at")))
+                .build();
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
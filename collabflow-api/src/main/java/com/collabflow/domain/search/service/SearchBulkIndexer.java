@@ -0,0 +1,480 @@
+package com.collabflow.domain.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import com.collabflow.domain.task.model.Task;
+import com.collabflow.domain.task.repository.TaskAssignmentRepository;
+import com.collabflow.domain.task.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Applies search index changes off the request path, with the Elasticsearch {@code _bulk} API.
+ *
+ * <p>Changes are queued after the writing transaction commits, keyed by document id. A newer
+ * change to a document replaces the queued one, so a burst of edits to one task is indexed once.
+ * A single background thread flushes every {@code flush-interval-ms}, or as soon as
+ * {@code batch-size} documents are waiting. Task and project documents are built at flush time
+ * from the committed rows, with one query for the tasks, one for their assignees and one for the
+ * projects per batch. Documents that fail are queued
+ * again, unless a newer change has arrived, and are given up after {@code max-attempts}.</p>
+ *
+ * <p>Index and delete operations of a batch go in one bulk request. Activity documents go to
+ * their month's index (see {@link ActivityIndices}) in that request too, once the template for
+ * those indices is in place.</p>
+ *
+ * <p>After each batch the generation of every team it touched is bumped, which drops those
+ * teams' entries from {@link SearchResultCache}.</p>
+ *
+ * <p>While {@link SearchReindexJob} rebuilds the index, every change is also written to the new
+ * index, so nothing committed during the rebuild is missing after the alias swap. Activity is not
+ * part of that index and is not mirrored.</p>
+ *
+ * <p>With {@code app.search.indexing.mode=sync} the committing thread flushes right away, so
+ * the index is current when the request returns (used by tests).</p>
+ */
+@Slf4j
+@Component
+public class SearchBulkIndexer {
+
+    private static final String MIRROR_KEY = "search:reindex:mirror";
+
+    private final ElasticsearchOperations operations;
+    private final ElasticsearchClient client;
+    private final TaskRepository taskRepository;
+    private final TaskAssignmentRepository assignmentRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readTransaction;
+    private final StringRedisTemplate redis;
+    private final SearchResultCache resultCache;
+    private final ActivityIndices activityIndices;
+
+    private final boolean synchronous;
+    private final int batchSize;
+    private final int maxPending;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long mirrorRefreshMs;
+
+    private final Map<String, IndexChange> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Index being rebuilt by SearchReindexJob, shared through Redis so every node mirrors into it
+    private volatile IndexCoordinates mirror;
+    private volatile long mirrorCheckedAt;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-bulk-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer bulkTimer;
+    private final Counter indexedCounter;
+    private final Counter deletedCounter;
+    private final Counter coalescedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public SearchBulkIndexer(
+            ElasticsearchOperations operations,
+            ElasticsearchClient client,
+            TaskRepository taskRepository,
+            TaskAssignmentRepository assignmentRepository,
+            ProjectRepository projectRepository,
+            PlatformTransactionManager transactionManager,
+            StringRedisTemplate redis,
+            SearchResultCache resultCache,
+            ActivityIndices activityIndices,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.indexing.mode:async}") String mode,
+            @Value("${app.search.indexing.batch-size:500}") int batchSize,
+            @Value("${app.search.indexing.max-pending:50000}") int maxPending,
+            @Value("${app.search.indexing.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.search.indexing.max-attempts:5}") int maxAttempts,
+            @Value("${app.search.indexing.mirror-refresh-ms:5000}") long mirrorRefreshMs
+    ) {
+        this.operations = operations;
+        this.client = client;
+        this.taskRepository = taskRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.projectRepository = projectRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.redis = redis;
+        this.resultCache = resultCache;
+        this.activityIndices = activityIndices;
+        this.synchronous = "sync".equalsIgnoreCase(mode);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+        this.flushIntervalMs = Math.max(10, flushIntervalMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.mirrorRefreshMs = Math.max(100, mirrorRefreshMs);
+
+        this.bulkTimer = Timer.builder("collabflow.search.index.bulk")
+                .description("Time to apply one bulk of search index changes")
+                .register(meterRegistry);
+        this.indexedCounter = Counter.builder("collabflow.search.index.applied")
+                .tag("op", "index")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("collabflow.search.index.applied")
+                .tag("op", "delete")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("collabflow.search.index.coalesced")
+                .description("Changes replaced by a newer change to the same document before flushing")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("collabflow.search.index.retried")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("collabflow.search.index.failed")
+                .description("Changes given up after all attempts")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("collabflow.search.index.rejected")
+                .description("Changes dropped because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("collabflow.search.index.pending", pending, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Search indexing started in {} mode", synchronous ? "sync" : "async");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushAll();
+    }
+
+    /** Queues a ready document. */
+    public void index(WorkItemDocument document) {
+        submit(new IndexChange(document.getId(), document, null, null, null, false, 0));
+    }
+
+    /** Queues a task; its document is built from the database when the batch is flushed. */
+    public void indexTask(UUID taskId) {
+        submit(new IndexChange(SearchIndexService.taskDocId(taskId), null, taskId, null, null, false, 0));
+    }
+
+    /** Queues a project; its document is built from the database when the batch is flushed. */
+    public void indexProject(UUID projectId) {
+        submit(new IndexChange(SearchIndexService.projectDocId(projectId), null, null, projectId, null, false, 0));
+    }
+
+    public void delete(String documentId, UUID teamId) {
+        submit(new IndexChange(documentId, null, null, null, teamId, true, 0));
+    }
+
+    /**
+     * Makes every node also apply its changes to {@code index}, within
+     * {@code mirror-refresh-ms}. Anything flushed before a node picks this up was committed
+     * earlier, so a rebuild that starts reading the database after that delay sees it.
+     */
+    public void startMirroring(String index) {
+        redis.opsForValue().set(MIRROR_KEY, index);
+        mirror = IndexCoordinates.of(index);
+        mirrorCheckedAt = System.currentTimeMillis();
+    }
+
+    public void stopMirroring() {
+        redis.delete(MIRROR_KEY);
+        mirror = null;
+        mirrorCheckedAt = System.currentTimeMillis();
+    }
+
+    public long mirrorRefreshMs() {
+        return mirrorRefreshMs;
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void submit(IndexChange change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(change);
+                }
+            });
+            return;
+        }
+        enqueue(change);
+    }
+
+    private void enqueue(IndexChange change) {
+        if (pending.size() >= maxPending && !pending.containsKey(change.documentId())) {
+            rejectedCounter.increment();
+            log.warn("Search index queue is full, dropping change to {}", change.documentId());
+            return;
+        }
+        if (pending.put(change.documentId(), change) != null) {
+            coalescedCounter.increment();
+        }
+
+        if (synchronous) {
+            flushAll();
+        } else if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushAll);
+        }
+    }
+
+    private void flushAll() {
+        flushRequested.set(false);
+        // Bounded, so changes queued again for a retry wait for the next round
+        int rounds = pending.size() / batchSize + 1;
+        for (int i = 0; i < rounds && !pending.isEmpty(); i++) {
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.error("Search index flush failed: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    synchronized void flush() {
+        List<IndexChange> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<String> ids = pending.keySet().iterator();
+        while (batch.size() < batchSize && ids.hasNext()) {
+            IndexChange change = pending.remove(ids.next());
+            if (change != null) {
+                batch.add(change);
+            }
+        }
+        if (!batch.isEmpty()) {
+            bulkTimer.record(() -> apply(batch));
+        }
+    }
+
+    private void apply(List<IndexChange> batch) {
+        IndexCoordinates mirrorIndex = currentMirror();
+        Map<UUID, WorkItemDocument> taskDocuments;
+        Map<UUID, WorkItemDocument> projectDocuments;
+        try {
+            taskDocuments = loadTaskDocuments(batch.stream()
+                    .filter(change -> change.taskId() != null && !change.delete())
+                    .map(IndexChange::taskId)
+                    .collect(Collectors.toSet()));
+            projectDocuments = loadProjectDocuments(batch.stream()
+                    .filter(change -> change.projectId() != null && !change.delete())
+                    .map(IndexChange::projectId)
+                    .collect(Collectors.toSet()));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to load {} search documents: {}", batch.size(), ex.getMessage());
+            batch.forEach(this::retry);
+            return;
+        }
+
+        List<BulkOperation> live = new ArrayList<>();
+        List<IndexChange> liveChanges = new ArrayList<>();
+        List<BulkOperation> mirrored = new ArrayList<>();
+        Set<UUID> teams = new HashSet<>();
+        for (IndexChange change : batch) {
+            WorkItemDocument document = change.taskId() != null ? taskDocuments.get(change.taskId())
+                    : change.projectId() != null ? projectDocuments.get(change.projectId())
+                    : change.document();
+            if (change.teamId() != null) {
+                teams.add(change.teamId());
+            }
+            if (document != null && document.getTeamId() != null) {
+                teams.add(UUID.fromString(document.getTeamId()));
+            }
+            if (change.delete() || document == null) {
+                // Tasks and projects that are gone or soft-deleted by now are removed instead
+                live.add(deleteOperation(SearchReindexJob.ALIAS, change.documentId()));
+                liveChanges.add(change);
+                if (mirrorIndex != null) {
+                    mirrored.add(deleteOperation(mirrorIndex.getIndexName(), change.documentId()));
+                }
+            } else {
+                String activityIndex = ActivityIndices.indexOf(document);
+                if (activityIndex != null && !activityIndices.ensureTemplate()) {
+                    retry(change);
+                    continue;
+                }
+                Document source = operations.getElasticsearchConverter().mapObject(document);
+                live.add(indexOperation(activityIndex != null ? activityIndex : SearchReindexJob.ALIAS, document.getId(), source));
+                liveChanges.add(change);
+                // Activity is not part of the rebuilt index
+                if (mirrorIndex != null && activityIndex == null) {
+                    mirrored.add(indexOperation(mirrorIndex.getIndexName(), document.getId(), source));
+                }
+            }
+        }
+
+        if (!live.isEmpty()) {
+            bulk(live, liveChanges, mirrored);
+        }
+        // Also after partial failures: dropping a few extra cache entries is harmless
+        resultCache.invalidate(teams);
+    }
+
+    /**
+     * Sends the index and delete operations of a batch, followed by their mirror copies, as one
+     * {@code _bulk} request. Items come back in request order, so the first {@code live.size()}
+     * answer for {@code changes}. Deleting a document that is not there is not an error.
+     */
+    private void bulk(List<BulkOperation> live, List<IndexChange> changes, List<BulkOperation> mirrored) {
+        List<BulkOperation> all = new ArrayList<>(live.size() + mirrored.size());
+        all.addAll(live);
+        all.addAll(mirrored);
+        List<BulkResponseItem> items;
+        try {
+            items = client.bulk(BulkRequest.of(request -> request.operations(all))).items();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Bulk request of {} search changes failed: {}", live.size(), ex.getMessage());
+            changes.forEach(this::retry);
+            return;
+        }
+
+        int indexed = 0;
+        int deleted = 0;
+        int failed = 0;
+        int mirrorFailed = 0;
+        for (int i = 0; i < items.size(); i++) {
+            BulkResponseItem item = items.get(i);
+            if (i >= live.size()) {
+                if (item.error() != null) {
+                    mirrorFailed++;
+                }
+            } else if (item.error() != null) {
+                failed++;
+                retry(changes.get(i));
+            } else if (item.operationType() == OperationType.Delete) {
+                deleted++;
+            } else {
+                indexed++;
+            }
+        }
+        indexedCounter.increment(indexed);
+        deletedCounter.increment(deleted);
+        if (failed > 0) {
+            log.warn("{} of {} search changes failed", failed, live.size());
+        }
+        if (mirrorFailed > 0) {
+            log.warn("Failed to mirror {} of {} search changes", mirrorFailed, mirrored.size());
+        }
+    }
+
+    private static BulkOperation indexOperation(String index, String id, Document source) {
+        return BulkOperation.of(operation -> operation.index(request -> request.index(index).id(id).document(source)));
+    }
+
+    private static BulkOperation deleteOperation(String index, String id) {
+        return BulkOperation.of(operation -> operation.delete(request -> request.index(index).id(id)));
+    }
+
+    private Map<UUID, WorkItemDocument> loadTaskDocuments(Set<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+        return readTransaction.execute(status -> {
+            Map<UUID, List<String>> assignees = assignmentRepository.findByTask_IdInWithUser(List.copyOf(taskIds)).stream()
+                    .filter(assignment -> assignment.getUser().getUsername() != null)
+                    .collect(Collectors.groupingBy(
+                            assignment -> assignment.getId().getTaskId(),
+                            Collectors.mapping(assignment -> assignment.getUser().getUsername().toLowerCase(Locale.ROOT),
+                                    Collectors.toList())));
+
+            Map<UUID, WorkItemDocument> documents = new HashMap<>();
+            for (Task task : taskRepository.findAllForIndexing(taskIds)) {
+                if (!task.isDeleted()) {
+                    documents.put(task.getId(), SearchIndexService.taskDocument(task, assignees.getOrDefault(task.getId(), List.of())));
+                }
+            }
+            return documents;
+        });
+    }
+
+    private Map<UUID, WorkItemDocument> loadProjectDocuments(Set<UUID> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Map.of();
+        }
+        return readTransaction.execute(status -> {
+            Map<UUID, WorkItemDocument> documents = new HashMap<>();
+            for (Project project : projectRepository.findAllById(projectIds)) {
+                if (!project.isDeleted()) {
+                    documents.put(project.getId(), SearchIndexService.projectDocument(project));
+                }
+            }
+            return documents;
+        });
+    }
+
+    private IndexCoordinates currentMirror() {
+        long now = System.currentTimeMillis();
+        if (now - mirrorCheckedAt >= mirrorRefreshMs) {
+            try {
+                String index = redis.opsForValue().get(MIRROR_KEY);
+                mirror = index == null ? null : IndexCoordinates.of(index);
+            } catch (DataAccessException ex) {
+                log.warn("Failed to read the search mirror index, keeping {}: {}", mirror, ex.getMessage());
+            }
+            mirrorCheckedAt = now;
+        }
+        return mirror;
+    }
+
+    private void retry(IndexChange change) {
+        if (change.attempt() + 1 >= maxAttempts) {
+            failedCounter.increment();
+            log.error("Giving up on search document {} after {} attempts", change.documentId(), maxAttempts);
+            return;
+        }
+        // A newer change to the same document supersedes the failed one
+        if (pending.putIfAbsent(change.documentId(), change.nextAttempt()) == null) {
+            retriedCounter.increment();
+        }
+    }
+
+    /**
+     * One queued change: a ready {@code document}, a {@code taskId} or {@code projectId} whose
+     * document is built at flush time, or a {@code delete} of a document of {@code teamId}.
+     */
+    private record IndexChange(String documentId, WorkItemDocument document, UUID taskId, UUID projectId,
+                               UUID teamId, boolean delete, int attempt) {
+
+        IndexChange nextAttempt() {
+            return new IndexChange(documentId, document, taskId, projectId, teamId, delete, attempt + 1);
+        }
+    }
+}
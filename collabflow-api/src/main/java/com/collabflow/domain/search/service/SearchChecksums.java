@@ -0,0 +1,56 @@
+package com.collabflow.domain.search.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Partition and checksum of a row, computed identically in Java (stored on the document) and in
+ * SQL, so {@link SearchReconciler} can compare both sides with aggregates alone.
+ *
+ * <p>Both are the first four bytes of an MD5 digest, kept positive: the bucket hashes the id, the
+ * checksum hashes {@code id:updatedAtMillis}. 31 bits keep the sum of a bucket exact in the
+ * double that Elasticsearch aggregates in. Changing either definition or {@link #BUCKETS}
+ * requires a full reindex.</p>
+ */
+final class SearchChecksums {
+
+    static final int BUCKETS = 64;
+
+    private SearchChecksums() {
+    }
+
+    static int bucket(UUID id) {
+        return hash(id.toString()) % BUCKETS;
+    }
+
+    static int checksum(UUID id, Instant updatedAt) {
+        return hash(id + ":" + (updatedAt == null ? 0 : updatedAt.toEpochMilli()));
+    }
+
+    /** SQL for {@link #bucket} of {@code <alias>.id}. */
+    static String bucketSql(String alias) {
+        return "(" + hashSql(alias + ".id::text") + " % " + BUCKETS + ")";
+    }
+
+    /** SQL for {@link #checksum} of {@code <alias>.id} and {@code <alias>.updated_at}. */
+    static String checksumSql(String alias) {
+        return hashSql(alias + ".id::text || ':' || COALESCE(floor(extract(epoch FROM " + alias + ".updated_at) * 1000)::bigint, 0)");
+    }
+
+    private static int hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            int head = ((digest[0] & 0xff) << 24) | ((digest[1] & 0xff) << 16) | ((digest[2] & 0xff) << 8) | (digest[3] & 0xff);
+            return head & 0x7fffffff;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 is not available", ex);
+        }
+    }
+
+    private static String hashSql(String expression) {
+        return "(('x' || substr(md5(" + expression + "), 1, 8))::bit(32)::int & 2147483647)";
+    }
+}
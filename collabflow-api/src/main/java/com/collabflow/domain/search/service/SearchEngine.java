@@ -0,0 +1,26 @@
+package com.collabflow.domain.search.service;
+
+import com.collabflow.domain.search.dto.SearchCursor;
+import com.collabflow.domain.search.dto.SearchFilters;
+import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Answers work item searches for one team. Callers have already checked membership and clamped
+ * {@code limit}.
+ */
+public interface SearchEngine {
+
+    /**
+     * {@code cursor} is null for the first page. Facet counts are over all matches, not only the
+     * returned page, when {@code withFacets} is set.
+     */
+    SearchResponse search(UUID teamId, String query, SearchFilters filters, SearchCursor cursor, int limit,
+                          boolean withFacets);
+
+    /** Tasks and projects whose title has words starting with the words of {@code prefix}. */
+    List<SearchSuggestionResponse> suggest(UUID teamId, String prefix, int limit);
+}
@@ -0,0 +1,287 @@
+package com.collabflow.domain.search.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds and repairs drift between Postgres and the search index, one slice at a time.
+ *
+ * <p>Every task and project document carries a bucket (hash of its id, see
+ * {@link SearchChecksums}) and a checksum of {@code (id, updatedAt)}. For each team and resource
+ * type, the document count and checksum sum per bucket are aggregated on both sides and
+ * compared. Only buckets that differ are listed in full. Rows that are missing or stale in the
+ * index are indexed again; documents without a live row are deleted. Both go through the
+ * {@link SearchBulkIndexer}.</p>
+ *
+ * <p>Documents indexed before they carried a checksum show up as mismatches and are rewritten
+ * bucket by bucket; a full reindex gets there faster.</p>
+ *
+ * <p>Each run covers the next {@code teams-per-run} teams, continuing from a cursor kept in
+ * Redis. A Redis lock makes one node do this per interval. Changes that do not touch
+ * {@code updated_at}, such as a renamed task list, are not detected.</p>
+ */
+@Slf4j
+@Component
+public class SearchReconciler {
+
+    private static final String LOCK_KEY = "search:reconcile:lock";
+    private static final String CURSOR_KEY = "search:reconcile:cursor";
+    private static final List<String> TYPES = List.of("task", "project");
+
+    private final ElasticsearchOperations operations;
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redis;
+    private final SearchBulkIndexer bulkIndexer;
+    private final ProjectRepository projectRepository;
+
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int teamsPerRun;
+
+    private final Counter matchedCounter;
+    private final Counter mismatchedCounter;
+    private final Counter reindexedCounter;
+    private final Counter deletedCounter;
+
+    public SearchReconciler(
+            ElasticsearchOperations operations,
+            JdbcTemplate jdbcTemplate,
+            StringRedisTemplate redis,
+            SearchBulkIndexer bulkIndexer,
+            ProjectRepository projectRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.enabled:true}") boolean searchEnabled,
+            @Value("${app.search.reconcile.enabled:true}") boolean reconcileEnabled,
+            @Value("${app.search.reconcile.interval-ms:60000}") long intervalMs,
+            @Value("${app.search.reconcile.teams-per-run:50}") int teamsPerRun
+    ) {
+        this.operations = operations;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redis = redis;
+        this.bulkIndexer = bulkIndexer;
+        this.projectRepository = projectRepository;
+        this.enabled = searchEnabled && reconcileEnabled;
+        this.intervalMs = intervalMs;
+        this.teamsPerRun = Math.max(1, teamsPerRun);
+
+        this.matchedCounter = Counter.builder("collabflow.search.reconcile.buckets")
+                .tag("result", "match")
+                .register(meterRegistry);
+        this.mismatchedCounter = Counter.builder("collabflow.search.reconcile.buckets")
+                .tag("result", "mismatch")
+                .register(meterRegistry);
+        this.reindexedCounter = Counter.builder("collabflow.search.reconcile.repaired")
+                .tag("op", "index")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("collabflow.search.reconcile.repaired")
+                .tag("op", "delete")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.reconcile.interval-ms:60000}",
+            initialDelayString = "${app.search.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> teams;
+        try {
+            // Held for the whole interval, so the cluster runs one slice per interval
+            Boolean claimed = redis.opsForValue().setIfAbsent(LOCK_KEY, "locked", Duration.ofMillis(intervalMs));
+            if (!Boolean.TRUE.equals(claimed)) {
+                return;
+            }
+            teams = nextTeams();
+        } catch (DataAccessException ex) {
+            log.warn("Search reconciliation skipped: {}", ex.getMessage());
+            return;
+        }
+
+        for (UUID teamId : teams) {
+            try {
+                reconcileTeam(teamId);
+            } catch (RuntimeException ex) {
+                log.warn("Search reconciliation failed for team {}: {}", teamId, ex.getMessage());
+            }
+        }
+    }
+
+    /** Compares one team bucket by bucket and repairs the buckets that differ. */
+    public void reconcileTeam(UUID teamId) {
+        for (String type : TYPES) {
+            Map<Integer, BucketSum> database = databaseBuckets(teamId, type);
+            Map<Integer, BucketSum> index = indexBuckets(teamId, type);
+
+            Set<Integer> buckets = new HashSet<>(database.keySet());
+            buckets.addAll(index.keySet());
+            for (Integer bucket : buckets) {
+                if (Objects.equals(database.get(bucket), index.get(bucket))) {
+                    matchedCounter.increment();
+                } else {
+                    mismatchedCounter.increment();
+                    repair(teamId, type, bucket);
+                }
+            }
+            matchedCounter.increment(SearchChecksums.BUCKETS - buckets.size());
+        }
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private List<UUID> nextTeams() {
+        String cursor = redis.opsForValue().get(CURSOR_KEY);
+        UUID after = cursor == null ? new UUID(0L, 0L) : UUID.fromString(cursor);
+        List<UUID> teams = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM teams WHERE id > ? ORDER BY id LIMIT ?", UUID.class, after, teamsPerRun));
+        if (teams.size() < teamsPerRun) {
+            // Wrapped around: start over from the first team
+            redis.delete(CURSOR_KEY);
+        } else {
+            redis.opsForValue().set(CURSOR_KEY, teams.get(teams.size() - 1).toString());
+        }
+        return teams;
+    }
+
+    private Map<Integer, BucketSum> databaseBuckets(UUID teamId, String type) {
+        Map<Integer, BucketSum> buckets = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT %s AS bucket, count(*) AS documents, sum(%s) AS checksum
+                %s
+                GROUP BY 1
+                """.formatted(SearchChecksums.bucketSql("r"), SearchChecksums.checksumSql("r"), liveRows(type)),
+                rs -> {
+                    buckets.put(rs.getInt("bucket"), new BucketSum(rs.getLong("documents"), rs.getLong("checksum")));
+                }, teamId);
+        return buckets;
+    }
+
+    private Map<Integer, BucketSum> indexBuckets(UUID teamId, String type) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(documentsOf(teamId, type, null))
+                .withAggregation("buckets", Aggregation.of(a -> a
+                        .terms(t -> t.field("syncBucket").size(SearchChecksums.BUCKETS))
+                        .aggregations("checksum", Aggregation.of(s -> s.sum(sum -> sum.field("syncChecksum"))))))
+                .withMaxResults(0)
+                .build();
+        SearchHits<WorkItemDocument> hits = operations.search(query, WorkItemDocument.class);
+
+        Map<Integer, BucketSum> buckets = new HashMap<>();
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) hits.getAggregations();
+        // Not long terms when no document has the field mapped yet
+        if (aggregations == null || !aggregations.get("buckets").aggregation().getAggregate().isLterms()) {
+            return buckets;
+        }
+        for (LongTermsBucket bucket : aggregations.get("buckets").aggregation().getAggregate().lterms().buckets().array()) {
+            double checksum = bucket.aggregations().get("checksum").sum().value();
+            buckets.put((int) bucket.key(), new BucketSum(bucket.docCount(), (long) checksum));
+        }
+        return buckets;
+    }
+
+    private void repair(UUID teamId, String type, int bucket) {
+        Map<UUID, Integer> database = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT r.id, %s AS checksum
+                %s
+                  AND %s = ?
+                """.formatted(SearchChecksums.checksumSql("r"), liveRows(type), SearchChecksums.bucketSql("r")),
+                rs -> {
+                    database.put(rs.getObject("id", UUID.class), rs.getInt("checksum"));
+                }, teamId, bucket);
+
+        Map<String, Integer> index = new HashMap<>();
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(documentsOf(teamId, type, bucket))
+                .withSourceFilter(new FetchSourceFilter(true, new String[]{"resourceId", "syncChecksum"}, null))
+                .withPageable(PageRequest.of(0, 1000))
+                .build();
+        try (SearchHitsIterator<WorkItemDocument> hits = operations.searchForStream(query, WorkItemDocument.class)) {
+            while (hits.hasNext()) {
+                SearchHit<WorkItemDocument> hit = hits.next();
+                index.put(hit.getId(), hit.getContent().getSyncChecksum());
+            }
+        }
+
+        List<UUID> stale = new ArrayList<>();
+        database.forEach((id, checksum) -> {
+            if (!checksum.equals(index.remove(type + ":" + id))) {
+                stale.add(id);
+            }
+        });
+        // Whatever is left in the index has no live row
+        index.keySet().forEach(documentId -> bulkIndexer.delete(documentId, teamId));
+
+        if (type.equals("task")) {
+            stale.forEach(bulkIndexer::indexTask);
+        } else {
+            for (Project project : projectRepository.findAllById(stale)) {
+                if (!project.isDeleted()) {
+                    bulkIndexer.index(SearchIndexService.projectDocument(project));
+                }
+            }
+        }
+
+        reindexedCounter.increment(stale.size());
+        deletedCounter.increment(index.size());
+        log.info("Repaired search bucket {} of {}s in team {}: {} reindexed, {} deleted",
+                bucket, type, teamId, stale.size(), index.size());
+    }
+
+    private static String liveRows(String type) {
+        return type.equals("task")
+                ? """
+                  FROM tasks r
+                  JOIN projects p ON p.id = r.project_id
+                  WHERE p.team_id = ? AND r.is_deleted = false
+                  """
+                : """
+                  FROM projects r
+                  WHERE r.team_id = ? AND r.is_deleted = false
+                  """;
+    }
+
+    private static Query documentsOf(UUID teamId, String type, Integer bucket) {
+        return Query.of(q -> q.bool(b -> {
+            b.filter(f -> f.term(t -> t.field("teamId").value(teamId.toString())));
+            b.filter(f -> f.term(t -> t.field("resourceType").value(type)));
+            if (bucket != null) {
+                b.filter(f -> f.term(t -> t.field("syncBucket").value(bucket)));
+            }
+            return b;
+        }));
+    }
+
+    private record BucketSum(long documents, long checksum) {
+    }
+}
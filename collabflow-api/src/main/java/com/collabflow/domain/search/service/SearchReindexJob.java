@@ -0,0 +1,586 @@
+package com.collabflow.domain.search.service;
+
+import com.collabflow.domain.activity.model.ActivityFeedItem;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.search.dto.ReindexStatusResponse;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import com.collabflow.domain.task.model.Task;
+import com.collabflow.domain.tasklist.model.TaskList;
+import com.collabflow.events.model.DomainEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the search index from Postgres without downtime.
+ *
+ * <p>{@value #ALIAS} is an alias over versioned indices ({@code collabflow-work-items-v<time>}).
+ * A rebuild creates a new version and makes every node mirror its live changes into it. It then
+ * streams projects, tasks and activity, each through a server-side cursor in keyset order.
+ * Pages of {@code page-size} rows become documents on {@code parallelism} worker threads and are
+ * bulk-loaded with {@code op_type=create}, so they never overwrite a newer mirrored change.
+ * After every {@code parallelism} pages the last id is checkpointed in
+ * {@code search_reindex_checkpoints}. Activity goes to its monthly index (see
+ * {@link ActivityIndices}) rather than the new version, and only from the retained months. Activity indexed with tasks and projects
+ * before it had its own indices is then deleted from the live index, or activity searches would
+ * return it twice. A failed or interrupted rebuild resumes from the checkpoints, and mirroring
+ * stays on until it finishes. At the end the alias is moved to the new index in one atomic call.
+ * The version it replaced is kept for rollback; older versions are deleted.</p>
+ *
+ * <p>A change deleted through the mirror can be brought back by a create of the row streamed
+ * just before. That window is a single page and a later update corrects it.</p>
+ */
+@Slf4j
+@Component
+public class SearchReindexJob {
+
+    static final String ALIAS = "collabflow-work-items";
+    private static final DateTimeFormatter VERSION = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ElasticsearchOperations operations;
+    private final SearchBulkIndexer bulkIndexer;
+    private final ActivityIndices activityIndices;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate checkpointTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private final int pageSize;
+    private final int parallelism;
+    private final int maxAttempts;
+
+    private final AtomicReference<Progress> current = new AtomicReference<>();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SearchReindexJob(
+            ElasticsearchOperations operations,
+            SearchBulkIndexer bulkIndexer,
+            ActivityIndices activityIndices,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.reindex.fetch-size:5000}") int fetchSize,
+            @Value("${app.search.reindex.page-size:1000}") int pageSize,
+            @Value("${app.search.reindex.parallelism:4}") int parallelism,
+            @Value("${app.search.reindex.max-attempts:5}") int maxAttempts
+    ) {
+        this.operations = operations;
+        this.bulkIndexer = bulkIndexer;
+        this.activityIndices = activityIndices;
+        this.jdbcTemplate = jdbcTemplate;
+        // Postgres only streams through a cursor inside a transaction with a fetch size set
+        this.cursorJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.pageSize = Math.max(1, pageSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Starts a rebuild in the background, unless one is already running on this node.
+     *
+     * @param resume continue an unfinished rebuild from its checkpoints; otherwise it is discarded
+     */
+    public synchronized ReindexStatusResponse start(boolean resume) {
+        Progress running = current.get();
+        if (running != null && running.finishedAt == null) {
+            return running.snapshot();
+        }
+
+        Map<Source, Checkpoint> checkpoints = loadCheckpoints();
+        String unfinished = checkpoints.values().stream().map(Checkpoint::targetIndex).findFirst().orElse(null);
+        Progress progress;
+        if (resume && unfinished != null) {
+            progress = new Progress(unfinished, checkpoints);
+            log.info("Resuming search reindex into {}", unfinished);
+        } else {
+            if (unfinished != null) {
+                discard(unfinished);
+            }
+            progress = new Progress(ALIAS + "-v" + VERSION.format(Instant.now()), Map.of());
+            log.info("Starting search reindex into {}", progress.targetIndex);
+        }
+
+        current.set(progress);
+        runner.execute(() -> run(progress));
+        return progress.snapshot();
+    }
+
+    public ReindexStatusResponse status() {
+        Progress progress = current.get();
+        return progress == null ? ReindexStatusResponse.builder().state("idle").build() : progress.snapshot();
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private void run(Progress progress) {
+        IndexCoordinates target = IndexCoordinates.of(progress.targetIndex);
+        AtomicInteger workerSequence = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "search-reindex-worker-" + workerSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (progress.checkpoints.isEmpty()) {
+                createIndex(target);
+                for (Source source : Source.values()) {
+                    storeCheckpoint(progress.targetIndex, source, null, 0, false);
+                }
+            }
+            bulkIndexer.startMirroring(progress.targetIndex);
+            // Let every node pick up the mirror before reading, so no change falls in between
+            Thread.sleep(2 * bulkIndexer.mirrorRefreshMs());
+
+            load(progress, Source.PROJECT, workers, SearchReindexJob::mapProject, Project::getId,
+                    page -> page.stream().map(SearchIndexService::projectDocument).toList());
+            load(progress, Source.TASK, workers, SearchReindexJob::mapTask, Task::getId, this::taskDocuments);
+            if (!activityIndices.ensureTemplate()) {
+                throw new IllegalStateException("Activity index template is not in place");
+            }
+            load(progress, Source.ACTIVITY, workers, SearchReindexJob::mapActivity, ActivityFeedItem::getId,
+                    page -> page.stream().map(SearchIndexService::activityDocument).toList());
+            purgeActivityFromLiveIndex();
+
+            operations.indexOps(target).refresh();
+            swapAlias(progress.targetIndex);
+            bulkIndexer.stopMirroring();
+            jdbcTemplate.update("DELETE FROM search_reindex_checkpoints WHERE target_index = ?", progress.targetIndex);
+            progress.finish(null);
+            log.info("Search reindex into {} finished: {}", progress.targetIndex, progress.snapshot().getIndexed());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            progress.finish("interrupted");
+        } catch (Exception ex) {
+            // Mirroring stays on so a resumed rebuild misses nothing
+            log.error("Search reindex into {} failed, resume to continue: {}", progress.targetIndex, ex.getMessage(), ex);
+            progress.finish(ex.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private <T> void load(Progress progress, Source source, ExecutorService workers, RowMapper<T> mapper,
+                          Function<T, UUID> idOf, Function<List<T>, List<WorkItemDocument>> toDocuments) {
+        Checkpoint checkpoint = progress.checkpoints.get(source);
+        if (checkpoint != null && checkpoint.completed()) {
+            return;
+        }
+        UUID from = checkpoint == null || checkpoint.lastId() == null ? MIN_ID : checkpoint.lastId();
+        Counter counter = Counter.builder("collabflow.search.reindex.indexed")
+                .tag("source", source.key)
+                .register(meterRegistry);
+
+        // Activity older than the retained months would only recreate indices retention dropped
+        Object[] args = source == Source.ACTIVITY
+                ? new Object[]{Timestamp.from(activityIndices.retainedSince()), from}
+                : new Object[]{from};
+
+        UUID lastId = readTransaction.execute(status -> {
+            try (Stream<T> rows = cursorJdbcTemplate.queryForStream(source.sql, mapper, args)) {
+                List<Future<Integer>> wave = new ArrayList<>(parallelism);
+                List<T> page = new ArrayList<>(pageSize);
+                UUID waveEnd = checkpoint == null ? null : checkpoint.lastId();
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    page.add(iterator.next());
+                    if (page.size() < pageSize && iterator.hasNext()) {
+                        continue;
+                    }
+                    List<T> submitted = page;
+                    wave.add(workers.submit(() -> {
+                        List<WorkItemDocument> documents = toDocuments.apply(submitted);
+                        bulkLoad(documents, IndexCoordinates.of(progress.targetIndex));
+                        return documents.size();
+                    }));
+                    waveEnd = idOf.apply(submitted.get(submitted.size() - 1));
+                    page = new ArrayList<>(pageSize);
+                    if (wave.size() == parallelism || !iterator.hasNext()) {
+                        long loaded = await(wave);
+                        counter.increment(loaded);
+                        long total = progress.add(source, loaded);
+                        storeCheckpoint(progress.targetIndex, source, waveEnd, total, false);
+                        log.info("Search reindex {}: {} {} documents ({}/s)",
+                                progress.targetIndex, total, source.key, Math.round(progress.rate()));
+                    }
+                }
+                return waveEnd;
+            }
+        });
+
+        storeCheckpoint(progress.targetIndex, source, lastId, progress.indexed(source), true);
+    }
+
+    private long await(List<Future<Integer>> wave) {
+        long loaded = 0;
+        try {
+            for (Future<Integer> page : wave) {
+                loaded += page.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading search documents", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to load a page of search documents: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            wave.clear();
+        }
+        return loaded;
+    }
+
+    private void bulkLoad(List<WorkItemDocument> documents, IndexCoordinates target) throws InterruptedException {
+        List<IndexQuery> queries = documents.stream()
+                .map(document -> new IndexQueryBuilder()
+                        .withId(document.getId())
+                        .withObject(document)
+                        .withOpType(IndexQuery.OpType.CREATE)
+                        .withIndex(ActivityIndices.indexOf(document))
+                        .build())
+                .toList();
+
+        for (int attempt = 1; !queries.isEmpty(); attempt++) {
+            try {
+                operations.bulkIndex(queries, target);
+                return;
+            } catch (BulkFailureException ex) {
+                // 409: the mirror already wrote a newer version of the document
+                Set<String> failed = ex.getFailedDocuments().entrySet().stream()
+                        .filter(entry -> !Integer.valueOf(409).equals(entry.getValue().status()))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+                queries = queries.stream().filter(query -> failed.contains(query.getId())).toList();
+                if (!queries.isEmpty() && attempt >= maxAttempts) {
+                    throw ex;
+                }
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+            }
+            Thread.sleep(500L * attempt);
+        }
+    }
+
+    private List<WorkItemDocument> taskDocuments(List<Task> tasks) {
+        Map<UUID, List<String>> assignees = new HashMap<>();
+        Object[] ids = tasks.stream().map(Task::getId).toArray();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT ta.task_id, u.username
+                    FROM task_assignments ta
+                    JOIN users u ON u.id = ta.user_id
+                    WHERE ta.task_id = ANY (?)
+                    """);
+            statement.setArray(1, connection.createArrayOf("uuid", ids));
+            return statement;
+        }, rs -> {
+            assignees.computeIfAbsent(rs.getObject("task_id", UUID.class), id -> new ArrayList<>())
+                    .add(rs.getString("username").toLowerCase(Locale.ROOT));
+        });
+        return tasks.stream()
+                .map(task -> SearchIndexService.taskDocument(task, assignees.getOrDefault(task.getId(), List.of())))
+                .toList();
+    }
+
+    private void createIndex(IndexCoordinates target) {
+        IndexOperations template = operations.indexOps(WorkItemDocument.class);
+        operations.indexOps(target).create(template.createSettings(), template.createMapping());
+    }
+
+    // The backfill above has copied it into the monthly indices
+    private void purgeActivityFromLiveIndex() {
+        IndexCoordinates live = IndexCoordinates.of(ALIAS);
+        if (!operations.indexOps(live).exists()) {
+            return;
+        }
+        DeleteQuery query = DeleteQuery.builder(NativeQuery.builder()
+                        .withQuery(q -> q.term(t -> t.field("resourceType").value("activity")))
+                        .build())
+                .withRefresh(true)
+                .build();
+        long deleted = operations.delete(query, WorkItemDocument.class, live).getDeleted();
+        if (deleted > 0) {
+            log.info("Deleted {} activity documents from {}, now served from {}", deleted, ALIAS, ActivityIndices.ALIAS);
+        }
+    }
+
+    private void swapAlias(String target) {
+        IndexOperations aliasOps = operations.indexOps(IndexCoordinates.of(ALIAS));
+        List<String> previous = aliasOps.exists()
+                ? aliasOps.getInformation().stream().map(IndexInformation::getName).toList()
+                : List.of();
+
+        AliasActions actions = new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(target)
+                .withAliases(ALIAS)
+                .withIsWriteIndex(true)
+                .build()));
+        if (previous.contains(ALIAS)) {
+            // First rebuild: the name still belongs to the index Spring Data created at startup
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(ALIAS).build()));
+        } else if (!previous.isEmpty()) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(previous.toArray(String[]::new))
+                    .withAliases(ALIAS)
+                    .build()));
+        }
+        aliasOps.alias(actions);
+
+        for (IndexInformation version : operations.indexOps(IndexCoordinates.of(ALIAS + "-v*")).getInformation()) {
+            if (!version.getName().equals(target) && !previous.contains(version.getName())) {
+                operations.indexOps(IndexCoordinates.of(version.getName())).delete();
+            }
+        }
+    }
+
+    private void discard(String targetIndex) {
+        log.info("Discarding unfinished search reindex into {}", targetIndex);
+        bulkIndexer.stopMirroring();
+        IndexOperations abandoned = operations.indexOps(IndexCoordinates.of(targetIndex));
+        if (abandoned.exists()) {
+            abandoned.delete();
+        }
+        jdbcTemplate.update("DELETE FROM search_reindex_checkpoints WHERE target_index = ?", targetIndex);
+    }
+
+    private Map<Source, Checkpoint> loadCheckpoints() {
+        Map<Source, Checkpoint> checkpoints = new EnumMap<>(Source.class);
+        jdbcTemplate.query("""
+                SELECT target_index, source, last_id, indexed, completed
+                FROM search_reindex_checkpoints
+                ORDER BY updated_at DESC
+                """, rs -> {
+            Source source = Source.of(rs.getString("source"));
+            String targetIndex = rs.getString("target_index");
+            // Only the most recent rebuild can be resumed
+            boolean sameRun = checkpoints.values().stream().allMatch(other -> other.targetIndex().equals(targetIndex));
+            if (source != null && sameRun) {
+                checkpoints.putIfAbsent(source, new Checkpoint(targetIndex,
+                        rs.getObject("last_id", UUID.class), rs.getLong("indexed"), rs.getBoolean("completed")));
+            }
+        });
+        return checkpoints;
+    }
+
+    private void storeCheckpoint(String targetIndex, Source source, UUID lastId, long indexed, boolean completed) {
+        checkpointTransaction.executeWithoutResult(status -> jdbcTemplate.update("""
+                INSERT INTO search_reindex_checkpoints (target_index, source, last_id, indexed, completed, updated_at)
+                VALUES (?, ?, ?, ?, ?, now())
+                ON CONFLICT (target_index, source)
+                DO UPDATE SET last_id = EXCLUDED.last_id,
+                              indexed = EXCLUDED.indexed,
+                              completed = EXCLUDED.completed,
+                              updated_at = now()
+                """, targetIndex, source.key, lastId, indexed, completed));
+    }
+
+    private static Project mapProject(ResultSet rs, int rowNum) throws SQLException {
+        return Project.builder()
+                .id(rs.getObject("id", UUID.class))
+                .teamId(rs.getObject("team_id", UUID.class))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .updatedAt(instant(rs, "updated_at"))
+                .build();
+    }
+
+    private static Task mapTask(ResultSet rs, int rowNum) throws SQLException {
+        String taskListName = rs.getString("task_list_name");
+        return Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .project(Project.builder()
+                        .id(rs.getObject("project_id", UUID.class))
+                        .teamId(rs.getObject("team_id", UUID.class))
+                        .build())
+                .taskList(taskListName == null ? null : TaskList.builder().name(taskListName).build())
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .priority(rs.getObject("priority") == null ? null : rs.getShort("priority"))
+                .isCompleted(rs.getBoolean("is_completed"))
+                .updatedAt(instant(rs, "updated_at"))
+                .build();
+    }
+
+    private static ActivityFeedItem mapActivity(ResultSet rs, int rowNum) throws SQLException {
+        return ActivityFeedItem.builder()
+                .id(rs.getObject("id", UUID.class))
+                .teamId(rs.getObject("team_id", UUID.class))
+                .projectId(rs.getObject("project_id", UUID.class))
+                .eventType(DomainEventType.valueOf(rs.getString("event_type")))
+                .message(rs.getString("message"))
+                .actorUsername(rs.getString("actor_username"))
+                .occurredAt(instant(rs, "occurred_at"))
+                .build();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /** Source tables, in load order, each read in primary key order from its checkpoint. */
+    private enum Source {
+        PROJECT("project", """
+                SELECT id, team_id, name, description, updated_at
+                FROM projects
+                WHERE is_deleted = false AND id > ?
+                ORDER BY id
+                """),
+        TASK("task", """
+                SELECT t.id, t.project_id, p.team_id, tl.name AS task_list_name,
+                       t.title, t.description, t.priority, t.is_completed, t.updated_at
+                FROM tasks t
+                JOIN projects p ON p.id = t.project_id
+                LEFT JOIN task_lists tl ON tl.id = t.task_list_id
+                WHERE t.is_deleted = false AND t.id > ?
+                ORDER BY t.id
+                """),
+        ACTIVITY("activity", """
+                SELECT id, team_id, project_id, event_type, message, actor_username, occurred_at
+                FROM activity_feed_items
+                WHERE occurred_at >= ? AND id > ?
+                ORDER BY id
+                """);
+
+        private final String key;
+        private final String sql;
+
+        Source(String key, String sql) {
+            this.key = key;
+            this.sql = sql;
+        }
+
+        static Source of(String key) {
+            for (Source source : values()) {
+                if (source.key.equals(key)) {
+                    return source;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Checkpoint(String targetIndex, UUID lastId, long indexed, boolean completed) {
+    }
+
+    private static final class Progress {
+
+        private final String targetIndex;
+        private final Map<Source, Checkpoint> checkpoints;
+        private final Map<Source, AtomicLong> indexed = new EnumMap<>(Source.class);
+        private final long resumedFrom;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Progress(String targetIndex, Map<Source, Checkpoint> checkpoints) {
+            this.targetIndex = targetIndex;
+            this.checkpoints = checkpoints;
+            for (Source source : Source.values()) {
+                Checkpoint checkpoint = checkpoints.get(source);
+                indexed.put(source, new AtomicLong(checkpoint == null ? 0 : checkpoint.indexed()));
+            }
+            this.resumedFrom = indexed.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+
+        long add(Source source, long documents) {
+            return indexed.get(source).addAndGet(documents);
+        }
+
+        long indexed(Source source) {
+            return indexed.get(source).get();
+        }
+
+        double rate() {
+            long loaded = indexed.values().stream().mapToLong(AtomicLong::get).sum() - resumedFrom;
+            Instant end = finishedAt == null ? Instant.now() : finishedAt;
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return loaded * 1000.0 / millis;
+        }
+
+        void finish(String failure) {
+            this.error = failure;
+            this.finishedAt = Instant.now();
+        }
+
+        ReindexStatusResponse snapshot() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            indexed.forEach((source, count) -> counts.put(source.key, count.get()));
+            String state = finishedAt == null ? "running" : error == null ? "completed" : "failed";
+            return ReindexStatusResponse.builder()
+                    .state(state)
+                    .targetIndex(targetIndex)
+                    .indexed(counts)
+                    .documentsPerSecond(rate())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.collabflow.domain.search.service;
+
+import com.collabflow.domain.search.dto.SearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caches first pages of Elasticsearch results per team, on each node. A first page's cursor holds
+ * no point-in-time, so teammates served the same entry each open their own on the next page.
+ *
+ * <p>Every team has a generation in Redis that {@link SearchBulkIndexer} bumps after applying
+ * changes to that team's documents. Entries are keyed by the generation they were read under, so
+ * a bump makes all of the team's entries unreachable on every node at once. A result read within
+ * {@code settle-ms} of a bump is not cached, since the index may not have refreshed yet and the
+ * result could predate the change.</p>
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+
+    public static final String CACHE = "searchResults";
+    private static final String GENERATION_KEY = "search:generation:";
+    private static final String COUNT = "n";
+    private static final String BUMPED_AT = "at";
+    // Generations only need to outlive cache entries
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    private final StringRedisTemplate redis;
+    private final Cache cache;
+    private final boolean enabled;
+    private final long settleMs;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public SearchResultCache(
+            StringRedisTemplate redis,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.result-cache.enabled:true}") boolean enabled,
+            @Value("${app.search.result-cache.settle-ms:1500}") long settleMs
+    ) {
+        this.redis = redis;
+        this.cache = cacheManager.getCache(CACHE);
+        this.enabled = enabled;
+        this.settleMs = Math.max(0, settleMs);
+
+        this.hitCounter = Counter.builder("collabflow.search.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("collabflow.search.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /** Returns the cached result for {@code key} within the team, or runs {@code search} and caches it. */
+    public SearchResponse get(UUID teamId, String key, String query, Supplier<SearchResponse> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        List<Object> generation;
+        try {
+            generation = redis.opsForHash().multiGet(GENERATION_KEY + teamId, List.of(COUNT, BUMPED_AT));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read the search generation of team {}, not caching: {}", teamId, ex.getMessage());
+            return search.get();
+        }
+
+        String entryKey = teamId + ":" + valueOf(generation.get(0)) + ":" + key;
+        Cache.ValueWrapper cached = cache.get(entryKey);
+        if (cached != null) {
+            hitCounter.increment();
+            return withQuery((SearchResponse) cached.get(), query);
+        }
+        missCounter.increment();
+
+        SearchResponse response = search.get();
+        if (System.currentTimeMillis() - valueOf(generation.get(1)) >= settleMs) {
+            cache.put(entryKey, response);
+        }
+        return response;
+    }
+
+    /** Called after changes to the teams' documents reached the index. */
+    public void invalidate(Collection<UUID> teamIds) {
+        if (!enabled || teamIds.isEmpty()) {
+            return;
+        }
+        String now = String.valueOf(System.currentTimeMillis());
+        try {
+            for (UUID teamId : teamIds) {
+                String key = GENERATION_KEY + teamId;
+                redis.opsForHash().increment(key, COUNT, 1);
+                redis.opsForHash().put(key, BUMPED_AT, now);
+                redis.expire(key, GENERATION_TTL);
+            }
+        } catch (DataAccessException ex) {
+            // Entries then live until they expire; the cache TTL bounds how stale they get
+            log.warn("Failed to bump the search generation of {} teams: {}", teamIds.size(), ex.getMessage());
+        }
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private static long valueOf(Object field) {
+        return field == null ? 0 : Long.parseLong(field.toString());
+    }
+
+    // Keys use the normalized query, so echo back the one this caller typed
+    private static SearchResponse withQuery(SearchResponse cached, String query) {
+        return SearchResponse.builder()
+                .query(query)
+                .total(cached.getTotal())
+                .items(cached.getItems())
+                .facets(cached.getFacets())
+                .nextCursor(cached.getNextCursor())
+                .build();
+    }
+}
@@ -1,99 +1,177 @@
 package com.collabflow.domain.search.service;
 
+import com.collabflow.domain.search.dto.SearchCursor;
+import com.collabflow.domain.search.dto.SearchFilters;
 import com.collabflow.domain.search.dto.SearchResponse;
-import com.collabflow.domain.search.dto.SearchResultItemResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import com.collabflow.domain.user.model.User;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.elasticsearch.client.elc.NativeQuery;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+/**
+ * Searches with Elasticsearch and falls back to {@link PostgresSearchEngine} when search is
+ * disabled or Elasticsearch is failing. After {@code failure-threshold} failed searches in a row
+ * the circuit opens and searches go straight to Postgres for {@code open-ms}; the first search
+ * after that tries Elasticsearch again.
+ *
+ * <p>{@code max-results} caps one page; further pages are read with the returned cursor. First
+ * pages answered by Elasticsearch go through {@link SearchResultCache}.</p>
+ *
+ * <p>Suggestions for the search box are cached briefly per team and prefix, since a user typing
+ * (and their teammates) asks for the same prefixes again and again.</p>
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class WorkItemSearchService {
 
-    private final ElasticsearchOperations operations;
-    private final TeamRepository teamRepository;
+    public static final String SUGGESTIONS_CACHE = "searchSuggestions";
+    private static final int MAX_PREFIX_LENGTH = 50;
 
-    @Value("${app.search.max-results:50}")
-    private int maxResults;
+    private final ElasticsearchSearchEngine elasticsearch;
+    private final PostgresSearchEngine postgres;
+    private final TeamAccessService teamAccessService;
+    private final SearchResultCache resultCache;
+    private final Cache suggestionCache;
 
-    public SearchResponse search(UUID teamId, String query, List<String> types, Integer limit, User user) {
+    private final boolean searchEnabled;
+    private final int maxResults;
+    private final int maxSuggestions;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openUntil;
+
+    private final Counter fallbackCounter;
+    private final Counter circuitOpenedCounter;
+
+    public WorkItemSearchService(
+            ElasticsearchSearchEngine elasticsearch,
+            PostgresSearchEngine postgres,
+            TeamAccessService teamAccessService,
+            SearchResultCache resultCache,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.enabled:true}") boolean searchEnabled,
+            @Value("${app.search.max-results:50}") int maxResults,
+            @Value("${app.search.suggest.max-results:10}") int maxSuggestions,
+            @Value("${app.search.fallback.failure-threshold:5}") int failureThreshold,
+            @Value("${app.search.fallback.open-ms:30000}") long openMs
+    ) {
+        this.elasticsearch = elasticsearch;
+        this.postgres = postgres;
+        this.teamAccessService = teamAccessService;
+        this.resultCache = resultCache;
+        this.suggestionCache = cacheManager.getCache(SUGGESTIONS_CACHE);
+        this.searchEnabled = searchEnabled;
+        this.maxResults = maxResults;
+        this.maxSuggestions = Math.max(1, maxSuggestions);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0, openMs);
+
+        this.fallbackCounter = Counter.builder("collabflow.search.fallback")
+                .description("Searches answered by Postgres because Elasticsearch failed or its circuit was open")
+                .register(meterRegistry);
+        this.circuitOpenedCounter = Counter.builder("collabflow.search.circuit.opened")
+                .register(meterRegistry);
+        Gauge.builder("collabflow.search.circuit.open", this, service -> service.isCircuitOpen() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public SearchResponse search(UUID teamId, String query, SearchFilters filters, String cursor, Integer limit,
+                                 boolean withFacets, User user) {
         verifyTeamMembership(teamId, user.getId());
 
         int safeLimit = Math.max(1, Math.min(limit == null ? 20 : limit, maxResults));
         String normalizedQuery = query == null ? "" : query.trim();
+        SearchFilters safeFilters = filters == null ? SearchFilters.NONE : filters;
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.parse(cursor.trim());
 
-        NativeQuery nativeQuery = NativeQuery.builder()
-                .withQuery(q -> q.bool(b -> {
-                    b.filter(f -> f.term(t -> t.field("teamId").value(teamId.toString())));
-
-                    if (types != null && !types.isEmpty()) {
-                        b.filter(f -> f.terms(t -> t
-                                .field("resourceType")
-                                .terms(ts -> ts.value(types.stream().map(type ->
-                                        co.elastic.clients.elasticsearch._types.FieldValue.of(type.toLowerCase(Locale.ROOT))
-                                ).toList()))));
-                    }
-
-                    if (!normalizedQuery.isBlank()) {
-                        b.must(m -> m.multiMatch(mm -> mm
-                                .query(normalizedQuery)
-                                .fields("title^3", "description^2", "taskListName", "actorUsername", "assignees")
-                                .fuzziness("AUTO")));
-                    }
-                    return b;
-                }))
-                .withSort(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("occurredAt")))
-                .withPageable(PageRequest.of(0, safeLimit))
-                .build();
-
-        var hits = operations.search(nativeQuery, com.collabflow.domain.search.model.WorkItemDocument.class);
-
-        List<SearchResultItemResponse> items = hits.getSearchHits().stream()
-                .map(SearchHit::getContent)
-                .map(doc -> SearchResultItemResponse.builder()
-                        .id(doc.getId())
-                        .resourceType(doc.getResourceType())
-                        .resourceId(doc.getResourceId())
-                        .teamId(doc.getTeamId())
-                        .projectId(doc.getProjectId())
-                        .title(doc.getTitle())
-                        .description(doc.getDescription())
-                        .taskListName(doc.getTaskListName())
-                        .actorUsername(doc.getActorUsername())
-                        .priority(doc.getPriority())
-                        .completed(doc.getCompleted())
-                        .updatedAt(doc.getUpdatedAt())
-                        .occurredAt(doc.getOccurredAt())
-                        .build())
-                .toList();
-
-        return SearchResponse.builder()
-                .query(normalizedQuery)
-                .total((int) hits.getTotalHits())
-                .items(items)
-                .build();
+        if (after != null) {
+            return withFallback(engine -> engine.search(teamId, normalizedQuery, safeFilters, after, safeLimit, withFacets));
+        }
+        // Only Elasticsearch answers are cached: generations follow the index, not the database
+        String key = String.join("|", normalizedQuery.toLowerCase(Locale.ROOT).replaceAll("\\s+", " "),
+                safeFilters.toString(), String.valueOf(safeLimit), String.valueOf(withFacets));
+        return withFallback(engine -> engine != elasticsearch
+                ? engine.search(teamId, normalizedQuery, safeFilters, null, safeLimit, withFacets)
+                : resultCache.get(teamId, key, normalizedQuery,
+                        () -> engine.search(teamId, normalizedQuery, safeFilters, null, safeLimit, withFacets)));
     }
 
-    private void verifyTeamMembership(UUID teamId, UUID userId) {
-        Team team = teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamException("Team not found"));
+    public List<SearchSuggestionResponse> suggest(UUID teamId, String prefix, Integer limit, User user) {
+        verifyTeamMembership(teamId, user.getId());
+
+        int safeLimit = Math.max(1, Math.min(limit == null ? maxSuggestions : limit, maxSuggestions));
+        String normalizedPrefix = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalizedPrefix.length() > MAX_PREFIX_LENGTH) {
+            normalizedPrefix = normalizedPrefix.substring(0, MAX_PREFIX_LENGTH);
+        }
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+
+        String term = normalizedPrefix;
+        String key = teamId + ":" + safeLimit + ":" + term;
+        return suggestionCache.get(key, () -> withFallback(engine -> engine.suggest(teamId, term, safeLimit)));
+    }
+
+    boolean isCircuitOpen() {
+        return System.currentTimeMillis() < openUntil;
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private <T> T withFallback(Function<SearchEngine, T> call) {
+        if (!searchEnabled) {
+            return call.apply(postgres);
+        }
+        if (isCircuitOpen()) {
+            fallbackCounter.increment();
+            return call.apply(postgres);
+        }
 
-        team.getTeamMemberships().stream()
-                .filter(membership -> membership.getUser().getId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new TeamException("User is not a member of this team"));
+        try {
+            T result = call.apply(elasticsearch);
+            consecutiveFailures.set(0);
+            return result;
+        } catch (DataAccessException e) {
+            recordFailure(e);
+            fallbackCounter.increment();
+            return call.apply(postgres);
+        }
+    }
+
+    private void recordFailure(DataAccessException e) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures < failureThreshold) {
+            log.warn("Elasticsearch search failed ({} in a row), answering from Postgres: {}", failures, e.getMessage());
+            return;
+        }
+        consecutiveFailures.set(0);
+        openUntil = System.currentTimeMillis() + openMs;
+        circuitOpenedCounter.increment();
+        log.error("Elasticsearch search failed {} times in a row, using Postgres for {} ms", failures, openMs, e);
+    }
+
+    private void verifyTeamMembership(UUID teamId, UUID userId) {
+        if (!teamAccessService.isMember(teamId, userId)) {
+            throw new TeamException("User is not a member of this team");
+        }
     }
 }
@@ -15,8 +15,12 @@ public class TaskMoveRequest {
     @NotNull(message = "New task list ID is required")
     private UUID newTaskListId;
 
-    @NotNull(message = "New position is required")
+    // Explicit position; ignored when a neighbour id is given, appended to the bottom when all are null
     private Double newPosition;
 
+    // Neighbours in the destination list: the card directly above / below the drop point
+    private UUID beforeTaskId;
+    private UUID afterTaskId;
+
     private Long expectedVersion;
-}
\ No newline at end of file
+}
@@ -2,10 +2,12 @@ package com.collabflow.domain.task.repository;
 
 import com.collabflow.domain.task.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,16 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     // All tasks in project ordered
     List<Task> findByProject_IdAndIsDeletedFalseOrderByPositionAsc(UUID projectId);
 
+    // Tasks with the associations a search document needs, in one round trip
+    @Query("""
+           SELECT t
+           FROM Task t
+           JOIN FETCH t.project p
+           LEFT JOIN FETCH t.taskList tl
+           WHERE t.id IN :taskIds
+           """)
+    List<Task> findAllForIndexing(@Param("taskIds") Collection<UUID> taskIds);
+
     // Max position inside list
     @Query("""
            SELECT MAX(t.position)
@@ -28,6 +40,64 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
            """)
     Optional<Double> findMaxPositionByTaskListId(@Param("taskListId") UUID taskListId);
 
+    @Query("""
+           SELECT t.position
+           FROM Task t
+           WHERE t.id = :taskId
+             AND t.taskList.id = :taskListId
+             AND t.isDeleted = false
+           """)
+    Optional<Double> findPositionInList(@Param("taskId") UUID taskId, @Param("taskListId") UUID taskListId);
+
+    // Nearest neighbour keys around a position, ignoring the task being moved
+    @Query("""
+           SELECT MIN(t.position)
+           FROM Task t
+           WHERE t.taskList.id = :taskListId
+             AND t.isDeleted = false
+             AND t.position > :position
+             AND t.id <> :excludedTaskId
+           """)
+    Optional<Double> findNextPosition(@Param("taskListId") UUID taskListId,
+                                      @Param("position") double position,
+                                      @Param("excludedTaskId") UUID excludedTaskId);
+
+    @Query("""
+           SELECT MAX(t.position)
+           FROM Task t
+           WHERE t.taskList.id = :taskListId
+             AND t.isDeleted = false
+             AND t.position < :position
+             AND t.id <> :excludedTaskId
+           """)
+    Optional<Double> findPreviousPosition(@Param("taskListId") UUID taskListId,
+                                          @Param("position") double position,
+                                          @Param("excludedTaskId") UUID excludedTaskId);
+
+    // Task at or just before a requested position, ignoring the task being moved
+    Optional<Task> findFirstByTaskList_IdAndIsDeletedFalseAndPositionLessThanEqualAndIdNotOrderByPositionDescIdDesc(
+            UUID taskListId, double position, UUID excludedTaskId);
+
+    // Renumber a column in one statement. Bumps version, so a stale full-row write of a renumbered
+    // task fails instead of putting back its old position. The task being moved, if any, is left
+    // out: it is about to get a new position in the same transaction.
+    @Modifying
+    @Query(value = """
+           UPDATE tasks t
+           SET position = ranked.rn * 1000.0,
+               version = t.version + 1
+           FROM (
+               SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn
+               FROM tasks
+               WHERE task_list_id = :taskListId
+                 AND is_deleted = false
+                 AND id IS DISTINCT FROM CAST(:excludedTaskId AS uuid)
+           ) ranked
+           WHERE t.id = ranked.id
+             AND t.position IS DISTINCT FROM ranked.rn * 1000.0
+           """, nativeQuery = true)
+    int compactPositions(@Param("taskListId") UUID taskListId, @Param("excludedTaskId") UUID excludedTaskId);
+
     // Counting helpers
     long countByTaskList_IdAndIsDeletedFalse(UUID taskListId);
 
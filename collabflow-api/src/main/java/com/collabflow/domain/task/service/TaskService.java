@@ -1,6 +1,8 @@
 package com.collabflow.domain.task.service;
 
 import com.collabflow.domain.common.exception.VersionConflictException;
+import com.collabflow.domain.common.ordering.FractionalRanker;
+import com.collabflow.domain.common.ordering.OrderCompactionScheduler;
 import com.collabflow.domain.project.exception.ProjectNotFoundException;
 import com.collabflow.domain.project.model.Project;
 import com.collabflow.domain.project.repository.ProjectRepository;
@@ -20,11 +22,8 @@ import com.collabflow.domain.tasklist.exception.TaskListNotFoundException;
 import com.collabflow.domain.tasklist.model.TaskList;
 import com.collabflow.domain.tasklist.repository.TaskListRepository;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.exception.TeamNotFoundException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.model.TeamMembership;
 import com.collabflow.domain.team.model.enums.TeamRole;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import com.collabflow.domain.user.model.User;
 import com.collabflow.domain.user.repository.UserRepository;
 import com.collabflow.events.model.DomainEvent;
@@ -47,12 +46,13 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskListRepository taskListRepository;
     private final ProjectRepository projectRepository;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
     private final UserRepository userRepository;
     private final TaskAssignmentRepository assignmentRepository;
     private final TaskMapper mapper;
     private final DomainEventPublisher domainEventPublisher;
     private final SearchIndexService searchIndexService;
+    private final OrderCompactionScheduler orderCompactionScheduler;
 
     // -------------------------
     // CREATE TASK (with optional assignees)
@@ -61,12 +61,11 @@ public class TaskService {
     public TaskResponse createTask(UUID taskListId, TaskCreateRequest request, User user) {
         TaskList taskList = getTaskList(taskListId);
         Map<UUID, Project> projectCache = new HashMap<>();
-        Map<UUID, Team> teamCache = new HashMap<>();
 
         Project project = getProjectCached(taskList.getProject().getId(), projectCache);
 
         // Verify membership
-        verifyTeamMembership(getTeamCached(project.getTeamId(), teamCache), user.getId());
+        verifyTeamMembership(project.getTeamId(), user.getId());
 
         // position default (bottom)
         Double position = request.getPosition();
@@ -124,10 +123,9 @@ public class TaskService {
     public List<TaskResponse> getTaskListTasks(UUID taskListId, UUID userId) {
         TaskList taskList = getTaskList(taskListId);
         Map<UUID, Project> projectCache = new HashMap<>();
-        Map<UUID, Team> teamCache = new HashMap<>();
 
         Project project = getProjectCached(taskList.getProject().getId(), projectCache);
-        verifyTeamMembership(getTeamCached(project.getTeamId(), teamCache), userId);
+        verifyTeamMembership(project.getTeamId(), userId);
 
         List<Task> tasks = taskRepository.findByTaskList_IdAndIsDeletedFalseOrderByPositionAsc(taskListId);
 
@@ -143,10 +141,9 @@ public class TaskService {
     // -------------------------
     public List<TaskResponse> getProjectTasks(UUID projectId, UUID userId) {
         Map<UUID, Project> projectCache = new HashMap<>();
-        Map<UUID, Team> teamCache = new HashMap<>();
 
         Project project = getProjectCached(projectId, projectCache);
-        verifyTeamMembership(getTeamCached(project.getTeamId(), teamCache), userId);
+        verifyTeamMembership(project.getTeamId(), userId);
 
         List<Task> tasks = taskRepository.findByProject_IdAndIsDeletedFalseOrderByPositionAsc(projectId);
 
@@ -162,8 +159,7 @@ public class TaskService {
     // -------------------------
     public TaskResponse getTaskById(UUID taskId, UUID userId) {
         Task task = getTask(taskId);
-        Map<UUID, Team> teamCache = new HashMap<>();
-        verifyTeamMembership(getTeamCached(task.getProject().getTeamId(), teamCache), userId);
+        verifyTeamMembership(task.getProject().getTeamId(), userId);
         return buildTaskResponse(task, null);
     }
 
@@ -173,8 +169,7 @@ public class TaskService {
     @Transactional
     public TaskResponse updateTask(UUID taskId, TaskUpdateRequest request, User user) {
         Task task = getTask(taskId);
-        Map<UUID, Team> teamCache = new HashMap<>();
-        verifyTeamMembership(getTeamCached(task.getProject().getTeamId(), teamCache), user.getId());
+        verifyTeamMembership(task.getProject().getTeamId(), user.getId());
 
         if (request.getExpectedVersion() != null && !Objects.equals(task.getVersion(), request.getExpectedVersion())) {
             throw new VersionConflictException(
@@ -188,7 +183,9 @@ public class TaskService {
 
         if (request.getTitle() != null) task.setTitle(request.getTitle());
         if (request.getDescription() != null) task.setDescription(request.getDescription());
-        if (request.getPosition() != null) task.setPosition(request.getPosition());
+        if (request.getPosition() != null) {
+            task.setPosition(resolveRequestedPosition(task.getId(), task.getTaskList().getId(), request.getPosition()));
+        }
         if (request.getPriority() != null) task.setPriority(request.getPriority());
         if (request.getDueDate() != null) task.setDueDate(request.getDueDate());
         if (request.getIsCompleted() != null) task.setCompleted(request.getIsCompleted());
@@ -231,6 +228,18 @@ public class TaskService {
 
     @Transactional
     public TaskResponse moveTask(UUID taskId, UUID newTaskListId, Double newPosition, Long expectedVersion, User user) {
+        return moveTask(taskId, newTaskListId, newPosition, null, null, expectedVersion, user);
+    }
+
+    /**
+     * Moves a task by giving it a fractional position between its new neighbours, so only the
+     * moved row is written. Neighbour ids take precedence over {@code newPosition}, which is only a
+     * hint: a position that is taken or too close to a neighbour places the task after the task at
+     * or before it instead.
+     */
+    @Transactional
+    public TaskResponse moveTask(UUID taskId, UUID newTaskListId, Double newPosition,
+                                 UUID beforeTaskId, UUID afterTaskId, Long expectedVersion, User user) {
         Task task = getTask(taskId);
         TaskList newTaskList = getTaskList(newTaskListId);
         UUID oldTaskListId = task.getTaskList().getId();
@@ -247,7 +256,6 @@ public class TaskService {
         }
 
         Map<UUID, Project> projectCache = new HashMap<>();
-        Map<UUID, Team> teamCache = new HashMap<>();
 
         // verify same project
         if (!task.getProject().getId().equals(newTaskList.getProject().getId())) {
@@ -256,14 +264,9 @@ public class TaskService {
 
         // verify access
         Project project = getProjectCached(task.getProject().getId(), projectCache);
-        verifyTeamMembership(getTeamCached(project.getTeamId(), teamCache), user.getId());
+        verifyTeamMembership(project.getTeamId(), user.getId());
 
-        Double position = newPosition;
-        if (position == null) {
-            position = taskRepository.findMaxPositionByTaskListId(newTaskListId)
-                    .map(max -> max + 1000.0)
-                    .orElse(1000.0);
-        }
+        double position = resolveMovePosition(task.getId(), newTaskListId, newPosition, beforeTaskId, afterTaskId);
 
         task.setTaskList(newTaskList);
         task.setPosition(position);
@@ -289,24 +292,75 @@ public class TaskService {
             ))
             .build());
 
-        rebalancePositions(newTaskListId);
-        if (!oldTaskListId.equals(newTaskListId)) {
-            rebalancePositions(oldTaskListId);
+        return buildTaskResponse(updated, null);
+    }
+
+    private double resolveMovePosition(UUID taskId, UUID taskListId, Double requestedPosition,
+                                       UUID beforeTaskId, UUID afterTaskId) {
+        if (beforeTaskId == null && afterTaskId == null) {
+            if (requestedPosition != null) {
+                return resolveRequestedPosition(taskId, taskListId, requestedPosition);
+            }
+            return taskRepository.findMaxPositionByTaskListId(taskListId)
+                    .map(max -> max + FractionalRanker.STEP)
+                    .orElse(FractionalRanker.STEP);
         }
 
-        // optional: rebalancing (if you use needsRebalance/rebalancePositions, keep them)
-        // (not altering that logic here - you can reuse your existing rebalance methods)
+        Double before = beforeTaskId == null ? null : neighbourPosition(beforeTaskId, taskListId, taskId);
+        Double after = afterTaskId == null ? null : neighbourPosition(afterTaskId, taskListId, taskId);
 
-        return buildTaskResponse(updated, null);
+        // Only one neighbour given: the other side is whatever currently sits next to it
+        if (after == null && before != null) {
+            after = taskRepository.findNextPosition(taskListId, before, taskId).orElse(null);
+        } else if (before == null && after != null) {
+            before = taskRepository.findPreviousPosition(taskListId, after, taskId).orElse(null);
+        }
+
+        if (before != null && after != null && before >= after) {
+            throw new TaskException("Neighbour tasks are out of order in the target list");
+        }
+
+        if (!FractionalRanker.hasRoom(before, after)) {
+            // Keys ran out of precision in this gap: renumber the column now, then retry once
+            taskRepository.compactPositions(taskListId, taskId);
+            return resolveMovePosition(taskId, taskListId, requestedPosition, beforeTaskId, afterTaskId);
+        }
+
+        if (FractionalRanker.shouldCompact(before, after)) {
+            orderCompactionScheduler.schedule("tasks:" + taskListId,
+                    () -> taskRepository.compactPositions(taskListId, null));
+        }
+
+        return FractionalRanker.between(before, after);
     }
 
-    private void rebalancePositions(UUID taskListId) {
-        List<Task> tasks = taskRepository.findByTaskList_IdAndIsDeletedFalseOrderByPositionAsc(taskListId);
-        double step = 1000.0;
-        for (int i = 0; i < tasks.size(); i++) {
-            tasks.get(i).setPosition((i + 1) * step);
+    // Clients that compute keys themselves can repeat a taken key or keep halving the same gap
+    private double resolveRequestedPosition(UUID taskId, UUID taskListId, double requestedPosition) {
+        Optional<Task> previous = taskRepository
+                .findFirstByTaskList_IdAndIsDeletedFalseAndPositionLessThanEqualAndIdNotOrderByPositionDescIdDesc(
+                        taskListId, requestedPosition, taskId);
+        Double before = previous.map(Task::getPosition).orElse(null);
+        Double after = taskRepository.findNextPosition(taskListId, requestedPosition, taskId).orElse(null);
+
+        if (FractionalRanker.hasRoom(before, requestedPosition) && FractionalRanker.hasRoom(requestedPosition, after)) {
+            if (FractionalRanker.shouldCompactAround(before, requestedPosition, after)) {
+                orderCompactionScheduler.schedule("tasks:" + taskListId,
+                        () -> taskRepository.compactPositions(taskListId, null));
+            }
+            return requestedPosition;
+        }
+        if (previous.isEmpty()) {
+            return FractionalRanker.between(null, after);
         }
-        taskRepository.saveAll(tasks);
+        return resolveMovePosition(taskId, taskListId, null, previous.get().getId(), null);
+    }
+
+    private Double neighbourPosition(UUID neighbourId, UUID taskListId, UUID movingTaskId) {
+        if (neighbourId.equals(movingTaskId)) {
+            throw new TaskException("A task cannot be its own neighbour");
+        }
+        return taskRepository.findPositionInList(neighbourId, taskListId)
+                .orElseThrow(() -> new TaskException("Neighbour task is not in the target list: " + neighbourId));
     }
 
     // -------------------------
@@ -315,8 +369,7 @@ public class TaskService {
     @Transactional
     public TaskResponse toggleComplete(UUID taskId, User user) {
         Task task = getTask(taskId);
-        Map<UUID, Team> teamCache = new HashMap<>();
-        verifyTeamMembership(getTeamCached(task.getProject().getTeamId(), teamCache), user.getId());
+        verifyTeamMembership(task.getProject().getTeamId(), user.getId());
 
         task.setCompleted(!task.isCompleted());
         Task updated = taskRepository.save(task);
@@ -330,12 +383,11 @@ public class TaskService {
     @Transactional
     public void deleteTask(UUID taskId, User user) {
         Task task = getTask(taskId);
-        Map<UUID, Team> teamCache = new HashMap<>();
-        verifyTeamMembership(getTeamCached(task.getProject().getTeamId(), teamCache), user.getId());
+        verifyTeamMembership(task.getProject().getTeamId(), user.getId());
 
         task.setDeleted(true);
         taskRepository.save(task);
-        searchIndexService.deleteTask(task.getId());
+        searchIndexService.deleteTask(task);
 
         domainEventPublisher.publish(DomainEvent.builder()
             .eventType(DomainEventType.TASK_DELETED)
@@ -400,9 +452,7 @@ public class TaskService {
     }
 
     private boolean isUserInProjectTeam(UUID userId, Project project) {
-        Team team = getTeam(project.getTeamId());
-        return team.getTeamMemberships().stream()
-                .anyMatch(m -> m.getUser().getId().equals(userId));
+        return teamAccessService.isMember(project.getTeamId(), userId);
     }
 
     // -------------------------
@@ -467,19 +517,8 @@ public class TaskService {
         return cache.computeIfAbsent(projectId, this::getProject);
     }
 
-    private Team getTeam(UUID teamId) {
-        return teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamNotFoundException("Team not found with id: " + teamId));
-    }
-
-    private Team getTeamCached(UUID teamId, Map<UUID, Team> cache) {
-        return cache.computeIfAbsent(teamId, this::getTeam);
-    }
-
-    private TeamMembership verifyTeamMembership(Team team, UUID userId) {
-        return team.getTeamMemberships().stream()
-                .filter(m -> m.getUser().getId().equals(userId))
-                .findFirst()
+    private TeamRole verifyTeamMembership(UUID teamId, UUID userId) {
+        return teamAccessService.roleOf(teamId, userId)
                 .orElseThrow(() -> new TeamException("User is not a member of this team"));
     }
 }
@@ -0,0 +1,17 @@
+package com.collabflow.domain.tasklist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListMoveRequest {
+    // Neighbours after the move: the list directly left / right of the drop point
+    private UUID beforeListId;
+    private UUID afterListId;
+}
@@ -27,6 +27,9 @@ public class TaskList {
 
     private boolean isDeleted = false;
 
+    @Version
+    private Long version;
+
     private Instant createdAt;
     private Instant updatedAt;
 
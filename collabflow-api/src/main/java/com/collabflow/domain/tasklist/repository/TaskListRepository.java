@@ -2,6 +2,7 @@ package com.collabflow.domain.tasklist.repository;
 
 import com.collabflow.domain.tasklist.model.TaskList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,4 +20,38 @@ public interface TaskListRepository extends JpaRepository<TaskList, UUID> {
     Optional<Double> findMaxPositionByProjectId(@Param("projectId") UUID projectId);
 
     long countByProject_IdAndIsDeletedFalse(UUID projectId);
+
+    @Query("SELECT tl.position FROM TaskList tl WHERE tl.id = :listId AND tl.project.id = :projectId AND tl.isDeleted = false")
+    Optional<Double> findPositionInProject(@Param("listId") UUID listId, @Param("projectId") UUID projectId);
+
+    @Query("SELECT MIN(tl.position) FROM TaskList tl WHERE tl.project.id = :projectId AND tl.isDeleted = false AND tl.position > :position AND tl.id <> :excludedListId")
+    Optional<Double> findNextPosition(@Param("projectId") UUID projectId,
+                                      @Param("position") double position,
+                                      @Param("excludedListId") UUID excludedListId);
+
+    @Query("SELECT MAX(tl.position) FROM TaskList tl WHERE tl.project.id = :projectId AND tl.isDeleted = false AND tl.position < :position AND tl.id <> :excludedListId")
+    Optional<Double> findPreviousPosition(@Param("projectId") UUID projectId,
+                                          @Param("position") double position,
+                                          @Param("excludedListId") UUID excludedListId);
+
+    Optional<TaskList> findFirstByProject_IdAndIsDeletedFalseAndPositionLessThanEqualAndIdNotOrderByPositionDescIdDesc(
+            UUID projectId, double position, UUID excludedListId);
+
+    // Same as TaskRepository.compactPositions, for the lists of a project
+    @Modifying
+    @Query(value = """
+           UPDATE task_lists tl
+           SET position = ranked.rn * 1000.0,
+               version = tl.version + 1
+           FROM (
+               SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn
+               FROM task_lists
+               WHERE project_id = :projectId
+                 AND is_deleted = false
+                 AND id IS DISTINCT FROM CAST(:excludedListId AS uuid)
+           ) ranked
+           WHERE tl.id = ranked.id
+             AND tl.position IS DISTINCT FROM ranked.rn * 1000.0
+           """, nativeQuery = true)
+    int compactPositions(@Param("projectId") UUID projectId, @Param("excludedListId") UUID excludedListId);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.collabflow.domain.tasklist.service;
 
+import com.collabflow.domain.common.ordering.FractionalRanker;
+import com.collabflow.domain.common.ordering.OrderCompactionScheduler;
 import com.collabflow.domain.project.exception.ProjectNotFoundException;
 import com.collabflow.domain.project.model.Project;
 import com.collabflow.domain.project.repository.ProjectRepository;
@@ -12,11 +14,8 @@ import com.collabflow.domain.tasklist.mapper.TaskListMapper;
 import com.collabflow.domain.tasklist.model.TaskList;
 import com.collabflow.domain.tasklist.repository.TaskListRepository;
 import com.collabflow.domain.team.exception.TeamException;
-import com.collabflow.domain.team.exception.TeamNotFoundException;
-import com.collabflow.domain.team.model.Team;
-import com.collabflow.domain.team.model.TeamMembership;
 import com.collabflow.domain.team.model.enums.TeamRole;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
 import com.collabflow.domain.user.model.User;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -25,8 +24,10 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,19 +38,19 @@ public class TaskListService {
 
     private final TaskListRepository taskListRepository;
     private final ProjectRepository projectRepository;
-    private final TeamRepository teamRepository;
+    private final TeamAccessService teamAccessService;
     private final TaskListMapper mapper;
+    private final OrderCompactionScheduler orderCompactionScheduler;
 
     @Transactional
     @CacheEvict(cacheNames = "taskListsByProjectAndUser", allEntries = true)
     public TaskListResponse createTaskList(UUID projectId, TaskListCreateRequest request, User user) {
         Project project = getProject(projectId);
 
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
         // Only OWNER and ADMIN can create task lists
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new TaskListException("Only team owners and admins can create task lists");
         }
 
@@ -75,8 +76,7 @@ public class TaskListService {
     @Cacheable(cacheNames = "taskListsByProjectAndUser", key = "#projectId.toString() + ':' + #userId.toString()")
     public List<TaskListResponse> getProjectTaskLists(UUID projectId, UUID userId) {
         Project project = getProject(projectId);
-        Team team = getTeam(project.getTeamId());
-        verifyTeamMembership(team, userId);
+        verifyTeamMembership(project.getTeamId(), userId);
 
         return taskListRepository
                 .findByProject_IdAndIsDeletedFalseOrderByPositionAsc(projectId)
@@ -89,8 +89,7 @@ public class TaskListService {
         TaskList taskList = getTaskList(listId);
 
         Project project = getProject(taskList.getProject().getId());
-        Team team = getTeam(project.getTeamId());
-        verifyTeamMembership(team, userId);
+        verifyTeamMembership(project.getTeamId(), userId);
 
         return mapper.toResponse(taskList);
     }
@@ -101,10 +100,9 @@ public class TaskListService {
         TaskList taskList = getTaskList(listId);
 
         Project project = getProject(taskList.getProject().getId());
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new TaskListException("Only team owners and admins can update task lists");
         }
 
@@ -113,7 +111,7 @@ public class TaskListService {
             taskList.setName(request.getName());
         }
         if (request.getPosition() != null) {
-            taskList.setPosition(request.getPosition());
+            taskList.setPosition(resolveRequestedPosition(listId, project.getId(), request.getPosition()));
         }
 
         TaskList updated = taskListRepository.save(taskList);
@@ -126,10 +124,9 @@ public class TaskListService {
         TaskList taskList = getTaskList(listId);
 
         Project project = getProject(taskList.getProject().getId());
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new TaskListException("Only team owners and admins can delete task lists");
         }
 
@@ -141,10 +138,9 @@ public class TaskListService {
     @CacheEvict(cacheNames = "taskListsByProjectAndUser", allEntries = true)
     public void reorderTaskLists(UUID projectId, List<UUID> orderedListIds, User user) {
         Project project = getProject(projectId);
-        Team team = getTeam(project.getTeamId());
-        TeamMembership membership = verifyTeamMembership(team, user.getId());
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-        if (membership.getRole() == TeamRole.MEMBER) {
+        if (role == TeamRole.MEMBER) {
             throw new TaskListException("Only team owners and admins can reorder task lists");
         }
 
@@ -153,9 +149,8 @@ public class TaskListService {
         Map<UUID, TaskList> listMap = allLists.stream()
                 .collect(Collectors.toMap(TaskList::getId, tl -> tl));
 
-        // Update positions in memory
-        for (int i = 0; i < orderedListIds.size(); i++) {
-            UUID listId = orderedListIds.get(i);
+        List<TaskList> ordered = new ArrayList<>(orderedListIds.size());
+        for (UUID listId : orderedListIds) {
             TaskList taskList = listMap.get(listId);
 
             if (taskList == null) {
@@ -164,15 +159,116 @@ public class TaskListService {
             if (!taskList.getProject().getId().equals(projectId)) {
                 throw new TaskListException("Task list does not belong to this project");
             }
+            ordered.add(taskList);
+        }
+
+        // Only lists that are out of order get a new key; a single drag rewrites a single row
+        Map<Integer, Double> changes = FractionalRanker.rerank(
+                ordered.stream().map(TaskList::getPosition).toList());
+
+        if (changes == null) {
+            // No room left between some neighbours: renumber everything in the requested order
+            for (int i = 0; i < ordered.size(); i++) {
+                ordered.get(i).setPosition((i + 1) * FractionalRanker.STEP);
+            }
+            taskListRepository.saveAll(ordered);
+            return;
+        }
+
+        List<TaskList> changed = new ArrayList<>(changes.size());
+        changes.forEach((index, position) -> {
+            TaskList taskList = ordered.get(index);
+            taskList.setPosition(position);
+            changed.add(taskList);
+        });
+        taskListRepository.saveAll(changed);
+    }
+
+    /**
+     * Moves a single list between two neighbours by giving it a fractional position, so only the
+     * moved row is written.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = "taskListsByProjectAndUser", allEntries = true)
+    public TaskListResponse moveTaskList(UUID listId, UUID beforeListId, UUID afterListId, User user) {
+        TaskList taskList = getTaskList(listId);
+        UUID projectId = taskList.getProject().getId();
+
+        Project project = getProject(projectId);
+        TeamRole role = verifyTeamMembership(project.getTeamId(), user.getId());
 
-            taskList.setPosition((i + 1) * 1000.0);
+        if (role == TeamRole.MEMBER) {
+            throw new TaskListException("Only team owners and admins can reorder task lists");
         }
 
-        // Batch save all at once
-        taskListRepository.saveAll(allLists);
+        taskList.setPosition(resolveMovePosition(listId, projectId, beforeListId, afterListId));
+        TaskList updated = taskListRepository.save(taskList);
+        return mapper.toResponse(updated);
     }
 
     // Helper methods
+    private double resolveMovePosition(UUID listId, UUID projectId, UUID beforeListId, UUID afterListId) {
+        if (beforeListId == null && afterListId == null) {
+            return taskListRepository.findMaxPositionByProjectId(projectId)
+                    .map(max -> max + FractionalRanker.STEP)
+                    .orElse(FractionalRanker.STEP);
+        }
+
+        Double before = beforeListId == null ? null : neighbourPosition(beforeListId, projectId, listId);
+        Double after = afterListId == null ? null : neighbourPosition(afterListId, projectId, listId);
+
+        if (after == null && before != null) {
+            after = taskListRepository.findNextPosition(projectId, before, listId).orElse(null);
+        } else if (before == null && after != null) {
+            before = taskListRepository.findPreviousPosition(projectId, after, listId).orElse(null);
+        }
+
+        if (before != null && after != null && before >= after) {
+            throw new TaskListException("Neighbour task lists are out of order in this project");
+        }
+
+        if (!FractionalRanker.hasRoom(before, after)) {
+            taskListRepository.compactPositions(projectId, listId);
+            return resolveMovePosition(listId, projectId, beforeListId, afterListId);
+        }
+
+        if (FractionalRanker.shouldCompact(before, after)) {
+            orderCompactionScheduler.schedule("task-lists:" + projectId,
+                    () -> taskListRepository.compactPositions(projectId, null));
+        }
+
+        return FractionalRanker.between(before, after);
+    }
+
+    // A position sent as is may be taken or squeeze a gap; then the list goes after the one at or before it
+    private double resolveRequestedPosition(UUID listId, UUID projectId, double requestedPosition) {
+        Optional<TaskList> previous = taskListRepository
+                .findFirstByProject_IdAndIsDeletedFalseAndPositionLessThanEqualAndIdNotOrderByPositionDescIdDesc(
+                        projectId, requestedPosition, listId);
+        Double before = previous.map(TaskList::getPosition).orElse(null);
+        Double after = taskListRepository.findNextPosition(projectId, requestedPosition, listId).orElse(null);
+
+        if (FractionalRanker.hasRoom(before, requestedPosition) && FractionalRanker.hasRoom(requestedPosition, after)) {
+            if (FractionalRanker.shouldCompactAround(before, requestedPosition, after)) {
+                orderCompactionScheduler.schedule("task-lists:" + projectId,
+                        () -> taskListRepository.compactPositions(projectId, null));
+            }
+            return requestedPosition;
+        }
+        if (previous.isEmpty()) {
+            return FractionalRanker.between(null, after);
+        }
+        return resolveMovePosition(listId, projectId, previous.get().getId(), null);
+    }
+
+    private Double neighbourPosition(UUID neighbourId, UUID projectId, UUID movingListId) {
+        if (neighbourId.equals(movingListId)) {
+            throw new TaskListException("A task list cannot be its own neighbour");
+        }
+        return taskListRepository.findPositionInProject(neighbourId, projectId)
+                .orElseThrow(() -> new TaskListException("Neighbour task list is not in this project: " + neighbourId));
+    }
+
     private TaskList getTaskList(UUID listId) {
         return taskListRepository.findById(listId)
                 .filter(tl -> !tl.isDeleted())
@@ -185,15 +281,8 @@ public class TaskListService {
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
     }
 
-    private Team getTeam(UUID teamId) {
-        return teamRepository.findByIdWithMembershipsAndUsers(teamId)
-                .orElseThrow(() -> new TeamNotFoundException("Team not found with id: " + teamId));
-    }
-
-    private TeamMembership verifyTeamMembership(Team team, UUID userId) {
-        return team.getTeamMemberships().stream()
-                .filter(m -> m.getUser().getId().equals(userId))
-                .findFirst()
+    private TeamRole verifyTeamMembership(UUID teamId, UUID userId) {
+        return teamAccessService.roleOf(teamId, userId)
                 .orElseThrow(() -> new TeamException("User is not a member of this team"));
     }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.collabflow.domain.team.repository;
 
 import com.collabflow.domain.team.model.TeamMembership;
+import com.collabflow.domain.team.model.enums.TeamRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +16,24 @@ public interface TeamMembershipRepository extends JpaRepository<TeamMembership,
     @Modifying
     @Query("DELETE FROM TeamMembership tm WHERE tm.id.teamId = :teamId AND tm.id.userId = :userId")
     void deleteByTeamIdAndUserId(@Param("teamId") UUID teamId, @Param("userId") UUID userId);
+
+    // Scalar projection: (userId, role) pairs without hydrating Team/User entities
+    @Query("SELECT tm.id.userId AS userId, tm.role AS role FROM TeamMembership tm WHERE tm.id.teamId = :teamId")
+    List<MemberRoleView> findMemberRolesByTeamId(@Param("teamId") UUID teamId);
+
+    // Recipient list for notification fan-out; joins only the username column
+    @Query("SELECT u.id AS userId, u.username AS username FROM TeamMembership tm JOIN tm.user u WHERE tm.id.teamId = :teamId")
+    List<MemberUsernameView> findMemberUsernamesByTeamId(@Param("teamId") UUID teamId);
+
+    interface MemberRoleView {
+        UUID getUserId();
+
+        TeamRole getRole();
+    }
+
+    interface MemberUsernameView {
+        UUID getUserId();
+
+        String getUsername();
+    }
 }
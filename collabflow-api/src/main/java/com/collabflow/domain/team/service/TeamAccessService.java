@@ -0,0 +1,279 @@
+package com.collabflow.domain.team.service;
+
+import com.collabflow.domain.team.model.enums.TeamRole;
+import com.collabflow.domain.team.repository.TeamMembershipRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Answers "is this user in that team, and with which role?" without loading the Team graph.
+ *
+ * <p>Each team's membership is kept as a compact {@code userId → role} index in two tiers:
+ * a local Caffeine cache for O(1) lookups and a Redis hash shared by all nodes. A miss on both
+ * tiers is rebuilt from a scalar projection query. {@link TeamService} refreshes the index
+ * after every committed membership change: the team's generation in Redis is bumped and its hash
+ * deleted, and a Redis pub/sub message drops the stale local copy on every other node. A reader
+ * only fills the hash if the generation is still the one it saw before querying the database, so
+ * a snapshot read before a change can never be written back after it. Components that derive
+ * their own grants from membership register an invalidation listener. It runs for every local
+ * drop of a team's index.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamAccessService {
+
+    private static final String ACCESS_KEY_PREFIX = "team-access:";
+    private static final String GENERATION_KEY_PREFIX = "team-access:generation:";
+    private static final String INVALIDATION_CHANNEL = "team-access:invalidate";
+    // Generations only need to outlive a database read
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    // KEYS: access hash, generation. ARGV: generation seen before loading, ttl, userId, role, ...
+    // Returns 0 when a membership change bumped the generation in between.
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 3, #ARGV, 2 do
+              redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final TeamMembershipRepository teamMembershipRepository;
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.team-access.local-max-teams:10000}")
+    private long localMaxTeams;
+
+    @Value("${app.team-access.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${app.team-access.redis-ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    private Cache<UUID, Map<UUID, TeamRole>> localIndex;
+
+    private final List<Consumer<UUID>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void init() {
+        localIndex = Caffeine.newBuilder()
+                .maximumSize(localMaxTeams)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                invalidateLocal(UUID.fromString(body));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed team-access invalidation: {}", body);
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    // ─── Queries ──────────────────────────────────────────────────────
+
+    public boolean isMember(UUID teamId, UUID userId) {
+        return roleOf(teamId, userId).isPresent();
+    }
+
+    public Optional<TeamRole> roleOf(UUID teamId, UUID userId) {
+        if (teamId == null || userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(membersOf(teamId).get(userId));
+    }
+
+    public Set<UUID> memberIds(UUID teamId) {
+        if (teamId == null) {
+            return Set.of();
+        }
+        return membersOf(teamId).keySet();
+    }
+
+    // ─── Maintenance ──────────────────────────────────────────────────
+
+    /** Called with the team id whenever this node drops its cached membership for that team. */
+    public void addInvalidationListener(Consumer<UUID> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    /**
+     * Rebuilds the team's index once the surrounding transaction commits, so readers never
+     * observe a membership change that was later rolled back.
+     */
+    public void refreshAfterCommit(UUID teamId) {
+        runAfterCommit(() -> refresh(teamId));
+    }
+
+    public void evictAfterCommit(UUID teamId) {
+        runAfterCommit(() -> evict(teamId));
+    }
+
+    // The next reader rebuilds the index from the committed rows
+    private void refresh(UUID teamId) {
+        evict(teamId);
+    }
+
+    private void evict(UUID teamId) {
+        try {
+            redis.opsForValue().increment(generationKey(teamId));
+            redis.expire(generationKey(teamId), GENERATION_TTL);
+            redis.delete(accessKey(teamId));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to evict team-access index for team {}: {}", teamId, ex.getMessage());
+        }
+        invalidateLocal(teamId);
+        broadcastInvalidation(teamId);
+    }
+
+    private void invalidateLocal(UUID teamId) {
+        localIndex.invalidate(teamId);
+        for (Consumer<UUID> listener : invalidationListeners) {
+            try {
+                listener.accept(teamId);
+            } catch (RuntimeException ex) {
+                log.warn("Team-access invalidation listener failed for team {}: {}", teamId, ex.getMessage());
+            }
+        }
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private Map<UUID, TeamRole> membersOf(UUID teamId) {
+        // Loaded inside the cache, so an invalidation arriving meanwhile also drops this load
+        Map<UUID, TeamRole> members = localIndex.get(teamId, id -> {
+            Map<UUID, TeamRole> loaded = loadShared(id);
+            // An empty index means the team does not exist; never cache that.
+            return loaded.isEmpty() ? null : loaded;
+        });
+        return members == null ? Map.of() : members;
+    }
+
+    private Map<UUID, TeamRole> loadShared(UUID teamId) {
+        Map<UUID, TeamRole> members = readFromRedis(teamId);
+        if (members != null) {
+            return members;
+        }
+        // Read before the database, so a change committed after this read fails the fill
+        String generation = readGeneration(teamId);
+        members = loadFromDatabase(teamId);
+        if (generation != null && !members.isEmpty()) {
+            writeToRedis(teamId, generation, members);
+        }
+        return members;
+    }
+
+    private Map<UUID, TeamRole> loadFromDatabase(UUID teamId) {
+        Map<UUID, TeamRole> members = new HashMap<>();
+        teamMembershipRepository.findMemberRolesByTeamId(teamId)
+                .forEach(view -> members.put(view.getUserId(), view.getRole()));
+        return Map.copyOf(members);
+    }
+
+    private Map<UUID, TeamRole> readFromRedis(UUID teamId) {
+        try {
+            Map<Object, Object> entries = redis.opsForHash().entries(accessKey(teamId));
+            if (entries.isEmpty()) {
+                return null;
+            }
+            Map<UUID, TeamRole> members = new HashMap<>(entries.size());
+            entries.forEach((userId, role) ->
+                    members.put(UUID.fromString(userId.toString()), TeamRole.valueOf(role.toString())));
+            return Map.copyOf(members);
+        } catch (DataAccessException ex) {
+            log.warn("Team-access index unavailable in Redis for team {}, using database: {}", teamId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private String readGeneration(UUID teamId) {
+        try {
+            String generation = redis.opsForValue().get(generationKey(teamId));
+            return generation == null ? "0" : generation;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read team-access generation for team {}, not caching: {}", teamId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(UUID teamId, String generation, Map<UUID, TeamRole> members) {
+        List<String> args = new ArrayList<>(2 + members.size() * 2);
+        args.add(generation);
+        args.add(String.valueOf(redisTtlSeconds));
+        members.forEach((userId, role) -> {
+            args.add(userId.toString());
+            args.add(role.name());
+        });
+
+        try {
+            Long filled = redis.execute(FILL, List.of(accessKey(teamId), generationKey(teamId)), args.toArray());
+            if (filled == null || filled == 0) {
+                log.debug("Team-access index for team {} changed while loading, not cached in Redis", teamId);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Failed to write team-access index for team {}: {}", teamId, ex.getMessage());
+        }
+    }
+
+    private void broadcastInvalidation(UUID teamId) {
+        try {
+            redis.convertAndSend(INVALIDATION_CHANNEL, teamId.toString());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to broadcast team-access invalidation for team {}: {}", teamId, ex.getMessage());
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private String accessKey(UUID teamId) {
+        return ACCESS_KEY_PREFIX + teamId;
+    }
+
+    private String generationKey(UUID teamId) {
+        return GENERATION_KEY_PREFIX + teamId;
+    }
+}
@@ -47,6 +47,7 @@ public class TeamService {
     private final TeamInviteRepository teamInviteRepository;
     private final UserRepository userRepository;
     private final DomainEventPublisher domainEventPublisher;
+    private final TeamAccessService teamAccessService;
 
 
     @Cacheable(cacheNames = "teamsByUser", key = "#id")
@@ -105,7 +106,9 @@ public class TeamService {
         team.getTeamMemberships().add(ownerMembership);
 
         // Step 4: Save again (cascade will handle TeamMembership)
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        teamAccessService.refreshAfterCommit(saved.getId());
+        return saved;
     }
 
 
@@ -167,6 +170,7 @@ public class TeamService {
         }
 
         teamRepository.delete(team);
+        teamAccessService.evictAfterCommit(teamId);
     }
 
 
@@ -279,6 +283,7 @@ public class TeamService {
         team.getTeamMemberships().add(membership);
 
         Team savedTeam = teamRepository.save(team);
+        teamAccessService.refreshAfterCommit(team.getId());
 
         domainEventPublisher.publish(DomainEvent.builder()
             .eventType(DomainEventType.TEAM_MEMBER_JOINED)
@@ -343,6 +348,7 @@ public class TeamService {
 
         targetMembership.setRole(newRole);
         teamMembershipRepository.save(targetMembership);
+        teamAccessService.refreshAfterCommit(teamId);
     }
 
 
@@ -382,6 +388,7 @@ public class TeamService {
 
         teamMembershipRepository.save(actingMembership);
         teamMembershipRepository.save(newOwnerMembership);
+        teamAccessService.refreshAfterCommit(teamId);
 
 
     }
@@ -424,6 +431,7 @@ public class TeamService {
 
         // ✅ Use the custom delete method
         teamMembershipRepository.deleteByTeamIdAndUserId(teamId, userId);
+        teamAccessService.refreshAfterCommit(teamId);
     }
 
     @Transactional
@@ -449,6 +457,7 @@ public class TeamService {
 
         // ✅ Use the custom delete method
         teamMembershipRepository.deleteByTeamIdAndUserId(teamId, currentUser.getId());
+        teamAccessService.refreshAfterCommit(teamId);
     }
 
     private Team getTeam(UUID teamId) {
@@ -3,24 +3,29 @@ package com.collabflow.events.consumer;
 import com.collabflow.domain.activity.model.ActivityFeedItem;
 import com.collabflow.domain.activity.repository.ActivityFeedItemRepository;
 import com.collabflow.domain.search.service.SearchIndexService;
+import com.collabflow.events.dispatch.DomainEventHandler;
 import com.collabflow.events.model.DomainEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ActivityFeedEventConsumer {
+public class ActivityFeedEventConsumer implements DomainEventHandler {
 
     private final ActivityFeedItemRepository activityFeedItemRepository;
     private final SearchIndexService searchIndexService;
 
     @KafkaListener(
             topics = "${app.events.topic.system}",
-            groupId = "${app.events.consumer-groups.activity}"
+            groupId = "${app.events.consumer-groups.activity}",
+            autoStartup = "#{'${app.events.consumer.mode:groups}' == 'groups'}"
     )
     @Transactional
     public void consume(DomainEvent event) {
@@ -49,6 +54,16 @@ public class ActivityFeedEventConsumer {
             searchIndexService.indexActivity(saved);
     }
 
+    @Override
+    public String handlerName() {
+        return "activity";
+    }
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        records.forEach(record -> consume(record.value()));
+    }
+
     private String toHumanMessage(DomainEvent event) {
         String actor = safeActor(event);
 
@@ -1,8 +1,12 @@
 package com.collabflow.events.consumer;
 
+import com.collabflow.events.dispatch.DomainEventHandler;
 import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.publisher.EventCoalescer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
@@ -10,45 +14,181 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
 import java.util.UUID;
 
+/**
+ * Maintains {@code analytics_usage_daily} from the system event stream.
+ *
+ * <p>Each poll is folded into one delta per (day, team, project, event type) and written with a
+ * single multi-row upsert. The next offset of every partition in the batch is stored in
+ * {@code analytics_consumer_offsets} in the same transaction. A redelivered batch therefore
+ * skips records that were already counted, even if the Kafka offset commit was lost.</p>
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class AnalyticsEventConsumer {
+public class AnalyticsEventConsumer implements DomainEventHandler {
 
     private static final UUID ZERO_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
+    // Keeps each statement well below the 65535 bind-parameter limit of the Postgres driver.
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final Comparator<CounterKey> LOCK_ORDER = Comparator
+            .comparing(CounterKey::day)
+            .thenComparing(CounterKey::teamId)
+            .thenComparing(CounterKey::projectId)
+            .thenComparing(CounterKey::eventType);
+
     private final JdbcTemplate jdbcTemplate;
 
     @KafkaListener(
             topics = "${app.events.topic.system}",
-            groupId = "${app.events.consumer-groups.analytics}"
+            groupId = "${app.events.consumer-groups.analytics}",
+            autoStartup = "#{'${app.events.consumer.mode:groups}' == 'groups'}",
+            containerFactory = "batchListenerContainerFactory",
+            properties = "max.poll.records=${app.events.analytics.max-poll-records:2000}"
     )
     @Transactional
-    public void consume(DomainEvent event) {
+    public void consume(List<ConsumerRecord<String, DomainEvent>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        Map<TopicPartition, Long> appliedOffsets = loadAppliedOffsets(records);
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        int skipped = 0;
+
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (record.offset() < appliedOffsets.getOrDefault(partition, 0L)) {
+                skipped++;
+                continue;
+            }
+            nextOffsets.merge(partition, record.offset() + 1, Math::max);
+
+            CounterKey key = counterKey(record.value());
+            if (key != null) {
+                // A coalesced event stands for several edits
+                deltas.merge(key, (long) EventCoalescer.weightOf(record.value()), Long::sum);
+            }
+        }
+
+        if (nextOffsets.isEmpty()) {
+            log.debug("[analytics-service] skipped redelivered batch of {} records", records.size());
+            return;
+        }
+
+        upsertCounters(deltas);
+        storeOffsets(nextOffsets);
+
+        log.debug("[analytics-service] batch={} skipped={} counterRows={}", records.size(), skipped, deltas.size());
+    }
+
+    @Override
+    public String handlerName() {
+        return "analytics";
+    }
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        consume(records);
+    }
+
+    static CounterKey counterKey(DomainEvent event) {
         if (event == null || event.getEventType() == null || event.getOccurredAt() == null) {
+            return null;
+        }
+        return new CounterKey(
+                event.getOccurredAt().atZone(ZoneOffset.UTC).toLocalDate(),
+                event.getTeamId() == null ? ZERO_UUID : event.getTeamId(),
+                event.getProjectId() == null ? ZERO_UUID : event.getProjectId(),
+                event.getEventType().name()
+        );
+    }
+
+    private Map<TopicPartition, Long> loadAppliedOffsets(List<ConsumerRecord<String, DomainEvent>> records) {
+        Map<TopicPartition, Long> applied = new HashMap<>();
+        records.stream()
+                .map(record -> new TopicPartition(record.topic(), record.partition()))
+                .distinct()
+                .sorted(Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition))
+                .forEach(partition -> jdbcTemplate.query(
+                        // Row lock serialises a rebalanced-away consumer with its successor
+                        "SELECT next_offset FROM analytics_consumer_offsets WHERE topic = ? AND partition_id = ? FOR UPDATE",
+                        rs -> {
+                            applied.put(partition, rs.getLong("next_offset"));
+                        },
+                        partition.topic(),
+                        partition.partition()
+                ));
+        return applied;
+    }
+
+    private void upsertCounters(Map<CounterKey, Long> deltas) {
+        if (deltas.isEmpty()) {
             return;
         }
 
-        LocalDate day = event.getOccurredAt().atZone(ZoneOffset.UTC).toLocalDate();
-        UUID teamId = event.getTeamId() == null ? ZERO_UUID : event.getTeamId();
-        UUID projectId = event.getProjectId() == null ? ZERO_UUID : event.getProjectId();
+        // Sorted so concurrent consumers always lock counter rows in the same order
+        List<Map.Entry<CounterKey, Long>> rows = new ArrayList<>(deltas.entrySet());
+        rows.sort(Map.Entry.comparingByKey(LOCK_ORDER));
+
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<CounterKey, Long>> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
 
-        jdbcTemplate.update(
+            StringJoiner values = new StringJoiner(", ");
+            List<Object> args = new ArrayList<>(chunk.size() * 5);
+            for (Map.Entry<CounterKey, Long> row : chunk) {
+                values.add("(?, ?, ?, ?, ?)");
+                CounterKey key = row.getKey();
+                args.add(key.day());
+                args.add(key.teamId());
+                args.add(key.projectId());
+                args.add(key.eventType());
+                args.add(row.getValue());
+            }
+
+            jdbcTemplate.update(
+                    """
+                    INSERT INTO analytics_usage_daily (day, team_id, project_id, event_type, event_count)
+                    VALUES %s
+                    ON CONFLICT (day, team_id, project_id, event_type)
+                    DO UPDATE SET event_count = analytics_usage_daily.event_count + EXCLUDED.event_count
+                    """.formatted(values),
+                    args.toArray()
+            );
+        }
+    }
+
+    private void storeOffsets(Map<TopicPartition, Long> nextOffsets) {
+        Map<TopicPartition, Long> ordered = new TreeMap<>(
+                Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition));
+        ordered.putAll(nextOffsets);
+
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        ordered.forEach((partition, offset) -> args.add(new Object[]{partition.topic(), partition.partition(), offset}));
+
+        jdbcTemplate.batchUpdate(
                 """
-                INSERT INTO analytics_usage_daily (day, team_id, project_id, event_type, event_count)
-                VALUES (?, ?, ?, ?, 1)
-                ON CONFLICT (day, team_id, project_id, event_type)
-                DO UPDATE SET event_count = analytics_usage_daily.event_count + 1
+                INSERT INTO analytics_consumer_offsets (topic, partition_id, next_offset, updated_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (topic, partition_id)
+                DO UPDATE SET next_offset = GREATEST(analytics_consumer_offsets.next_offset, EXCLUDED.next_offset),
+                              updated_at = now()
                 """,
-                day,
-                teamId,
-                projectId,
-                event.getEventType().name()
+                args
         );
+    }
 
-        log.info("[analytics-service] type={} team={} project={} aggregate={}",
-                event.getEventType(), event.getTeamId(), event.getProjectId(), event.getAggregateId());
+    record CounterKey(LocalDate day, UUID teamId, UUID projectId, String eventType) {
     }
 }
@@ -1,20 +1,35 @@
 package com.collabflow.events.consumer;
 
+import com.collabflow.events.dispatch.DomainEventHandler;
 import com.collabflow.events.model.DomainEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
-public class AuditEventConsumer {
+public class AuditEventConsumer implements DomainEventHandler {
 
     @KafkaListener(
             topics = "${app.events.topic.system}",
-            groupId = "${app.events.consumer-groups.audit}"
+            groupId = "${app.events.consumer-groups.audit}",
+            autoStartup = "#{'${app.events.consumer.mode:groups}' == 'groups'}"
     )
     public void consume(DomainEvent event) {
         log.info("[audit-service] eventId={} eventType={} occurredAt={} actor={}",
                 event.getEventId(), event.getEventType(), event.getOccurredAt(), event.getActorId());
     }
+
+    @Override
+    public String handlerName() {
+        return "audit";
+    }
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        records.forEach(record -> consume(record.value()));
+    }
 }
@@ -1,18 +1,23 @@
 package com.collabflow.events.consumer;
 
+import com.collabflow.events.dispatch.DomainEventHandler;
 import com.collabflow.events.model.DomainEvent;
 import com.collabflow.events.model.DomainEventType;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
-public class EmailEventConsumer {
+public class EmailEventConsumer implements DomainEventHandler {
 
     @KafkaListener(
             topics = "${app.events.topic.system}",
-            groupId = "${app.events.consumer-groups.email}"
+            groupId = "${app.events.consumer-groups.email}",
+            autoStartup = "#{'${app.events.consumer.mode:groups}' == 'groups'}"
     )
     public void consume(DomainEvent event) {
         if (event.getEventType() == DomainEventType.TEAM_MEMBER_INVITED
@@ -22,4 +27,14 @@ public class EmailEventConsumer {
                     event.getEventType(), event.getEventId());
         }
     }
+
+    @Override
+    public String handlerName() {
+        return "email";
+    }
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        records.forEach(record -> consume(record.value()));
+    }
 }
@@ -1,29 +1,52 @@
 package com.collabflow.events.consumer;
 
+import com.collabflow.domain.notification.dto.InAppNotificationResponse;
 import com.collabflow.domain.notification.service.NotificationService;
-import com.collabflow.domain.team.repository.TeamRepository;
+import com.collabflow.domain.notification.service.NotificationService.Recipient;
+import com.collabflow.domain.team.repository.TeamMembershipRepository;
+import com.collabflow.events.dispatch.DomainEventHandler;
 import com.collabflow.events.model.DomainEventType;
 import com.collabflow.events.model.DomainEvent;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class NotificationEventConsumer {
+public class NotificationEventConsumer implements DomainEventHandler {
 
     private final NotificationService notificationService;
-    private final TeamRepository teamRepository;
+    private final TeamMembershipRepository teamMembershipRepository;
+
+    private final Timer fanOutTimer;
+    private final DistributionSummary recipientsSummary;
+    private final Counter insertedCounter;
+
+    public NotificationEventConsumer(
+            NotificationService notificationService,
+            TeamMembershipRepository teamMembershipRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.notificationService = notificationService;
+        this.teamMembershipRepository = teamMembershipRepository;
+
+        this.fanOutTimer = meterRegistry.timer("collabflow.notifications.fanout");
+        this.recipientsSummary = meterRegistry.summary("collabflow.notifications.fanout.recipients");
+        this.insertedCounter = meterRegistry.counter("collabflow.notifications.inserted");
+    }
 
     @KafkaListener(
             topics = "${app.events.topic.system}",
-            groupId = "${app.events.consumer-groups.notification}"
+            groupId = "${app.events.consumer-groups.notification}",
+            autoStartup = "#{'${app.events.consumer.mode:groups}' == 'groups'}"
     )
     public void consume(DomainEvent event) {
         if (event == null || event.getEventType() == null || event.getEventId() == null) {
@@ -35,19 +58,36 @@ public class NotificationEventConsumer {
             return;
         }
 
-        for (Recipient recipient : resolveRecipients(event)) {
-            notificationService.createAndPush(
-                    recipient.userId(),
-                    recipient.username(),
-                    event,
-                    blueprint.title(),
-                    blueprint.message(),
-                    blueprint.route()
-            );
-        }
+        long started = System.nanoTime();
+        List<Recipient> recipients = resolveRecipients(event);
+        List<InAppNotificationResponse> inserted = notificationService.fanOut(
+                recipients,
+                event,
+                blueprint.title(),
+                blueprint.message(),
+                blueprint.route()
+        );
+        long elapsedNanos = System.nanoTime() - started;
+
+        fanOutTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        recipientsSummary.record(recipients.size());
+        insertedCounter.increment(inserted.size());
+
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        log.info("[notification-service] event={} aggregate={} actor={} recipients={} inserted={} took={}ms rate={}/s",
+                event.getEventType(), event.getAggregateId(), event.getActorUsername(),
+                recipients.size(), inserted.size(), String.format("%.1f", elapsedMs),
+                elapsedMs > 0 ? Math.round(recipients.size() * 1000.0 / elapsedMs) : recipients.size());
+    }
 
-        log.info("[notification-service] event={} aggregate={} actor={}",
-                event.getEventType(), event.getAggregateId(), event.getActorUsername());
+    @Override
+    public String handlerName() {
+        return "notification";
+    }
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        records.forEach(record -> consume(record.value()));
     }
 
     private List<Recipient> resolveRecipients(DomainEvent event) {
@@ -60,20 +100,11 @@ public class NotificationEventConsumer {
             return List.of();
         }
 
-        return teamRepository.findByIdWithMembershipsAndUsers(event.getTeamId())
-                .map(team -> {
-                    List<Recipient> recipients = new ArrayList<>();
-                    team.getTeamMemberships().forEach(membership -> {
-                        UUID memberId = membership.getUser().getId();
-                        // Skip self-notifications for team/project/task/chat events.
-                        if (event.getActorId() != null && event.getActorId().equals(memberId)) {
-                            return;
-                        }
-                        recipients.add(new Recipient(memberId, membership.getUser().getUsername()));
-                    });
-                    return recipients;
-                })
-                .orElse(List.of());
+        return teamMembershipRepository.findMemberUsernamesByTeamId(event.getTeamId()).stream()
+                // Skip self-notifications for team/project/task/chat events.
+                .filter(member -> event.getActorId() == null || !event.getActorId().equals(member.getUserId()))
+                .map(member -> new Recipient(member.getUserId(), member.getUsername()))
+                .toList();
     }
 
     private NotificationBlueprint buildBlueprint(DomainEvent event) {
@@ -172,9 +203,6 @@ public class NotificationEventConsumer {
         return value == null ? "Unknown" : value.toString();
     }
 
-    private record Recipient(UUID userId, String username) {
-    }
-
     private record NotificationBlueprint(String title, String message, String route) {
     }
 }
@@ -0,0 +1,243 @@
+package com.collabflow.events.dispatch;
+
+import com.collabflow.events.model.DomainEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-subscription alternative to one consumer group per handler.
+ *
+ * <p>One batch listener fetches and deserializes each record once, then runs every
+ * {@link DomainEventHandler} over the batch in parallel on a bounded pool. Each handler keeps its
+ * own checkpoint in {@code event_handler_checkpoints}, written in the handler's transaction, so
+ * a redelivered batch only reaches handlers that have not yet processed it.</p>
+ *
+ * <p>Failures are isolated per handler. A failing batch is retried with the usual backoff. After
+ * that its records are processed one by one, and any record that still fails is sent to the
+ * dead-letter topic with a {@code collabflow-handler} header. The other handlers are not affected.
+ * Kafka offsets are committed once every handler has either processed or dead-lettered the
+ * batch.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.events.consumer.mode", havingValue = "dispatcher")
+public class DomainEventDispatcher {
+
+    public static final String HANDLER_HEADER = "collabflow-handler";
+
+    private static final Comparator<TopicPartition> PARTITION_ORDER =
+            Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition);
+
+    private final List<DomainEventHandler> handlers;
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${app.events.topic.dead-letter}")
+    private String deadLetterTopic;
+
+    @Value("${app.events.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.events.retry.backoff-ms:1000}")
+    private long backOffMs;
+
+    public DomainEventDispatcher(
+            List<DomainEventHandler> handlers,
+            JdbcTemplate jdbcTemplate,
+            KafkaTemplate<String, DomainEvent> kafkaTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.dispatcher.threads:0}") int threads,
+            @Value("${app.events.dispatcher.queue-capacity:64}") int queueCapacity
+    ) {
+        this.handlers = List.copyOf(handlers);
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, this.handlers.size());
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Bounded queue + caller-runs: a slow handler pushes back on the listener thread instead of piling up work
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "event-dispatch-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        log.info("Event dispatcher mode: {} handlers {} on {} threads",
+                this.handlers.size(), this.handlers.stream().map(DomainEventHandler::handlerName).toList(), poolSize);
+    }
+
+    @KafkaListener(
+            topics = "${app.events.topic.system}",
+            groupId = "${app.events.consumer-groups.dispatcher}",
+            containerFactory = "batchListenerContainerFactory",
+            properties = "max.poll.records=${app.events.dispatcher.max-poll-records:1000}"
+    )
+    public void dispatch(List<ConsumerRecord<String, DomainEvent>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<TopicPartition, Long>> checkpoints = loadCheckpoints();
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(handlers.size());
+        for (DomainEventHandler handler : handlers) {
+            Map<TopicPartition, Long> handlerCheckpoints = checkpoints.getOrDefault(handler.handlerName(), Map.of());
+            List<ConsumerRecord<String, DomainEvent>> pending = records.stream()
+                    .filter(record -> record.offset() >= handlerCheckpoints.getOrDefault(
+                            new TopicPartition(record.topic(), record.partition()), 0L))
+                    .toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+            runs.add(CompletableFuture.runAsync(() -> runHandler(handler, pending), executor));
+        }
+
+        // Throws only if dead-lettering itself failed; the container then redelivers the batch
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void runHandler(DomainEventHandler handler, List<ConsumerRecord<String, DomainEvent>> records) {
+        String name = handler.handlerName();
+        long started = System.nanoTime();
+
+        for (int attempt = 1; attempt <= Math.max(1, maxAttempts); attempt++) {
+            try {
+                processInTransaction(handler, records);
+                meterRegistry.timer("collabflow.events.dispatch", "handler", name)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                meterRegistry.counter("collabflow.events.dispatched", "handler", name).increment(records.size());
+                return;
+            } catch (Exception ex) {
+                log.warn("[dispatcher] handler={} batch of {} failed (attempt {}/{}): {}",
+                        name, records.size(), attempt, maxAttempts, ex.getMessage());
+                if (attempt < maxAttempts && !sleep(backOffMs)) {
+                    break;
+                }
+            }
+        }
+
+        // Narrow the failure down to the offending records so the rest of the batch still goes through
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            try {
+                processInTransaction(handler, List.of(record));
+                meterRegistry.counter("collabflow.events.dispatched", "handler", name).increment();
+            } catch (Exception ex) {
+                log.error("[dispatcher] handler={} dead-lettering {}-{}@{}: {}",
+                        name, record.topic(), record.partition(), record.offset(), ex.getMessage(), ex);
+                deadLetter(name, record, ex);
+                storeCheckpoints(name, nextOffsets(List.of(record)));
+                meterRegistry.counter("collabflow.events.dispatch.failed", "handler", name).increment();
+            }
+        }
+    }
+
+    private void processInTransaction(DomainEventHandler handler, List<ConsumerRecord<String, DomainEvent>> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            handler.handleBatch(records);
+            storeCheckpoints(handler.handlerName(), nextOffsets(records));
+        });
+    }
+
+    private void deadLetter(String handlerName, ConsumerRecord<String, DomainEvent> record, Exception cause) {
+        ProducerRecord<String, DomainEvent> message =
+                new ProducerRecord<>(deadLetterTopic, record.partition(), record.key(), record.value());
+        message.headers().add(HANDLER_HEADER, handlerName.getBytes(StandardCharsets.UTF_8));
+        message.headers().add("collabflow-exception", String.valueOf(cause).getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(message).get(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to dead-letter record for handler " + handlerName, ex);
+        }
+    }
+
+    private Map<String, Map<TopicPartition, Long>> loadCheckpoints() {
+        Map<String, Map<TopicPartition, Long>> checkpoints = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT handler, topic, partition_id, next_offset FROM event_handler_checkpoints",
+                rs -> {
+                    checkpoints.computeIfAbsent(rs.getString("handler"), key -> new HashMap<>())
+                            .put(new TopicPartition(rs.getString("topic"), rs.getInt("partition_id")),
+                                    rs.getLong("next_offset"));
+                }
+        );
+        return checkpoints;
+    }
+
+    private Map<TopicPartition, Long> nextOffsets(List<ConsumerRecord<String, DomainEvent>> records) {
+        Map<TopicPartition, Long> next = new TreeMap<>(PARTITION_ORDER);
+        records.forEach(record -> next.merge(
+                new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max));
+        return next;
+    }
+
+    private void storeCheckpoints(String handlerName, Map<TopicPartition, Long> nextOffsets) {
+        List<Object[]> args = new ArrayList<>(nextOffsets.size());
+        nextOffsets.forEach((partition, offset) ->
+                args.add(new Object[]{handlerName, partition.topic(), partition.partition(), offset}));
+
+        jdbcTemplate.batchUpdate(
+                """
+                INSERT INTO event_handler_checkpoints (handler, topic, partition_id, next_offset, updated_at)
+                VALUES (?, ?, ?, ?, now())
+                ON CONFLICT (handler, topic, partition_id)
+                DO UPDATE SET next_offset = GREATEST(event_handler_checkpoints.next_offset, EXCLUDED.next_offset),
+                              updated_at = now()
+                """,
+                args
+        );
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,25 @@
+package com.collabflow.events.dispatch;
+
+import com.collabflow.events.model.DomainEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+/**
+ * A downstream consumer of the system event stream.
+ *
+ * <p>In {@code groups} mode each handler's own {@code @KafkaListener} consumes the topic in a
+ * separate consumer group. In {@code dispatcher} mode {@link DomainEventDispatcher} consumes
+ * once and hands every handler the same deserialized batch.</p>
+ */
+public interface DomainEventHandler {
+
+    /** Stable name used for checkpoints, metrics and dead-letter headers. */
+    String handlerName();
+
+    /**
+     * Processes records in offset order. Called inside a transaction that also stores the
+     * handler's checkpoint, so work done through the same DataSource commits atomically with it.
+     */
+    void handleBatch(List<ConsumerRecord<String, DomainEvent>> records);
+}
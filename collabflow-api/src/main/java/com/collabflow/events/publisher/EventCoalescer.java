@@ -0,0 +1,180 @@
+package com.collabflow.events.publisher;
+
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.model.DomainEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Merges bursts of edits to the same aggregate before they leave the outbox.
+ *
+ * <p>Consecutive events of a coalescible type (by default {@code TASK_UPDATED}) for the same
+ * aggregate and actor form a group. A group is held back while it is still "open": no other
+ * event for that aggregate follows it, its newest member is younger than {@code window-ms}, and
+ * its oldest member is younger than {@code max-hold-ms}. Once closed, the group is published as
+ * one event. Its id is derived from the first and last member's ids: a re-relay of the same group
+ * is deduplicated downstream, while a later group that starts with the same event, because the
+ * first was never acknowledged, is not mistaken for it. It takes the last member's timestamp and
+ * the union of all payload keys (later values win).
+ * {@value #COALESCED_COUNT_KEY} records how many events were merged.</p>
+ *
+ * <p>Held rows stay in {@code outbox_events}, so nothing is lost if the node dies during the
+ * window.</p>
+ */
+@Component
+public class EventCoalescer {
+
+    public static final String COALESCED_COUNT_KEY = "coalescedCount";
+
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration maxHold;
+    private final Set<DomainEventType> coalescibleTypes;
+
+    public EventCoalescer(
+            @Value("${app.events.coalescing.enabled:true}") boolean enabled,
+            @Value("${app.events.coalescing.window-ms:2000}") long windowMs,
+            @Value("${app.events.coalescing.max-hold-ms:10000}") long maxHoldMs,
+            @Value("${app.events.coalescing.event-types:TASK_UPDATED}") List<DomainEventType> coalescibleTypes
+    ) {
+        this.enabled = enabled;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxHold = Duration.ofMillis(maxHoldMs);
+        this.coalescibleTypes = coalescibleTypes.isEmpty()
+                ? EnumSet.noneOf(DomainEventType.class)
+                : EnumSet.copyOf(coalescibleTypes);
+    }
+
+    /**
+     * Splits id-ordered outbox rows into events to publish now and rows to hold back.
+     * Per-aggregate order is preserved; rows that follow this batch for an aggregate in
+     * {@link Plan#heldAggregates()} have to be held back too.
+     */
+    public Plan plan(List<Pending> rows, Instant now) {
+        if (!enabled || coalescibleTypes.isEmpty()) {
+            return new Plan(rows.stream().map(row -> new Outgoing(List.of(row.rowId()), row.messageKey(), row.event())).toList(), 0, Set.of());
+        }
+
+        List<List<Pending>> entries = new ArrayList<>(rows.size());
+        Map<UUID, List<Pending>> openGroups = new HashMap<>();
+
+        for (Pending row : rows) {
+            DomainEvent event = row.event();
+            UUID aggregateId = event.getAggregateId();
+            List<Pending> open = aggregateId == null ? null : openGroups.get(aggregateId);
+
+            if (isCoalescible(event)) {
+                if (open != null && Objects.equals(open.get(0).event().getActorId(), event.getActorId())) {
+                    open.add(row);
+                    continue;
+                }
+                List<Pending> group = new ArrayList<>();
+                group.add(row);
+                entries.add(group);
+                openGroups.put(aggregateId, group);
+                continue;
+            }
+
+            // Any other event for the aggregate closes its group, keeping per-aggregate order
+            if (open != null) {
+                openGroups.remove(aggregateId);
+            }
+            entries.add(List.of(row));
+        }
+
+        Map<List<Pending>, Boolean> stillOpen = new IdentityHashMap<>();
+        openGroups.values().forEach(group -> stillOpen.put(group, Boolean.TRUE));
+
+        List<Outgoing> outgoing = new ArrayList<>(entries.size());
+        Set<UUID> heldAggregates = new HashSet<>();
+        int held = 0;
+        for (List<Pending> entry : entries) {
+            if (stillOpen.containsKey(entry) && !isDue(entry, now)) {
+                held += entry.size();
+                heldAggregates.add(entry.get(0).event().getAggregateId());
+                continue;
+            }
+            outgoing.add(entry.size() == 1
+                    ? new Outgoing(List.of(entry.get(0).rowId()), entry.get(0).messageKey(), entry.get(0).event())
+                    : merge(entry));
+        }
+        return new Plan(outgoing, held, heldAggregates);
+    }
+
+    private boolean isCoalescible(DomainEvent event) {
+        return coalescibleTypes.contains(event.getEventType())
+                && event.getAggregateId() != null
+                && event.getActorId() != null;
+    }
+
+    private boolean isDue(List<Pending> group, Instant now) {
+        Instant first = group.get(0).createdAt();
+        Instant last = group.get(group.size() - 1).createdAt();
+        return !last.plus(window).isAfter(now) || !first.plus(maxHold).isAfter(now);
+    }
+
+    private Outgoing merge(List<Pending> group) {
+        DomainEvent first = group.get(0).event();
+        DomainEvent last = group.get(group.size() - 1).event();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        List<Long> rowIds = new ArrayList<>(group.size());
+        int count = 0;
+        for (Pending row : group) {
+            rowIds.add(row.rowId());
+            if (row.event().getPayload() != null) {
+                payload.putAll(row.event().getPayload());
+            }
+            count += weightOf(row.event());
+        }
+        payload.put(COALESCED_COUNT_KEY, count);
+
+        DomainEvent merged = DomainEvent.builder()
+                .eventId(mergedId(first, last))
+                .eventType(first.getEventType())
+                .occurredAt(last.getOccurredAt())
+                .aggregateType(first.getAggregateType())
+                .aggregateId(first.getAggregateId())
+                .actorId(first.getActorId())
+                .actorUsername(last.getActorUsername())
+                .teamId(last.getTeamId())
+                .projectId(last.getProjectId())
+                .payload(payload)
+                .build();
+        return new Outgoing(rowIds, group.get(group.size() - 1).messageKey(), merged);
+    }
+
+    private static UUID mergedId(DomainEvent first, DomainEvent last) {
+        return UUID.nameUUIDFromBytes((first.getEventId() + ":" + last.getEventId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Number of original events an event stands for; 1 unless it was coalesced. */
+    public static int weightOf(DomainEvent event) {
+        Object count = event == null || event.getPayload() == null ? null : event.getPayload().get(COALESCED_COUNT_KEY);
+        return count instanceof Number number && number.intValue() > 0 ? number.intValue() : 1;
+    }
+
+    public record Pending(long rowId, String messageKey, DomainEvent event, Instant createdAt) {
+    }
+
+    public record Outgoing(List<Long> rowIds, String messageKey, DomainEvent event) {
+    }
+
+    public record Plan(List<Outgoing> outgoing, int heldRows, Set<UUID> heldAggregates) {
+    }
+}
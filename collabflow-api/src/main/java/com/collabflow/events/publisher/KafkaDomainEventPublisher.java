@@ -4,14 +4,21 @@ import com.collabflow.events.model.DomainEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Sends domain events straight to Kafka after commit. Fire-and-forget: an event is lost if the
+ * broker is unavailable or the JVM stops before the send completes. Only active with
+ * {@code app.events.publisher=direct}; the default is the transactional outbox.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.events.publisher", havingValue = "direct")
 public class KafkaDomainEventPublisher implements DomainEventPublisher {
 
     private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
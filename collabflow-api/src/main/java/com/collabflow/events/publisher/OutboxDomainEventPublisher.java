@@ -0,0 +1,61 @@
+package com.collabflow.events.publisher;
+
+import com.collabflow.events.model.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes domain events to the {@code outbox_events} table inside the caller's transaction.
+ *
+ * <p>The event becomes durable together with the business change that produced it, and is
+ * published to Kafka later by {@link OutboxRelay}. A rolled-back transaction leaves no event.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.events.publisher", havingValue = "outbox", matchIfMissing = true)
+public class OutboxDomainEventPublisher implements DomainEventPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(DomainEvent event) {
+        if (event == null || event.getEventType() == null) {
+            return;
+        }
+
+        if (event.getAggregateId() == null) {
+            log.warn("Skipping domain event {} because aggregateId is missing", event.getEventType());
+            return;
+        }
+
+        String key = event.getTeamId() != null
+                ? event.getTeamId().toString()
+                : event.getAggregateId().toString();
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize domain event " + event.getEventType(), ex);
+        }
+
+        jdbcTemplate.update(
+                """
+                INSERT INTO outbox_events (event_id, event_type, message_key, payload)
+                VALUES (?, ?, ?, CAST(? AS jsonb))
+                ON CONFLICT (event_id) DO NOTHING
+                """,
+                event.getEventId(),
+                event.getEventType().name(),
+                key,
+                payload
+        );
+    }
+}
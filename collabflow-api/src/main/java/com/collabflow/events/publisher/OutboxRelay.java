@@ -0,0 +1,289 @@
+package com.collabflow.events.publisher;
+
+import com.collabflow.events.model.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} to Kafka in large, id-ordered batches.
+ *
+ * <p>Only one node relays at a time: each batch runs under a transaction-scoped Postgres advisory
+ * lock, and a node that cannot take it skips the poll. Events of one aggregate therefore leave in
+ * id order, which row-level claiming cannot guarantee. The rows themselves are not locked, so
+ * business transactions are never blocked by a slow broker. All sends of a batch are handed to the
+ * producer before any is awaited, which lets it pack them into a few broker requests (see
+ * {@code linger.ms}/{@code batch.size}), and the whole batch waits at most {@code send-timeout-ms}.
+ * Rows are deleted only once the broker has acknowledged them. Failed rows stay in the table and
+ * are retried on the next poll. A later event of the same aggregate is only sent once the one
+ * before it is acknowledged, so after a failure it stays in the table too and follows the retried
+ * event instead of overtaking it. This gives at-least-once delivery, and consumers deduplicate by
+ * {@code eventId}. A row that failed {@code max-attempts} times is moved to
+ * {@code outbox_events_parked} so it no longer holds up the events behind it.</p>
+ *
+ * <p>Before sending, {@link EventCoalescer} merges bursts of edits to the same aggregate and
+ * holds back groups whose window is still open. Held rows stay at the head of the table, so the
+ * following batches of a poll continue after them, holding back every later row of those
+ * aggregates to keep their order.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.events.publisher", havingValue = "outbox", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EventCoalescer coalescer;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter coalescedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${app.events.topic.system}")
+    private String systemEventsTopic;
+
+    @Value("${app.events.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.events.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.events.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.events.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public OutboxRelay(
+            JdbcTemplate jdbcTemplate,
+            KafkaTemplate<String, DomainEvent> kafkaTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            EventCoalescer coalescer,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coalescer = coalescer;
+
+        this.publishedCounter = meterRegistry.counter("collabflow.outbox.published");
+        this.failedCounter = meterRegistry.counter("collabflow.outbox.failed");
+        this.coalescedCounter = meterRegistry.counter("collabflow.outbox.coalesced");
+        this.parkedCounter = meterRegistry.counter("collabflow.outbox.parked");
+        this.batchTimer = meterRegistry.timer("collabflow.outbox.batch");
+        Gauge.builder("collabflow.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest outbox row seen by the last relay batch")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-interval-ms:200}")
+    public void relay() {
+        Set<UUID> heldAggregates = new HashSet<>();
+        long afterId = 0;
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            long from = afterId;
+            Batch batch = transactionTemplate.execute(status -> batchTimer.record(() -> relayBatch(from, heldAggregates)));
+            // A short or partially failed batch means there is nothing more to drain right now
+            if (batch == null || batch.rows() < batchSize || batch.failed()) {
+                return;
+            }
+            afterId = batch.lastId();
+        }
+    }
+
+    private Batch relayBatch(long afterId, Set<UUID> heldAggregates) {
+        // Released when this batch's transaction ends; another node may take the next batch
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('outbox_events'))", Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) {
+            return new Batch(0, afterId, false);
+        }
+
+        List<OutboxRow> rows = jdbcTemplate.query(
+                """
+                SELECT id, message_key, payload::text AS payload, created_at
+                FROM outbox_events
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """,
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getLong("id"),
+                        rs.getString("message_key"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toInstant()
+                ),
+                afterId,
+                batchSize
+        );
+
+        // Only the first batch of a poll starts at the head of the table
+        if (afterId == 0) {
+            lagMillis.set(rows.isEmpty() ? 0 : Duration.between(rows.get(0).createdAt(), Instant.now()).toMillis());
+        }
+        if (rows.isEmpty()) {
+            return new Batch(0, afterId, false);
+        }
+
+        List<Long> undeliverable = new ArrayList<>();
+        List<EventCoalescer.Pending> pending = new ArrayList<>(rows.size());
+        int blocked = 0;
+        for (OutboxRow row : rows) {
+            try {
+                DomainEvent event = objectMapper.readValue(row.payload(), DomainEvent.class);
+                if (event.getAggregateId() != null && heldAggregates.contains(event.getAggregateId())) {
+                    // Behind a group held in an earlier batch; sending it now would overtake that group
+                    blocked++;
+                    continue;
+                }
+                pending.add(new EventCoalescer.Pending(row.id(), row.messageKey(), event, row.createdAt()));
+            } catch (Exception ex) {
+                log.error("Dropping unreadable outbox row {}: {}", row.id(), row.payload(), ex);
+                undeliverable.add(row.id());
+            }
+        }
+
+        EventCoalescer.Plan plan = coalescer.plan(pending, Instant.now());
+        heldAggregates.addAll(plan.heldAggregates());
+        List<EventCoalescer.Outgoing> outgoing = plan.outgoing();
+        List<CompletableFuture<SendResult<String, DomainEvent>>> sends = new ArrayList<>(outgoing.size());
+        Map<UUID, CompletableFuture<SendResult<String, DomainEvent>>> lastSendOf = new HashMap<>();
+        for (EventCoalescer.Outgoing message : outgoing) {
+            UUID aggregateId = message.event().getAggregateId();
+            CompletableFuture<SendResult<String, DomainEvent>> previous = aggregateId == null ? null : lastSendOf.get(aggregateId);
+            // A later event of an aggregate is only sent once the one before it is acknowledged
+            CompletableFuture<SendResult<String, DomainEvent>> send = previous == null
+                    ? kafkaTemplate.send(systemEventsTopic, message.messageKey(), message.event())
+                    : previous.thenCompose(acked -> kafkaTemplate.send(systemEventsTopic, message.messageKey(), message.event()));
+            sends.add(send);
+            if (aggregateId != null) {
+                lastSendOf.put(aggregateId, send);
+            }
+        }
+
+        // One deadline for the whole batch, so a stalled broker cannot hold the relay indefinitely
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> published = new ArrayList<>(rows.size());
+        List<Object[]> failures = new ArrayList<>();
+        Set<UUID> failedAggregates = new HashSet<>();
+        int publishedEvents = 0;
+        int keptBack = 0;
+        for (int i = 0; i < sends.size(); i++) {
+            EventCoalescer.Outgoing message = outgoing.get(i);
+            UUID aggregateId = message.event().getAggregateId();
+            if (aggregateId != null && failedAggregates.contains(aggregateId)) {
+                // Not sent: stays in the table behind the failed event and goes out after it
+                keptBack += message.rowIds().size();
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.addAll(message.rowIds());
+                publishedEvents++;
+            } catch (Exception ex) {
+                String error = abbreviate(ex.toString());
+                message.rowIds().forEach(id -> failures.add(new Object[]{error, id}));
+                if (aggregateId != null) {
+                    failedAggregates.add(aggregateId);
+                }
+            }
+        }
+        // Later batches of this poll hold those aggregates back too
+        heldAggregates.addAll(failedAggregates);
+
+        List<Long> toDelete = new ArrayList<>(published);
+        toDelete.addAll(undeliverable);
+        if (!toDelete.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM outbox_events WHERE id = ?", toDelete, toDelete.size(),
+                    (ps, id) -> ps.setLong(1, id));
+        }
+        int parked = 0;
+        if (!failures.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?",
+                    failures);
+            log.warn("Outbox relay: {} of {} events failed to publish, will retry them and the {} queued behind them",
+                    failures.size(), rows.size(), keptBack);
+            parked = park(failures);
+        }
+
+        publishedCounter.increment(publishedEvents);
+        failedCounter.increment(failures.size());
+        parkedCounter.increment(parked);
+        coalescedCounter.increment(published.size() - publishedEvents);
+        log.debug("Outbox relay published {} events for {} rows, holding {} (lag {} ms)",
+                publishedEvents, published.size(), plan.heldRows() + blocked + keptBack, lagMillis.get());
+        return new Batch(rows.size(), rows.get(rows.size() - 1).id(), !failures.isEmpty());
+    }
+
+    private int park(List<Object[]> failures) {
+        List<Object[]> candidates = failures.stream().map(failure -> new Object[]{failure[1], maxAttempts}).toList();
+        int[][] moved = jdbcTemplate.batchUpdate(
+                """
+                WITH parked AS (
+                    DELETE FROM outbox_events WHERE id = ? AND attempts >= ?
+                    RETURNING id, event_id, event_type, message_key, payload, attempts, last_error, created_at
+                )
+                INSERT INTO outbox_events_parked (id, event_id, event_type, message_key, payload, attempts, last_error, created_at)
+                SELECT id, event_id, event_type, message_key, payload, attempts, last_error, created_at FROM parked
+                """,
+                candidates, candidates.size(), (ps, candidate) -> {
+                    ps.setLong(1, (Long) candidate[0]);
+                    ps.setInt(2, (Integer) candidate[1]);
+                });
+        int parked = 0;
+        for (int[] chunk : moved) {
+            for (int count : chunk) {
+                parked += Math.max(0, count);
+            }
+        }
+        if (parked > 0) {
+            log.error("Outbox relay: parked {} events in outbox_events_parked after {} failed attempts", parked, maxAttempts);
+        }
+        return parked;
+    }
+
+    private String abbreviate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    private record OutboxRow(long id, String messageKey, String payload, Instant createdAt) {
+    }
+
+    /** Rows read by one batch, the last of them, and whether any send failed. */
+    private record Batch(int rows, long lastId, boolean failed) {
+    }
+}
@@ -4,6 +4,7 @@ import com.collabflow.domain.common.exception.VersionConflictException;
 import com.collabflow.domain.chat.exception.ChatException;
 import com.collabflow.domain.project.exception.ProjectException;
 import com.collabflow.domain.project.exception.ProjectNotFoundException;
+import com.collabflow.domain.search.exception.SearchException;
 import com.collabflow.domain.task.exception.TaskException;
 import com.collabflow.domain.task.exception.TaskNotFoundException;
 import com.collabflow.domain.tasklist.exception.TaskListException;
@@ -74,6 +75,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
 
+    // ─── Search exception → 400 ───────────────────────────────────────
+
+    @ExceptionHandler(SearchException.class)
+    public ResponseEntity<Map<String, String>> handleSearchException(SearchException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(VersionConflictException.class)
     public ResponseEntity<Map<String, Object>> handleVersionConflict(VersionConflictException ex) {
         Map<String, Object> body = new HashMap<>();
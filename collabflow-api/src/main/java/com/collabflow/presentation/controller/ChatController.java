@@ -1,5 +1,6 @@
 package com.collabflow.presentation.controller;
 
+import com.collabflow.domain.chat.dto.ChatHistoryCursor;
 import com.collabflow.domain.chat.dto.ChatMessageResponse;
 import com.collabflow.domain.chat.service.ChatService;
 import com.collabflow.domain.user.model.User;
@@ -26,19 +27,31 @@ public class ChatController {
     private final ChatService chatService;
 
     /**
-     * Returns the latest messages for a project chat.
+     * Returns the latest messages for a project chat, or with {@code before} the page of older
+     * messages just before that cursor (scroll-back).
+     *
+     * <p>Pages are not cacheable: a message is timestamped before it is stored, so one can still
+     * land in a page that was already served.</p>
      *
      * @param projectId the project whose chat history to fetch
-     * @param limit     max number of messages (default 20, max 50)
+     * @param before    optional {@code <createdAt>,<id>} cursor of the oldest message already loaded
+     * @param limit     max number of messages (default 50, max 50 for latest, 100 for older pages)
      */
     @GetMapping("/project/{projectId}/messages")
     public ResponseEntity<List<ChatMessageResponse>> getMessages(
             @PathVariable UUID projectId,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "50") int limit,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
         User user = userDetails.getUser();
-        List<ChatMessageResponse> messages = chatService.getLatestMessages(projectId, user.getId(), limit);
-        return ResponseEntity.ok(messages);
+        if (before == null || before.isBlank()) {
+            List<ChatMessageResponse> messages = chatService.getLatestMessages(projectId, user.getId(), limit);
+            return ResponseEntity.ok(messages);
+        }
+
+        List<ChatMessageResponse> page = chatService.getMessagesBefore(
+                projectId, user.getId(), ChatHistoryCursor.parse(before), limit);
+        return ResponseEntity.ok(page);
     }
 }
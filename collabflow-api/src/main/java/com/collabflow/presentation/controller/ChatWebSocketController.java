@@ -8,6 +8,7 @@ import com.collabflow.security.CustomUserDetails;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -28,6 +29,10 @@ import java.util.UUID;
  *
  * <p>The user's {@link Principal} is populated by {@link com.collabflow.config.WebSocketAuthConfig}
  * during the STOMP CONNECT handshake.</p>
+ *
+ * <p>With {@code app.chat.pipeline=write-behind} the message is broadcast before it is stored.
+ * The sender gets a {@link com.collabflow.domain.chat.dto.ChatMessageAck} on
+ * <code>/user/queue/chat-acks</code> once it is durable.</p>
  */
 @Slf4j
 @Controller
@@ -37,6 +42,9 @@ public class ChatWebSocketController {
     private final ChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
 
+    @Value("#{'${app.chat.pipeline:sync}' == 'write-behind'}")
+    private boolean writeBehind;
+
     @MessageMapping("/chat.send/{projectId}")
     public void handleChatMessage(
             @DestinationVariable String projectId,
@@ -48,15 +56,22 @@ public class ChatWebSocketController {
 
         UUID projectUUID = UUID.fromString(projectId);
 
-        // Persist & authorise (service layer verifies team membership)
-        ChatMessageResponse response = chatService.sendMessage(projectUUID, user, request);
-
-        // Broadcast to all subscribers of this project's chat topic
-        messagingTemplate.convertAndSend("/topic/chat/" + projectId, response);
+        // Authorise, then persist now or hand off to the write-behind queue, which broadcasts
+        // under the project's lock so subscribers see the stored order
+        if (writeBehind) {
+            chatService.acceptMessage(projectUUID, user, request, response -> broadcast(projectId, response));
+        } else {
+            broadcast(projectId, chatService.sendMessage(projectUUID, user, request));
+        }
 
         log.debug("📤 Broadcast chat message to /topic/chat/{} from {}", projectId, user.getUsername());
     }
 
+    // Broadcast to all subscribers of this project's chat topic
+    private void broadcast(String projectId, ChatMessageResponse response) {
+        messagingTemplate.convertAndSend("/topic/chat/" + projectId, response);
+    }
+
     /**
      * Extracts {@link CustomUserDetails} from the STOMP session principal
      * set during the CONNECT handshake.
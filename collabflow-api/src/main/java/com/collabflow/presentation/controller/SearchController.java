@@ -1,6 +1,8 @@
 package com.collabflow.presentation.controller;
 
+import com.collabflow.domain.search.dto.SearchFilters;
 import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
 import com.collabflow.domain.search.service.WorkItemSearchService;
 import com.collabflow.security.CustomUserDetails;
 import lombok.RequiredArgsConstructor;
@@ -26,10 +28,28 @@ public class SearchController {
             @RequestParam UUID teamId,
             @RequestParam(required = false, defaultValue = "") String q,
             @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) List<Integer> priority,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) List<String> assignee,
+            @RequestParam(required = false) List<UUID> projectId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean facets,
             @AuthenticationPrincipal CustomUserDetails userDetails
     ) {
-        SearchResponse response = workItemSearchService.search(teamId, q, types, limit, userDetails.getUser());
+        SearchFilters filters = SearchFilters.of(types, priority, completed, assignee, projectId);
+        SearchResponse response = workItemSearchService.search(teamId, q, filters, cursor, limit, facets,
+                userDetails.getUser());
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SearchSuggestionResponse>> suggest(
+            @RequestParam UUID teamId,
+            @RequestParam(required = false, defaultValue = "") String q,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        return ResponseEntity.ok(workItemSearchService.suggest(teamId, q, limit, userDetails.getUser()));
+    }
 }
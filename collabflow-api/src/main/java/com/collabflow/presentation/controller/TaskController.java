@@ -81,7 +81,9 @@ public class TaskController {
                 taskId,
                 request.getNewTaskListId(),
                 request.getNewPosition(),
-            request.getExpectedVersion(),
+                request.getBeforeTaskId(),
+                request.getAfterTaskId(),
+                request.getExpectedVersion(),
                 userDetails.getUser()
         );
         return ResponseEntity.ok(response);
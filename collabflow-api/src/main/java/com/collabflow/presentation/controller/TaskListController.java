@@ -1,6 +1,7 @@
 package com.collabflow.presentation.controller;
 
 import com.collabflow.domain.tasklist.dto.TaskListCreateRequest;
+import com.collabflow.domain.tasklist.dto.TaskListMoveRequest;
 import com.collabflow.domain.tasklist.dto.TaskListResponse;
 import com.collabflow.domain.tasklist.dto.TaskListUpdateRequest;
 import com.collabflow.domain.tasklist.service.TaskListService;
@@ -82,6 +83,21 @@ public class TaskListController {
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/{listId}/move")
+    public ResponseEntity<TaskListResponse> moveTaskList(
+            @PathVariable UUID listId,
+            @RequestBody TaskListMoveRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        User user = userDetails.getUser();
+        TaskListResponse response = taskListService.moveTaskList(
+                listId,
+                request.getBeforeListId(),
+                request.getAfterListId(),
+                user
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/project/{projectId}/reorder")
     public ResponseEntity<Void> reorderTaskLists(
             @PathVariable UUID projectId,
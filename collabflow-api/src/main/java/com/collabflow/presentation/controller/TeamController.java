@@ -52,7 +52,8 @@ public class TeamController {
         User user = userDetails.getUser();
         var users = teamService.getTeamMemberships(user.getId(), id);
         var res = users.stream().map(teamMemberMapper::toDto).toList();
-        res.forEach(member -> member.setOnline(presenceService.isOnline(member.getId())));
+        var online = presenceService.getOnlineStatus(res.stream().map(TeamMemberResponse::getId).toList());
+        res.forEach(member -> member.setOnline(Boolean.TRUE.equals(online.get(member.getId()))));
 
         return ResponseEntity.ok(res);
     }
@@ -0,0 +1,33 @@
+package com.collabflow.presentation.endpoint;
+
+import com.collabflow.domain.search.dto.ReindexStatusResponse;
+import com.collabflow.domain.search.service.SearchReindexJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/searchreindex}: {@code GET} reports progress, {@code POST} starts a full
+ * rebuild ({@code {"resume": true}} continues an unfinished one). Admin only, like the rest of
+ * {@code /actuator/**}: the caller's JWT must belong to one of {@code app.security.admin-usernames}.
+ */
+@Component
+@Endpoint(id = "searchreindex")
+@RequiredArgsConstructor
+public class SearchReindexEndpoint {
+
+    private final SearchReindexJob reindexJob;
+
+    @ReadOperation
+    public ReindexStatusResponse status() {
+        return reindexJob.status();
+    }
+
+    @WriteOperation
+    public ReindexStatusResponse start(@Nullable Boolean resume) {
+        return reindexJob.start(Boolean.TRUE.equals(resume));
+    }
+}
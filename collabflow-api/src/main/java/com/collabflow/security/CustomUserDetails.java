@@ -5,14 +5,20 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 public class CustomUserDetails implements UserDetails {
 
     private final User user;
+    private final boolean admin;
 
     public CustomUserDetails(User user) {
+        this(user, false);
+    }
+
+    public CustomUserDetails(User user, boolean admin) {
         this.user = user;
+        this.admin = admin;
     }
 
     public User getUser() {
@@ -21,7 +27,10 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(() -> "ROLE_USER");
+        // ROLE_ADMIN opens the operational endpoints under /actuator
+        return admin
+                ? List.<GrantedAuthority>of(() -> "ROLE_USER", () -> "ROLE_ADMIN")
+                : List.<GrantedAuthority>of(() -> "ROLE_USER");
     }
 
     @Override
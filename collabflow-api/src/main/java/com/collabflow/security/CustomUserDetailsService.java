@@ -3,17 +3,24 @@ package com.collabflow.security;
 import com.collabflow.domain.user.model.User;
 import com.collabflow.domain.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Usernames allowed to call the admin actuator endpoints, e.g. searchreindex
+    @Value("${app.security.admin-usernames:}")
+    private Set<String> adminUsernames = Set.of();
+
     @Override
     @Cacheable(cacheNames = "userDetailsByIdentifier")
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
@@ -22,7 +29,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .or(() -> userRepository.findByEmail(identifier))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + identifier));
 
-        return new CustomUserDetails(user);
+        return new CustomUserDetails(user, adminUsernames.contains(user.getUsername()));
     }
 
     /**
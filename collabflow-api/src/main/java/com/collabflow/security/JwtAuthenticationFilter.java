@@ -28,7 +28,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         log.debug("Incoming request: {}", path);
 
-        if (path.startsWith("/api/auth/") || path.startsWith("/actuator/")) {
+        // Other actuator endpoints are admin only, so they need the token like the API does
+        if (path.startsWith("/api/auth/") || path.equals("/actuator/health") || path.equals("/actuator/info")) {
             log.debug("Bypassing JWT filter for: {}", path);
             filterChain.doFilter(request, response);
             return;
@@ -0,0 +1,12 @@
+-- V15: Transactional outbox for domain events.
+-- Rows are written in the business transaction and drained in id order by the relay.
+CREATE TABLE outbox_events (
+    id          BIGSERIAL PRIMARY KEY,
+    event_id    UUID         NOT NULL UNIQUE,
+    event_type  VARCHAR(64)  NOT NULL,
+    message_key VARCHAR(64)  NOT NULL,
+    payload     JSONB        NOT NULL,
+    attempts    INT          NOT NULL DEFAULT 0,
+    last_error  TEXT,
+    created_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
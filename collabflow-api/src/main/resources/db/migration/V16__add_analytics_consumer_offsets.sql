@@ -0,0 +1,10 @@
+-- V16: Kafka offsets applied by the analytics batch consumer.
+-- Stored in the same transaction as the counter upsert, so a redelivered batch is skipped
+-- instead of being counted twice.
+CREATE TABLE analytics_consumer_offsets (
+    topic        VARCHAR(255) NOT NULL,
+    partition_id INT          NOT NULL,
+    next_offset  BIGINT       NOT NULL,
+    updated_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    PRIMARY KEY (topic, partition_id)
+);
@@ -0,0 +1,10 @@
+-- V17: Per-handler progress for the in-process event dispatcher.
+-- next_offset is written in the same transaction as the handler's own changes.
+CREATE TABLE event_handler_checkpoints (
+    handler      VARCHAR(64)  NOT NULL,
+    topic        VARCHAR(255) NOT NULL,
+    partition_id INT          NOT NULL,
+    next_offset  BIGINT       NOT NULL,
+    updated_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    PRIMARY KEY (handler, topic, partition_id)
+);
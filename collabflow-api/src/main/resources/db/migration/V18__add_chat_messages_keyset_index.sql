@@ -0,0 +1,8 @@
+-- V18: Keyset paging for chat history.
+-- Pages are read with (created_at, id) < (:created_at, :id) ORDER BY created_at DESC, id DESC,
+-- so the id tiebreak lives in the index and every page is a single index range scan.
+CREATE INDEX idx_chat_messages_project_created_id
+    ON chat_messages (project_id, created_at DESC, id DESC);
+
+-- Superseded by the index above (same leading columns)
+DROP INDEX IF EXISTS idx_chat_messages_project_created;
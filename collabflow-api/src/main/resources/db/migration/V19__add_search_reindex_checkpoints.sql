@@ -0,0 +1,11 @@
+-- V19: Progress of a full search reindex, per source table.
+-- Rows exist only while a rebuild is unfinished; they are removed once the alias is swapped.
+CREATE TABLE search_reindex_checkpoints (
+    target_index VARCHAR(255) NOT NULL,
+    source       VARCHAR(32)  NOT NULL,
+    last_id      UUID,
+    indexed      BIGINT       NOT NULL DEFAULT 0,
+    completed    BOOLEAN      NOT NULL DEFAULT FALSE,
+    updated_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    PRIMARY KEY (target_index, source)
+);
@@ -0,0 +1,23 @@
+-- V20: Postgres full-text search, used when Elasticsearch is disabled or unavailable.
+-- 'simple' does not stem, like the standard analyzer of the Elasticsearch index.
+-- Adding a stored generated column rewrites each table once.
+ALTER TABLE tasks ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+ALTER TABLE projects ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_projects_search_vector ON projects USING GIN (search_vector);
+
+ALTER TABLE activity_feed_items ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(message, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(actor_username, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_activity_feed_search_vector ON activity_feed_items USING GIN (search_vector);
@@ -0,0 +1,13 @@
+-- V21: Outbox rows the relay gave up on after max-attempts failed sends.
+-- Kept for inspection; re-drive by inserting them back into outbox_events.
+CREATE TABLE outbox_events_parked (
+    id          BIGINT       PRIMARY KEY,
+    event_id    UUID         NOT NULL,
+    event_type  VARCHAR(64)  NOT NULL,
+    message_key VARCHAR(64)  NOT NULL,
+    payload     JSONB        NOT NULL,
+    attempts    INT          NOT NULL,
+    last_error  TEXT,
+    created_at  TIMESTAMPTZ  NOT NULL,
+    parked_at   TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
@@ -0,0 +1,3 @@
+-- V22: Optimistic locking for task lists, so a position compaction fails stale full-row writes.
+ALTER TABLE task_lists
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,108 @@
+package com.collabflow;
+
+import com.collabflow.events.consumer.AnalyticsEventConsumer;
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.model.DomainEventType;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsEventConsumerTest {
+
+    private static final String TOPIC = "collabflow.system-events";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AnalyticsEventConsumer consumer;
+
+    @Test
+    @DisplayName("1 - a batch is folded into one upsert with per-key deltas")
+    void t01_consume_foldsBatchIntoSingleUpsert() {
+        UUID teamId = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+
+        consumer.consume(List.of(
+                record(0, 10, event(DomainEventType.TASK_CREATED, teamId, projectId)),
+                record(0, 11, event(DomainEventType.TASK_CREATED, teamId, projectId)),
+                record(1, 5, event(DomainEventType.TASK_CREATED, teamId, projectId)),
+                record(1, 6, event(DomainEventType.TASK_MOVED, teamId, projectId))
+        ));
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(anyString(), args.capture());
+        // Two counter rows: TASK_CREATED x3 and TASK_MOVED x1
+        Object[] values = args.getValue();
+        assertEquals(10, values.length);
+        assertEquals(3L, values[4]);
+        assertEquals(1L, values[9]);
+
+        ArgumentCaptor<List<Object[]>> offsets = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(anyString(), offsets.capture());
+        assertArrayEquals(new Object[]{TOPIC, 0, 12L}, offsets.getValue().get(0));
+        assertArrayEquals(new Object[]{TOPIC, 1, 7L}, offsets.getValue().get(1));
+    }
+
+    @Test
+    @DisplayName("2 - records below the stored offset are not counted again")
+    void t02_consume_redeliveredBatch_isSkipped() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("next_offset")).thenReturn(20L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(TOPIC), eq(0));
+
+        UUID teamId = UUID.randomUUID();
+        consumer.consume(List.of(
+                record(0, 18, event(DomainEventType.TASK_CREATED, teamId, null)),
+                record(0, 19, event(DomainEventType.TASK_CREATED, teamId, null))
+        ));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static ConsumerRecord<String, DomainEvent> record(int partition, long offset, DomainEvent event) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, event.getAggregateId().toString(), event);
+    }
+
+    private static DomainEvent event(DomainEventType type, UUID teamId, UUID projectId) {
+        return DomainEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(type)
+                .occurredAt(Instant.parse("2026-03-01T10:00:00Z"))
+                .aggregateType("Task")
+                .aggregateId(UUID.randomUUID())
+                .teamId(teamId)
+                .projectId(projectId)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.collabflow;
+
+import com.collabflow.config.ChatAccessInterceptor;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.team.exception.TeamException;
+import com.collabflow.domain.team.service.TeamAccessService;
+import com.collabflow.domain.user.model.User;
+import com.collabflow.security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatAccessInterceptorTest {
+
+    @Mock private ProjectRepository projectRepository;
+    @Mock private TeamAccessService teamAccessService;
+    @Mock private ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final Map<String, Object> sessionAttributes = new ConcurrentHashMap<>();
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID teamId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+
+    private ChatAccessInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ChatAccessInterceptor(projectRepository, teamAccessService, messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("1 - a member is authorized once per project, later frames hit the session cache")
+    void t01_preSend_cachesGrantOnSession() {
+        givenProject();
+        when(teamAccessService.isMember(teamId, userId)).thenReturn(true);
+
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/" + projectId, "sub-1"), channel);
+        interceptor.preSend(frame(StompCommand.SEND, "/app/chat.send/" + projectId, null), channel);
+        interceptor.preSend(frame(StompCommand.SEND, "/app/chat.send/" + projectId, null), channel);
+
+        verify(projectRepository, times(1)).findById(projectId);
+        verify(teamAccessService, times(1)).isMember(teamId, userId);
+    }
+
+    @Test
+    @DisplayName("2 - a non-member SUBSCRIBE is rejected")
+    void t02_preSend_rejectsNonMember() {
+        givenProject();
+        when(teamAccessService.isMember(teamId, userId)).thenReturn(false);
+
+        assertThrows(TeamException.class, () ->
+                interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/" + projectId, "sub-1"), channel));
+    }
+
+    @Test
+    @DisplayName("3 - removing the user from the team unsubscribes their chat subscriptions")
+    @SuppressWarnings("unchecked")
+    void t03_membershipChange_revokesSubscriptions() {
+        ArgumentCaptor<Consumer<UUID>> listener = ArgumentCaptor.forClass(Consumer.class);
+        ReflectionTestUtils.invokeMethod(interceptor, "init");
+        verify(teamAccessService).addInvalidationListener(listener.capture());
+
+        givenProject();
+        when(teamAccessService.isMember(teamId, userId)).thenReturn(true, false);
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        when(messagingTemplate.getObject()).thenReturn(template);
+
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/" + projectId, "sub-1"), channel);
+        listener.getValue().accept(teamId);
+
+        ArgumentCaptor<Message<?>> unsubscribe = ArgumentCaptor.forClass(Message.class);
+        verify(template).send(eq("/topic/chat/" + projectId), unsubscribe.capture());
+        assertEquals(SimpMessageType.UNSUBSCRIBE, SimpMessageHeaderAccessor.getMessageType(unsubscribe.getValue().getHeaders()));
+        assertEquals("sub-1", SimpMessageHeaderAccessor.getSubscriptionId(unsubscribe.getValue().getHeaders()));
+    }
+
+    private void givenProject() {
+        Project project = Project.builder().id(projectId).teamId(teamId).name("Apollo").build();
+        when(projectRepository.findById(any())).thenReturn(Optional.of(project));
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("s1");
+        accessor.setDestination(destination);
+        accessor.setSessionAttributes(sessionAttributes);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        User user = User.builder().id(userId).username("alice").build();
+        accessor.setUser(new UsernamePasswordAuthenticationToken(new CustomUserDetails(user), null, List.of()));
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
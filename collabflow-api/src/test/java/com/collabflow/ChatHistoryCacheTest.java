@@ -0,0 +1,145 @@
+package com.collabflow;
+
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
+import com.collabflow.domain.chat.service.ChatHistoryCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatHistoryCacheTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Mock private StringRedisTemplate redis;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+    @Mock private ListOperations<String, String> listOperations;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final UUID projectId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ChatHistoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatHistoryCache(redis, listenerContainer, objectMapper);
+        ReflectionTestUtils.setField(cache, "capacity", 3);
+        ReflectionTestUtils.setField(cache, "localMaxProjects", 100L);
+        ReflectionTestUtils.setField(cache, "localTtlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "redisTtlSeconds", 3600L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+
+        when(redis.opsForList()).thenReturn(listOperations);
+        when(listOperations.range(anyString(), anyLong(), anyLong())).thenReturn(List.of());
+        when(redis.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("1 - history is loaded once, then served and kept current from the ring")
+    void t01_latest_servesFromRingAfterWarmup() {
+        List<ChatMessageResponse> stored = new ArrayList<>(List.of(message(1), message(2)));
+
+        assertEquals(2, cache.latest(projectId, 10, loader(stored)).size());
+
+        ChatMessageResponse third = message(3);
+        cache.append(third);
+        List<ChatMessageResponse> latest = cache.latest(projectId, 10, loader(stored));
+
+        assertEquals(1, loads.get());
+        assertEquals(3, latest.size());
+        assertEquals(third.getId(), latest.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("2 - once the ring is full it drops the oldest and no longer answers larger windows")
+    void t02_latest_fallsBackWhenWindowExceedsRing() {
+        List<ChatMessageResponse> stored = new ArrayList<>(List.of(message(1), message(2)));
+        cache.latest(projectId, 2, loader(stored));
+
+        cache.append(message(3));
+        cache.append(message(4));
+
+        List<ChatMessageResponse> window = cache.latest(projectId, 3, loader(stored));
+        assertEquals(1, loads.get());
+        assertEquals(List.of(2L, 3L, 4L), window.stream().map(m -> m.getCreatedAt().getEpochSecond() - T0.getEpochSecond()).toList());
+
+        cache.latest(projectId, 4, loader(stored));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("3 - a warm-up keeps messages the loader missed, and fills Redis only for the generation it read first")
+    void t03_latest_warmupKeepsUnloadedAppends() throws Exception {
+        ChatMessageResponse unstored = message(2);
+        when(listOperations.range("chat:recent:appends:" + projectId, 0, -1))
+                .thenReturn(List.of(objectMapper.writeValueAsString(unstored)));
+        when(valueOperations.get("chat:recent:generation:" + projectId)).thenReturn("7");
+        ChatMessageResponse duringLoad = message(3);
+        List<ChatMessageResponse> stored = List.of(message(1));
+
+        List<ChatMessageResponse> latest = cache.latest(projectId, 10, () -> {
+            cache.append(duringLoad);
+            loads.incrementAndGet();
+            return stored;
+        });
+
+        assertEquals(List.of("m1", "m2", "m3"), latest.stream().map(ChatMessageResponse::getContent).toList());
+        assertEquals(latest, cache.latest(projectId, 10, loader(stored)));
+        assertEquals(1, loads.get());
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redis).execute(any(RedisScript.class),
+                eq(List.of("chat:recent:" + projectId, "chat:recent:generation:" + projectId)), args.capture());
+        // The append during loading bumped the generation in Redis, so this fill is rejected there
+        assertEquals("7", args.getValue()[0]);
+        assertEquals(4, args.getValue().length);
+    }
+
+    private Supplier<List<ChatMessageResponse>> loader(List<ChatMessageResponse> stored) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.copyOf(stored);
+        };
+    }
+
+    private ChatMessageResponse message(int second) {
+        return ChatMessageResponse.builder()
+                .id(UUID.randomUUID())
+                .projectId(projectId)
+                .senderId(UUID.randomUUID())
+                .senderUsername("alice")
+                .content("m" + second)
+                .createdAt(T0.plusSeconds(second))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.collabflow;
+
+import com.collabflow.domain.chat.dto.ChatHistoryCursor;
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
+import com.collabflow.domain.chat.exception.ChatException;
+import com.collabflow.domain.chat.mapper.ChatMessageMapper;
+import com.collabflow.domain.chat.repository.ChatMessageRepository;
+import com.collabflow.domain.chat.service.ChatHistoryCache;
+import com.collabflow.domain.chat.service.ChatService;
+import com.collabflow.domain.chat.service.ChatWriteBehindWriter;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
+import com.collabflow.events.publisher.DomainEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatServiceTest {
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TeamAccessService teamAccessService;
+
+    @Mock
+    private ChatMessageMapper mapper;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
+    @Mock
+    private ObjectProvider<ChatWriteBehindWriter> writeBehindWriter;
+
+    @Mock
+    private ChatHistoryCache historyCache;
+
+    @InjectMocks
+    private ChatService chatService;
+
+    @Test
+    @DisplayName("1 - getMessagesBefore pages by the (createdAt, id) cursor and returns oldest-first")
+    void t01_getMessagesBefore_keysetPageOldestFirst() {
+        UUID projectId = UUID.randomUUID();
+        UUID teamId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        ChatHistoryCursor cursor = ChatHistoryCursor.parse("2026-03-01T10:00:00.123456Z," + UUID.randomUUID());
+
+        ChatMessageResponse newer = ChatMessageResponse.builder().id(UUID.randomUUID()).createdAt(Instant.parse("2026-03-01T09:59:00Z")).build();
+        ChatMessageResponse older = ChatMessageResponse.builder().id(UUID.randomUUID()).createdAt(Instant.parse("2026-03-01T09:58:00Z")).build();
+
+        when(projectRepository.findById(projectId))
+                .thenReturn(Optional.of(Project.builder().id(projectId).teamId(teamId).build()));
+        when(teamAccessService.isMember(teamId, userId)).thenReturn(true);
+        when(chatMessageRepository.findPageBefore(eq(projectId), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(List.of(newer, older));
+
+        List<ChatMessageResponse> page = chatService.getMessagesBefore(projectId, userId, cursor, 20);
+
+        assertEquals(List.of(older.getId(), newer.getId()), page.stream().map(ChatMessageResponse::getId).toList());
+        assertEquals(ChatHistoryCursor.of(older), ChatHistoryCursor.parse(ChatHistoryCursor.of(older).toString()));
+    }
+
+    @Test
+    @DisplayName("2 - a malformed history cursor is rejected")
+    void t02_parse_rejectsMalformedCursor() {
+        assertThrows(ChatException.class, () -> ChatHistoryCursor.parse("yesterday"));
+        assertThrows(ChatException.class, () -> ChatHistoryCursor.parse("2026-03-01T10:00:00Z,not-a-uuid"));
+    }
+}
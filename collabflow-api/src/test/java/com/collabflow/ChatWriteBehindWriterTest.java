@@ -0,0 +1,156 @@
+package com.collabflow;
+
+import com.collabflow.domain.chat.dto.ChatMessageAck;
+import com.collabflow.domain.chat.dto.ChatMessageResponse;
+import com.collabflow.domain.chat.service.ChatHistoryCache;
+import com.collabflow.domain.chat.service.ChatWriteBehindWriter;
+import com.collabflow.domain.chat.service.ChatWriteBehindWriter.PendingChatMessage;
+import com.collabflow.domain.common.id.TimeOrderedIds;
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.publisher.DomainEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ChatWriteBehindWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private DomainEventPublisher domainEventPublisher;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private ChatHistoryCache historyCache;
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID teamId = UUID.randomUUID();
+
+    private ChatWriteBehindWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new ChatWriteBehindWriter(jdbcTemplate, transactionManager, domainEventPublisher, messagingTemplate,
+                historyCache, new SimpleMeterRegistry(), 1, 100, 50, 10, 1);
+    }
+
+    @Test
+    @DisplayName("1 - queued messages are stored in accept order with one insert and acknowledged to the sender")
+    void t01_flush_batchesInOrderAndAcks() {
+        ChatMessageResponse first = message("first");
+        ChatMessageResponse second = message("second");
+        writer.enqueue(new PendingChatMessage(first, teamId));
+        writer.enqueue(new PendingChatMessage(second, teamId));
+
+        ReflectionTestUtils.invokeMethod(writer, "start");
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains("ON CONFLICT (id) DO NOTHING"));
+        assertEquals(first.getId(), args.getValue()[0]);
+        assertEquals(second.getId(), args.getValue()[5]);
+
+        verify(domainEventPublisher, times(2)).publish(any(DomainEvent.class));
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice"), anyString(), any(ChatMessageAck.class));
+    }
+
+    @Test
+    @DisplayName("2 - time-ordered ids sort in creation order")
+    void t02_timeOrderedIds_areMonotonic() {
+        UUID previous = TimeOrderedIds.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = TimeOrderedIds.next();
+            assertEquals(7, next.version());
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("3 - submitted messages are broadcast in queue order and acknowledged only after their broadcast")
+    void t03_submit_broadcastsBeforeAck() throws Exception {
+        List<UUID> broadcast = new CopyOnWriteArrayList<>();
+        List<UUID> acked = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            UUID id = invocation.<ChatMessageAck>getArgument(2).getId();
+            // Every ack finds its message already broadcast
+            assertTrue(broadcast.contains(id));
+            acked.add(id);
+            return null;
+        }).when(messagingTemplate).convertAndSendToUser(eq("alice"), anyString(), any(ChatMessageAck.class));
+        ReflectionTestUtils.invokeMethod(writer, "start");
+
+        ExecutorService senders = Executors.newFixedThreadPool(4);
+        List<Future<ChatMessageResponse>> accepted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String content = "m" + i;
+            accepted.add(senders.submit(() -> writer.submit(projectId,
+                    () -> new PendingChatMessage(message(content), teamId),
+                    response -> {
+                        // A slow broadcast must still go out before the lane acknowledges
+                        sleep(5);
+                        broadcast.add(response.getId());
+                    })));
+        }
+        for (Future<ChatMessageResponse> future : accepted) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        senders.shutdown();
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+
+        // Broadcast order is id order, which is the order the rows are inserted and sorted by
+        List<UUID> sorted = new ArrayList<>(broadcast);
+        sorted.sort(Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned));
+        assertEquals(sorted, broadcast);
+        assertEquals(sorted, acked);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ChatMessageResponse message(String content) {
+        return ChatMessageResponse.builder()
+                .id(TimeOrderedIds.next())
+                .projectId(projectId)
+                .senderId(UUID.randomUUID())
+                .senderUsername("alice")
+                .content(content)
+                .createdAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+}
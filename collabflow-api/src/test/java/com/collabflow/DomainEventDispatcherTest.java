@@ -0,0 +1,116 @@
+package com.collabflow;
+
+import com.collabflow.events.dispatch.DomainEventDispatcher;
+import com.collabflow.events.dispatch.DomainEventHandler;
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.model.DomainEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DomainEventDispatcherTest {
+
+    private static final String TOPIC = "collabflow.system-events";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private KafkaTemplate<String, DomainEvent> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> handled = new CopyOnWriteArrayList<>();
+
+    private DomainEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        DomainEventHandler healthy = handler("healthy", records -> records.forEach(r -> handled.add(r.value().getEventId())));
+        DomainEventHandler broken = handler("broken", records -> {
+            throw new IllegalStateException("boom");
+        });
+
+        dispatcher = new DomainEventDispatcher(
+                List.of(healthy, broken), jdbcTemplate, kafkaTemplate, transactionManager, new SimpleMeterRegistry(), 0, 8);
+        ReflectionTestUtils.setField(dispatcher, "deadLetterTopic", TOPIC + ".dlq");
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 1);
+        ReflectionTestUtils.setField(dispatcher, "backOffMs", 0L);
+    }
+
+    @Test
+    @DisplayName("1 - a failing handler is dead-lettered without blocking the others")
+    @SuppressWarnings("unchecked")
+    void t01_dispatch_isolatesFailingHandler() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        DomainEvent first = event();
+        DomainEvent second = event();
+        dispatcher.dispatch(List.of(record(0, first), record(1, second)));
+
+        assertEquals(List.of(first.getEventId(), second.getEventId()), handled);
+
+        ArgumentCaptor<ProducerRecord<String, DomainEvent>> deadLetters = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(deadLetters.capture());
+        for (ProducerRecord<String, DomainEvent> deadLetter : deadLetters.getAllValues()) {
+            assertEquals(TOPIC + ".dlq", deadLetter.topic());
+            assertEquals("broken", new String(
+                    deadLetter.headers().lastHeader(DomainEventDispatcher.HANDLER_HEADER).value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static DomainEventHandler handler(String name, Consumer<List<ConsumerRecord<String, DomainEvent>>> body) {
+        return new DomainEventHandler() {
+            @Override
+            public String handlerName() {
+                return name;
+            }
+
+            @Override
+            public void handleBatch(List<ConsumerRecord<String, DomainEvent>> records) {
+                body.accept(records);
+            }
+        };
+    }
+
+    private static ConsumerRecord<String, DomainEvent> record(long offset, DomainEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, event.getAggregateId().toString(), event);
+    }
+
+    private static DomainEvent event() {
+        return DomainEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(DomainEventType.TASK_UPDATED)
+                .occurredAt(Instant.now())
+                .aggregateType("Task")
+                .aggregateId(UUID.randomUUID())
+                .build();
+    }
+}
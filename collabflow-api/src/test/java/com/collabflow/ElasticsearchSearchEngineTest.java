@@ -0,0 +1,143 @@
+package com.collabflow;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import com.collabflow.domain.search.dto.SearchCursor;
+import com.collabflow.domain.search.dto.SearchFacetBucketResponse;
+import com.collabflow.domain.search.dto.SearchFilters;
+import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import com.collabflow.domain.search.service.ElasticsearchSearchEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchSearchEngineTest {
+
+    @Mock private ElasticsearchOperations operations;
+    @Mock private SearchHits<WorkItemDocument> hits;
+    @Mock private SearchHits<WorkItemDocument> lastPage;
+
+    @InjectMocks private ElasticsearchSearchEngine engine;
+
+    @Test
+    @DisplayName("1 - facet filters go into the bool query and facets come back from the same search")
+    void t01_search_filtersAndFacets() {
+        Aggregate types = Aggregate.of(a -> a.sterms(StringTermsAggregate.of(t -> t
+                .buckets(b -> b.array(List.of(StringTermsBucket.of(x -> x.key("task").docCount(3))))))));
+        Aggregate completed = Aggregate.of(a -> a.lterms(LongTermsAggregate.of(t -> t
+                .buckets(b -> b.array(List.of(LongTermsBucket.of(x -> x.key(0).keyAsString("false").docCount(2))))))));
+        Aggregate priority = Aggregate.of(a -> a.lterms(LongTermsAggregate.of(t -> t
+                .buckets(b -> b.array(List.of(LongTermsBucket.of(x -> x.key(4).docCount(1))))))));
+        when(hits.getSearchHits()).thenReturn(List.of());
+        doReturn(new ElasticsearchAggregations(Map.of("resourceType", types, "completed", completed, "priority", priority)))
+                .when(hits).getAggregations();
+        when(operations.search(any(Query.class), eq(WorkItemDocument.class), any(IndexCoordinates.class))).thenReturn(hits);
+
+        SearchFilters filters = SearchFilters.of(null, List.of(4), false, List.of("Alice"), null);
+        SearchResponse response = engine.search(UUID.randomUUID(), "bug", filters, null, 20, true);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(operations).search(query.capture(), eq(WorkItemDocument.class), any(IndexCoordinates.class));
+        NativeQuery nativeQuery = (NativeQuery) query.getValue();
+        String bool = nativeQuery.getQuery().toString();
+        assertTrue(bool.contains("\"priority\""));
+        assertTrue(bool.contains("\"alice\""));
+        assertTrue(bool.contains("\"completed\":{\"value\":false}"));
+        assertEquals(5, nativeQuery.getAggregations().size());
+
+        Map<String, List<SearchFacetBucketResponse>> facets = response.getFacets();
+        assertEquals(List.of("resourceType", "priority", "completed", "assignees", "projectId"), List.copyOf(facets.keySet()));
+        assertEquals("task", facets.get("resourceType").get(0).getValue());
+        assertEquals(3, facets.get("resourceType").get(0).getCount());
+        assertEquals("4", facets.get("priority").get(0).getValue());
+        assertEquals("false", facets.get("completed").get(0).getValue());
+        assertTrue(facets.get("assignees").isEmpty());
+    }
+
+    @Test
+    @DisplayName("2 - the first page holds no point-in-time, the next page opens one and reads after its last hit, the last page closes it")
+    void t02_search_pagesWithSearchAfterAndPointInTime() {
+        SearchHit<WorkItemDocument> hit = mock(SearchHit.class);
+        when(hit.getContent()).thenReturn(WorkItemDocument.builder().id("task:1").resourceType("task").build());
+        when(hit.getSortValues()).thenReturn(List.of(1700000000000L, Long.MIN_VALUE, "1"));
+        when(hits.getSearchHits()).thenReturn(List.of(hit));
+        when(hits.getTotalHits()).thenReturn(2L);
+        when(operations.search(any(Query.class), eq(WorkItemDocument.class), any(IndexCoordinates.class))).thenReturn(hits, lastPage);
+        when(lastPage.getSearchHits()).thenReturn(List.of());
+        when(lastPage.getPointInTimeId()).thenReturn("pit-2");
+        UUID teamId = UUID.randomUUID();
+
+        SearchResponse first = engine.search(teamId, "", SearchFilters.NONE, null, 1, false);
+        SearchCursor cursor = SearchCursor.parse(first.getNextCursor());
+        // First pages are cached and shared within the team, so they must not carry one
+        assertNull(cursor.pointInTimeId());
+        verify(operations, never()).openPointInTime(any(IndexCoordinates.class), any(Duration.class));
+        assertEquals(List.of(1700000000000L, Long.MIN_VALUE, "1"), cursor.searchAfter());
+        when(operations.openPointInTime(any(IndexCoordinates.class), any(Duration.class))).thenReturn("pit-1");
+
+        SearchResponse second = engine.search(teamId, "", SearchFilters.NONE, cursor, 1, false);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(operations, times(2)).search(query.capture(), eq(WorkItemDocument.class), any(IndexCoordinates.class));
+        Query next = query.getAllValues().get(1);
+        assertEquals("pit-1", next.getPointInTime().id());
+        assertEquals(List.of(1700000000000L, Long.MIN_VALUE, "1", Long.MAX_VALUE), next.getSearchAfter());
+        assertEquals(2, second.getTotal());
+        assertNull(second.getNextCursor());
+        verify(operations).closePointInTime("pit-2");
+    }
+
+    @Test
+    @DisplayName("3 - activity indices are only searched when activity can be among the results")
+    void t03_search_readsActivityIndicesOnlyWhenNeeded() {
+        when(hits.getSearchHits()).thenReturn(List.of());
+        when(operations.search(any(Query.class), eq(WorkItemDocument.class), any(IndexCoordinates.class))).thenReturn(hits);
+        UUID teamId = UUID.randomUUID();
+
+        engine.search(teamId, "bug", SearchFilters.NONE, null, 20, false);
+        engine.search(teamId, "bug", SearchFilters.of(List.of("task", "project"), null, null, null, null), null, 20, false);
+        engine.search(teamId, "bug", SearchFilters.of(null, null, false, null, null), null, 20, false);
+
+        ArgumentCaptor<IndexCoordinates> indices = ArgumentCaptor.forClass(IndexCoordinates.class);
+        verify(operations, times(3)).search(any(Query.class), eq(WorkItemDocument.class), indices.capture());
+        assertArrayEquals(new String[]{"collabflow-work-items", "collabflow-activity-*"},
+                indices.getAllValues().get(0).getIndexNames());
+        assertArrayEquals(new String[]{"collabflow-work-items"}, indices.getAllValues().get(1).getIndexNames());
+        // Completion filters only match tasks
+        assertArrayEquals(new String[]{"collabflow-work-items"}, indices.getAllValues().get(2).getIndexNames());
+    }
+}
@@ -0,0 +1,103 @@
+package com.collabflow;
+
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.model.DomainEventType;
+import com.collabflow.events.publisher.EventCoalescer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCoalescerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:10Z");
+
+    private final EventCoalescer coalescer = new EventCoalescer(true, 2000, 10000, List.of(DomainEventType.TASK_UPDATED));
+
+    private final UUID taskId = UUID.randomUUID();
+    private final UUID actorId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("1 - a burst of updates past its window is merged into one event with all payload keys")
+    void t01_plan_mergesClosedBurst() {
+        DomainEvent first = updated(actorId, Map.of("taskTitle", "Old", "description", "x"));
+        List<EventCoalescer.Pending> rows = List.of(
+                pending(1, first, NOW.minusSeconds(6)),
+                pending(2, updated(actorId, Map.of("taskTitle", "New")), NOW.minusSeconds(5)),
+                pending(3, updated(actorId, Map.of("dueDate", "2026-04-01")), NOW.minusSeconds(4))
+        );
+        EventCoalescer.Plan plan = coalescer.plan(rows, NOW);
+
+        assertEquals(1, plan.outgoing().size());
+        assertEquals(0, plan.heldRows());
+        EventCoalescer.Outgoing merged = plan.outgoing().get(0);
+        assertEquals(List.of(1L, 2L, 3L), merged.rowIds());
+        // Stable for the same group, distinct from every member and from a shorter group
+        assertEquals(merged.event().getEventId(), coalescer.plan(rows, NOW).outgoing().get(0).event().getEventId());
+        assertNotEquals(first.getEventId(), merged.event().getEventId());
+        assertNotEquals(merged.event().getEventId(),
+                coalescer.plan(rows.subList(0, 2), NOW).outgoing().get(0).event().getEventId());
+        assertEquals("New", merged.event().getPayload().get("taskTitle"));
+        assertEquals("x", merged.event().getPayload().get("description"));
+        assertEquals("2026-04-01", merged.event().getPayload().get("dueDate"));
+        assertEquals(3, EventCoalescer.weightOf(merged.event()));
+    }
+
+    @Test
+    @DisplayName("2 - a burst still inside its window is held back")
+    void t02_plan_holdsOpenBurst() {
+        EventCoalescer.Plan plan = coalescer.plan(List.of(
+                pending(1, updated(actorId, Map.of()), NOW.minusSeconds(3)),
+                pending(2, updated(actorId, Map.of()), NOW.minusMillis(500))
+        ), NOW);
+
+        assertTrue(plan.outgoing().isEmpty());
+        assertEquals(2, plan.heldRows());
+        assertEquals(Set.of(taskId), plan.heldAggregates());
+    }
+
+    @Test
+    @DisplayName("3 - another event for the aggregate closes the burst and keeps per-aggregate order")
+    void t03_plan_otherEventClosesBurst() {
+        DomainEvent moved = DomainEvent.builder()
+                .eventType(DomainEventType.TASK_MOVED)
+                .aggregateType("Task")
+                .aggregateId(taskId)
+                .actorId(actorId)
+                .build();
+
+        EventCoalescer.Plan plan = coalescer.plan(List.of(
+                pending(1, updated(actorId, Map.of()), NOW.minusMillis(300)),
+                pending(2, updated(actorId, Map.of()), NOW.minusMillis(200)),
+                pending(3, moved, NOW.minusMillis(100)),
+                pending(4, updated(UUID.randomUUID(), Map.of()), NOW.minusMillis(50))
+        ), NOW);
+
+        assertEquals(2, plan.outgoing().size());
+        assertEquals(List.of(1L, 2L), plan.outgoing().get(0).rowIds());
+        assertEquals(List.of(3L), plan.outgoing().get(1).rowIds());
+        assertEquals(1, plan.heldRows());
+    }
+
+    private DomainEvent updated(UUID actor, Map<String, Object> payload) {
+        return DomainEvent.builder()
+                .eventType(DomainEventType.TASK_UPDATED)
+                .aggregateType("Task")
+                .aggregateId(taskId)
+                .actorId(actor)
+                .payload(payload)
+                .build();
+    }
+
+    private static EventCoalescer.Pending pending(long rowId, DomainEvent event, Instant createdAt) {
+        return new EventCoalescer.Pending(rowId, "team", event, createdAt);
+    }
+}
@@ -0,0 +1,81 @@
+package com.collabflow;
+
+import com.collabflow.domain.common.ordering.FractionalRanker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FractionalRankerTest {
+
+    @Test
+    @DisplayName("1 - between handles list edges and midpoints")
+    void t01_between() {
+        assertEquals(1000.0, FractionalRanker.between(null, null));
+        assertEquals(0.0, FractionalRanker.between(null, 1000.0));
+        assertEquals(3000.0, FractionalRanker.between(2000.0, null));
+        assertEquals(1500.0, FractionalRanker.between(1000.0, 2000.0));
+    }
+
+    @Test
+    @DisplayName("2 - repeated inserts into one gap eventually ask for compaction, then run out of room")
+    void t02_gapExhaustion() {
+        double lower = 1000.0;
+        double upper = 2000.0;
+        boolean compactionRequested = false;
+
+        while (FractionalRanker.hasRoom(lower, upper)) {
+            compactionRequested |= FractionalRanker.shouldCompact(lower, upper);
+            upper = FractionalRanker.between(lower, upper);
+        }
+
+        assertTrue(compactionRequested);
+        assertFalse(FractionalRanker.hasRoom(lower, upper));
+    }
+
+    @Test
+    @DisplayName("3 - rerank of an already ordered list changes nothing")
+    void t03_rerank_noop() {
+        Map<Integer, Double> changes = FractionalRanker.rerank(List.of(1000.0, 2000.0, 3000.0));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("4 - rerank after a single drag rewrites only the dragged item")
+    void t04_rerank_singleMove() {
+        // Item at 4000 dragged between 1000 and 2000
+        Map<Integer, Double> changes = FractionalRanker.rerank(List.of(1000.0, 4000.0, 2000.0, 3000.0, 5000.0));
+
+        assertEquals(1, changes.size());
+        assertEquals(1500.0, changes.get(1));
+    }
+
+    @Test
+    @DisplayName("5 - rerank result is strictly increasing in the requested order")
+    void t05_rerank_reverse() {
+        List<Double> keys = Arrays.asList(5000.0, 4000.0, null, 3000.0, 2000.0, 1000.0);
+        Map<Integer, Double> changes = FractionalRanker.rerank(keys);
+
+        List<Double> result = new ArrayList<>(keys);
+        changes.forEach(result::set);
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1) < result.get(i), "not increasing at " + i + ": " + result);
+        }
+    }
+
+    @Test
+    @DisplayName("6 - rerank returns null when a gap has no room left")
+    void t06_rerank_noRoom() {
+        double lower = 1000.0;
+        double upper = Math.nextUp(lower);
+        assertNull(FractionalRanker.rerank(List.of(lower, 5000.0, upper)));
+    }
+}
@@ -4,6 +4,7 @@ import com.collabflow.domain.notification.dto.InAppNotificationResponse;
 import com.collabflow.domain.notification.model.InAppNotification;
 import com.collabflow.domain.notification.repository.InAppNotificationRepository;
 import com.collabflow.domain.notification.service.NotificationService;
+import com.collabflow.domain.notification.service.UnreadCountService;
 import com.collabflow.events.model.DomainEvent;
 import com.collabflow.events.model.DomainEventType;
 import org.junit.jupiter.api.DisplayName;
@@ -14,16 +15,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.sql.ResultSet;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,6 +47,12 @@ class NotificationServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -149,4 +165,72 @@ class NotificationServiceTest {
         verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq("/queue/notifications"), payloadCaptor.capture());
         assertEquals(notificationId, payloadCaptor.getValue().getId());
     }
+
+    @Test
+    @DisplayName("4 - fanOut pushes only the rows the insert actually returned")
+    void t04_fanOut_pushesOnlyInsertedRows() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        UUID notificationId = UUID.randomUUID();
+        UUID aliceId = UUID.randomUUID();
+        UUID bobId = UUID.randomUUID();
+
+        DomainEvent event = DomainEvent.builder()
+                .eventId(eventId)
+                .eventType(DomainEventType.TASK_CREATED)
+                .aggregateType("Task")
+                .aggregateId(UUID.randomUUID())
+                .build();
+
+        // bob already had this notification, so only alice's row comes back
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("id", UUID.class)).thenReturn(notificationId);
+        when(row.getObject("recipient_id", UUID.class)).thenReturn(aliceId);
+        when(row.getString("recipient_username")).thenReturn("alice");
+        doAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), any(Object[].class));
+
+        List<InAppNotificationResponse> result = notificationService.fanOut(
+                List.of(new NotificationService.Recipient(aliceId, "alice"), new NotificationService.Recipient(bobId, "bob")),
+                event,
+                "Task Created",
+                "Someone created a task",
+                "/teams/t1/projects/p1/workspace"
+        );
+
+        assertEquals(1, result.size());
+        assertEquals(notificationId, result.get(0).getId());
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq("/queue/notifications"), any(InAppNotificationResponse.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("bob"), any(), any());
+        verify(inAppNotificationRepository, never()).save(any(InAppNotification.class));
+        verify(unreadCountService).incrementAfterCommit(Map.of(aliceId, "alice"));
+    }
+
+    @Test
+    @DisplayName("5 - markRead decrements the unread counter only when the notification was unread")
+    void t05_markRead_decrementsUnreadCounter() {
+        UUID recipientId = UUID.randomUUID();
+        UUID notificationId = UUID.randomUUID();
+
+        InAppNotification unread = InAppNotification.builder()
+                .id(notificationId)
+                .eventId(UUID.randomUUID())
+                .eventType(DomainEventType.TASK_MOVED)
+                .recipientId(recipientId)
+                .recipientUsername("alice")
+                .title("Task Moved")
+                .message("Task moved")
+                .isRead(false)
+                .createdAt(Instant.now())
+                .build();
+
+        when(inAppNotificationRepository.findByIdAndRecipientId(notificationId, recipientId))
+                .thenReturn(Optional.of(unread));
+        when(inAppNotificationRepository.save(any(InAppNotification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InAppNotificationResponse first = notificationService.markRead(recipientId, notificationId);
+        notificationService.markRead(recipientId, notificationId);
+
+        assertEquals(true, first.isRead());
+        verify(unreadCountService).decrementAfterCommit(recipientId, "alice");
+    }
 }
@@ -0,0 +1,75 @@
+package com.collabflow;
+
+import com.collabflow.config.OutboundSessionLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundSessionLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    @Test
+    @DisplayName("1 - drop policy drops messages past the per-session limit until the backlog drains")
+    void t01_dropPolicy_dropsPastLimit() throws Exception {
+        OutboundSessionLimiter limiter = connected(new OutboundSessionLimiter(2, "drop", meterRegistry));
+
+        Message<?> first = limiter.preSend(message(SimpMessageType.MESSAGE), channel);
+        assertNotNull(first);
+        assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+        assertNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+        // Protocol frames are never dropped
+        assertNotNull(limiter.preSend(message(SimpMessageType.HEARTBEAT), channel));
+
+        limiter.afterMessageHandled(first, channel, handler, null);
+        limiter.afterMessageHandled(first, channel, handler, null);
+        assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+
+        assertEquals(1.0, meterRegistry.get("collabflow.websocket.outbound.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("2 - disconnect policy closes the slow session once")
+    void t02_disconnectPolicy_closesSession() throws Exception {
+        OutboundSessionLimiter limiter = connected(new OutboundSessionLimiter(1, "disconnect", meterRegistry));
+
+        assertNotNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+        assertNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+        assertNull(limiter.preSend(message(SimpMessageType.MESSAGE), channel));
+
+        verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.get("collabflow.websocket.outbound.disconnected").counter().count());
+    }
+
+    private OutboundSessionLimiter connected(OutboundSessionLimiter limiter) throws Exception {
+        when(session.getId()).thenReturn("s1");
+        limiter.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+        return limiter;
+    }
+
+    private Message<byte[]> message(SimpMessageType type) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId("s1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
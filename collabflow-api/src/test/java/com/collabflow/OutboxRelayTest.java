@@ -0,0 +1,244 @@
+package com.collabflow;
+
+import com.collabflow.events.model.DomainEvent;
+import com.collabflow.events.model.DomainEventType;
+import com.collabflow.events.publisher.EventCoalescer;
+import com.collabflow.events.publisher.OutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_events'))";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(jdbcTemplate, kafkaTemplate, objectMapper, transactionManager,
+                new EventCoalescer(false, 2000, 10000, List.of()), meterRegistry);
+        ReflectionTestUtils.setField(relay, "systemEventsTopic", "events");
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerPoll", 20);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 100L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+    }
+
+    @Test
+    @DisplayName("1 - a node that cannot take the relay lock leaves the outbox to the node that holds it")
+    void t01_relay_skipsWhenAnotherNodeRelays() {
+        when(jdbcTemplate.queryForObject(LOCK, Boolean.class)).thenReturn(false);
+
+        relay.relay();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("2 - acknowledged rows are deleted, failed and timed out rows are retried and parked at max attempts")
+    @SuppressWarnings("unchecked")
+    void t02_relay_deletesPublishedAndParksFailures() throws Exception {
+        when(jdbcTemplate.queryForObject(LOCK, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> rows = new ArrayList<>();
+            for (long id = 1; id <= 3; id++) {
+                rows.add(mapper.mapRow(row(id, event()), (int) id - 1));
+            }
+            return rows;
+        });
+        when(kafkaTemplate.send(eq("events"), anyString(), any(DomainEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                // Never acknowledged: bounded by the batch deadline
+                .thenReturn(new CompletableFuture<>());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}});
+
+        relay.relay();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object>> args = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(sql.capture(), args.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("DELETE FROM outbox_events WHERE id = ?", sql.getAllValues().get(0));
+        assertEquals(List.of(1L), List.copyOf(args.getAllValues().get(0)));
+        assertEquals(List.of(2L, 3L), args.getAllValues().get(1).stream().map(candidate -> ((Object[]) candidate)[0]).toList());
+
+        ArgumentCaptor<List<Object[]>> failures = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?"), failures.capture());
+        assertEquals(List.of(2L, 3L), failures.getValue().stream().map(failure -> failure[1]).toList());
+        assertEquals(1.0, meterRegistry.counter("collabflow.outbox.parked").count());
+        // Rows are not row-locked while the sends are awaited
+        ArgumentCaptor<String> select = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(select.capture(), any(RowMapper.class), any(Object[].class));
+        assertFalse(select.getValue().contains("FOR UPDATE"));
+    }
+
+    @Test
+    @DisplayName("3 - a held group at the head does not stop the poll, but holds back later events of its aggregate")
+    @SuppressWarnings("unchecked")
+    void t03_relay_drainsPastHeldGroup() throws Exception {
+        relay = new OutboxRelay(jdbcTemplate, kafkaTemplate, objectMapper, transactionManager,
+                new EventCoalescer(true, 2000, 10000, List.of(DomainEventType.TASK_UPDATED)), meterRegistry);
+        ReflectionTestUtils.setField(relay, "systemEventsTopic", "events");
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerPoll", 20);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 100L);
+
+        UUID held = UUID.randomUUID();
+        UUID actor = UUID.randomUUID();
+        DomainEvent other = event();
+        List<List<DomainEvent>> batches = List.of(
+                List.of(updated(held, actor), updated(held, actor)),
+                List.of(moved(held, actor), other),
+                List.of());
+        when(jdbcTemplate.queryForObject(LOCK, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            long afterId = (Long) invocation.getArgument(2);
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> rows = new ArrayList<>();
+            List<DomainEvent> events = batches.get((int) afterId / 2);
+            for (int i = 0; i < events.size(); i++) {
+                rows.add(mapper.mapRow(row(afterId + i + 1, events.get(i)), i));
+            }
+            return rows;
+        });
+        when(kafkaTemplate.send(eq("events"), anyString(), any(DomainEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relay();
+
+        // Only the unrelated event leaves; the move waits for the held updates it follows
+        ArgumentCaptor<DomainEvent> sent = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(kafkaTemplate).send(eq("events"), anyString(), sent.capture());
+        assertEquals(other.getEventId(), sent.getValue().getEventId());
+        ArgumentCaptor<Collection<Object>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM outbox_events WHERE id = ?"), deleted.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(4L), List.copyOf(deleted.getValue()));
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("4 - after a failed send the later events of that aggregate stay in the outbox instead of overtaking it")
+    @SuppressWarnings("unchecked")
+    void t04_relay_keepsAggregateOrderAfterFailure() throws Exception {
+        UUID taskId = UUID.randomUUID();
+        UUID actor = UUID.randomUUID();
+        DomainEvent head = updated(taskId, actor);
+        List<DomainEvent> events = List.of(head, moved(taskId, actor), event());
+        when(jdbcTemplate.queryForObject(LOCK, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> rows = new ArrayList<>();
+            for (int i = 0; i < events.size(); i++) {
+                rows.add(mapper.mapRow(row(i + 1, events.get(i)), i));
+            }
+            return rows;
+        });
+        when(kafkaTemplate.send(eq("events"), anyString(), any(DomainEvent.class))).thenAnswer(invocation ->
+                head.getEventId().equals(((DomainEvent) invocation.getArgument(2)).getEventId())
+                        ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                        : CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0}});
+
+        relay.relay();
+
+        // The move is never handed to the producer, the unrelated event is
+        ArgumentCaptor<DomainEvent> sent = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(kafkaTemplate, times(2)).send(eq("events"), anyString(), sent.capture());
+        assertEquals(List.of(head.getEventId(), events.get(2).getEventId()),
+                sent.getAllValues().stream().map(DomainEvent::getEventId).toList());
+        ArgumentCaptor<Collection<Object>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM outbox_events WHERE id = ?"), deleted.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(3L), List.copyOf(deleted.getValue()));
+        // Only the failed event counts an attempt; the one kept behind it is not closer to parking
+        ArgumentCaptor<List<Object[]>> failures = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?"), failures.capture());
+        assertEquals(List.of(1L), failures.getValue().stream().map(failure -> failure[1]).toList());
+        assertEquals(1.0, meterRegistry.counter("collabflow.outbox.failed").count());
+    }
+
+    private ResultSet row(long id, DomainEvent event) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("message_key")).thenReturn(event.getAggregateId().toString());
+        when(rs.getString("payload")).thenReturn(objectMapper.writeValueAsString(event));
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.from(Instant.now()));
+        return rs;
+    }
+
+    private static DomainEvent updated(UUID taskId, UUID actorId) {
+        return DomainEvent.builder()
+                .eventType(DomainEventType.TASK_UPDATED)
+                .aggregateType("task")
+                .aggregateId(taskId)
+                .actorId(actorId)
+                .build();
+    }
+
+    private static DomainEvent moved(UUID taskId, UUID actorId) {
+        return DomainEvent.builder()
+                .eventType(DomainEventType.TASK_MOVED)
+                .aggregateType("task")
+                .aggregateId(taskId)
+                .actorId(actorId)
+                .build();
+    }
+
+    private static DomainEvent event() {
+        return DomainEvent.builder()
+                .eventType(DomainEventType.TASK_CREATED)
+                .aggregateType("task")
+                .aggregateId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.collabflow;
+
+import com.collabflow.domain.presence.service.PresenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    @Mock private StringRedisTemplate redis;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private SetOperations<String, String> setOperations;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    // In-memory stand-in for the keys the connect and disconnect scripts touch
+    private final Map<String, Set<String>> userSessions = new HashMap<>();
+    private final Map<String, Map<Object, Object>> nodeSessions = new HashMap<>();
+    private final Set<String> onlineKeys = new HashSet<>();
+    private final List<String> published = new ArrayList<>();
+
+    private final UUID userId = UUID.randomUUID();
+
+    private PresenceService service;
+    private MessageListener changeListener;
+
+    @BeforeEach
+    void setUp() {
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(redis.opsForSet()).thenReturn(setOperations);
+        service = service("node-a");
+
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(Topic.class));
+        changeListener = listener.getValue();
+    }
+
+    @Test
+    @DisplayName("1 - a user stays online until the last of their sessions closes, and only the transitions are published")
+    void t01_sessions_refCountedPerUser() {
+        whenScripts();
+        whenLookup();
+        when(redis.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.get(eq("presence:node-sessions:node-a"), anyString()))
+                .thenAnswer(invocation -> nodeSessions.get("presence:node-sessions:node-a").get(invocation.getArgument(1)));
+
+        service.markSessionOnline(userId, "s1");
+        service.markSessionOnline(userId, "s2");
+        assertTrue(service.isOnline(userId));
+
+        service.markSessionOffline("s1");
+        assertTrue(service.isOnline(userId));
+        // Closing the same session twice does not take the other one down with it
+        service.markSessionOffline("s1");
+        assertTrue(service.isOnline(userId));
+
+        service.markSessionOffline("s2");
+        assertFalse(service.isOnline(userId));
+        assertEquals(List.of(userId.toString(), userId.toString()), published);
+        assertTrue(nodeSessions.get("presence:node-sessions:node-a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("2 - the sessions of a node whose liveness key expired are reaped once, sessions elsewhere survive")
+    void t02_reapDeadNodes_removesDeadNodeSessions() {
+        whenScripts();
+        whenLookup();
+        when(redis.opsForHash()).thenReturn(hashOperations);
+        PresenceService deadNode = service("node-dead");
+        deadNode.markSessionOnline(userId, "s-dead");
+        UUID deadOnly = UUID.randomUUID();
+        deadNode.markSessionOnline(deadOnly, "s-dead-2");
+        service.markSessionOnline(userId, "s-live");
+
+        when(setOperations.members("presence:nodes")).thenReturn(Set.of("node-a", "node-dead", "node-alive"));
+        when(redis.hasKey("presence:node:node-dead")).thenReturn(false);
+        when(redis.hasKey("presence:node:node-alive")).thenReturn(true);
+        when(valueOperations.setIfAbsent(eq("presence:reaper-lock:node-dead"), eq("node-a"), any(Duration.class))).thenReturn(true);
+        when(hashOperations.entries("presence:node-sessions:node-dead"))
+                .thenAnswer(invocation -> Map.copyOf(nodeSessions.get("presence:node-sessions:node-dead")));
+
+        service.reapDeadNodes();
+
+        assertEquals(Set.of("s-live"), userSessions.get("presence:user-sessions:" + userId));
+        assertEquals(Map.of(userId, true, deadOnly, false), service.getOnlineStatus(List.of(userId, deadOnly)));
+        verify(redis).delete("presence:node-sessions:node-dead");
+        verify(setOperations).remove("presence:nodes", "node-dead");
+        // Neither this node nor a live one is reaped
+        verify(redis, never()).hasKey("presence:node:node-a");
+        verify(valueOperations, never()).setIfAbsent(eq("presence:reaper-lock:node-alive"), anyString(), any(Duration.class));
+        verify(hashOperations, times(1)).entries(anyString());
+    }
+
+    @Test
+    @DisplayName("3 - lookups are served by the near-cache until a change notification evicts the user")
+    void t03_changeNotification_evictsNearCache() {
+        when(valueOperations.multiGet(anyList()))
+                .thenReturn(Collections.singletonList("online"))
+                .thenReturn(Collections.singletonList(null));
+
+        assertTrue(service.isOnline(userId));
+        assertTrue(service.isOnline(userId));
+        verify(valueOperations, times(1)).multiGet(anyList());
+
+        changeListener.onMessage(message("not-a-uuid"), null);
+        assertTrue(service.isOnline(userId));
+        changeListener.onMessage(message(userId.toString()), null);
+
+        assertFalse(service.isOnline(userId));
+        verify(valueOperations, times(2)).multiGet(List.of("presence:user:" + userId));
+    }
+
+    // ─── Internal helpers ─────────────────────────────────────────────
+
+    private PresenceService service(String nodeId) {
+        PresenceService presence = new PresenceService(redis, listenerContainer, nodeId);
+        ReflectionTestUtils.setField(presence, "sessionTtlSeconds", 120L);
+        ReflectionTestUtils.setField(presence, "refreshIntervalSeconds", 30L);
+        ReflectionTestUtils.setField(presence, "nodeTtlSeconds", 30L);
+        ReflectionTestUtils.setField(presence, "nearCacheTtlMillis", 60000L);
+        ReflectionTestUtils.setField(presence, "nearCacheMaxUsers", 100L);
+        ReflectionTestUtils.invokeMethod(presence, "init");
+        return presence;
+    }
+
+    private void whenScripts() {
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(this::runScript);
+    }
+
+    private void whenLookup() {
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            return keys.stream().map(key -> onlineKeys.contains(key) ? "online" : null).toList();
+        });
+    }
+
+    /** Applies the connect or disconnect script to the in-memory keys, as Redis would. */
+    private Long runScript(InvocationOnMock invocation) {
+        RedisScript<?> script = invocation.getArgument(0);
+        List<String> keys = invocation.getArgument(1);
+        Object[] args = (Object[]) invocation.getRawArguments()[2];
+        Set<String> sessions = userSessions.computeIfAbsent(keys.get(0), key -> new HashSet<>());
+        Map<Object, Object> owned = nodeSessions.computeIfAbsent(keys.get(2), key -> new HashMap<>());
+
+        if (script.getScriptAsString().contains("SADD")) {
+            sessions.add((String) args[1]);
+            owned.put(args[1], args[0]);
+            if (onlineKeys.add(keys.get(1))) {
+                published.add((String) args[0]);
+            }
+            return (long) sessions.size();
+        }
+        owned.remove(args[1]);
+        if (!sessions.remove((String) args[1])) {
+            return -1L;
+        }
+        if (sessions.isEmpty()) {
+            onlineKeys.remove(keys.get(1));
+            published.add((String) args[0]);
+        }
+        return (long) sessions.size();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("presence:changed".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package com.collabflow;
+
+import com.collabflow.config.LocalSubscriptionRegistry;
+import com.collabflow.config.RedisBrokerFanout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBrokerFanoutTest {
+
+    @Mock private StringRedisTemplate redis;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+    @Mock private LocalSubscriptionRegistry subscriptionRegistry;
+    @Mock private ObjectProvider<SimpUserRegistry> userRegistry;
+    @Mock private ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MessageChannel brokerChannel = mock(MessageChannel.class);
+
+    private RedisBrokerFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        fanout = new RedisBrokerFanout(
+                redis, listenerContainer, subscriptionRegistry, userRegistry, messagingTemplate, objectMapper);
+    }
+
+    @Test
+    @DisplayName("1 - a local /topic broadcast is published to the other nodes")
+    void t01_preSend_publishesLocalTopicMessage() {
+        fanout.preSend(message("/topic/chat/42", null), brokerChannel);
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redis).convertAndSend(eq("ws:fanout"), body.capture());
+        assertTrue(body.getValue().contains("\"destination\":\"/topic/chat/42\""));
+    }
+
+    @Test
+    @DisplayName("2 - messages relayed from another node and non-broadcast destinations are not re-published")
+    void t02_preSend_skipsRelayedAndQueueMessages() {
+        fanout.preSend(message("/topic/chat/42", "other-node"), brokerChannel);
+        fanout.preSend(message("/queue/notifications-user123", null), brokerChannel);
+
+        verify(redis, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("3 - a remote broadcast is delivered only when this node has a subscriber")
+    void t03_receive_filtersOnLocalSubscriptions() throws Exception {
+        ReflectionTestUtils.invokeMethod(fanout, "init");
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(Topic.class));
+
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        when(messagingTemplate.getObject()).thenReturn(template);
+        when(subscriptionRegistry.hasSubscribers("/topic/chat/42")).thenReturn(true);
+        when(subscriptionRegistry.hasSubscribers("/topic/chat/43")).thenReturn(false);
+
+        listener.getValue().onMessage(redisMessage("/topic/chat/42"), null);
+        listener.getValue().onMessage(redisMessage("/topic/chat/43"), null);
+
+        ArgumentCaptor<Message<?>> delivered = ArgumentCaptor.forClass(Message.class);
+        verify(template).send(delivered.capture());
+        assertEquals("/topic/chat/42", SimpMessageHeaderAccessor.getDestination(delivered.getValue().getHeaders()));
+        assertEquals("other-node", delivered.getValue().getHeaders().get("collabflow-relayed-from"));
+    }
+
+    private Message<byte[]> message(String destination, String relayedFrom) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (relayedFrom != null) {
+            accessor.setHeader("collabflow-relayed-from", relayedFrom);
+        }
+        return MessageBuilder.createMessage("{}".getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private DefaultMessage redisMessage(String destination) {
+        String body = """
+                {"origin":"other-node","destination":"%s","contentType":"application/json","payload":"e30="}
+                """.formatted(destination);
+        return new DefaultMessage("ws:fanout".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
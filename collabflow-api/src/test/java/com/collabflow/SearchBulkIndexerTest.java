@@ -0,0 +1,265 @@
+package com.collabflow;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import com.collabflow.domain.search.service.ActivityIndices;
+import com.collabflow.domain.search.service.SearchBulkIndexer;
+import com.collabflow.domain.search.service.SearchResultCache;
+import com.collabflow.domain.task.repository.TaskAssignmentRepository;
+import com.collabflow.domain.task.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchBulkIndexerTest {
+
+    @Mock private ElasticsearchOperations operations;
+    @Mock private ElasticsearchClient client;
+    @Mock private TaskRepository taskRepository;
+    @Mock private TaskAssignmentRepository assignmentRepository;
+    @Mock private ProjectRepository projectRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private StringRedisTemplate redis;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private SearchResultCache resultCache;
+    @Mock private ActivityIndices activityIndices;
+
+    private final MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+    private SimpleMeterRegistry meterRegistry;
+    private SearchBulkIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        converter.afterPropertiesSet();
+        meterRegistry = new SimpleMeterRegistry();
+        indexer = new SearchBulkIndexer(operations, client, taskRepository, assignmentRepository, projectRepository, transactionManager, redis,
+                resultCache, activityIndices, meterRegistry, "async", 100, 1000, 1000, 2, 5000);
+        when(redis.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("1 - repeated changes to a document are coalesced, and index and delete go in one bulk request")
+    void t01_flush_coalescesByDocumentId() throws Exception {
+        whenBulk();
+        indexer.index(project("project:1", "Draft"));
+        indexer.index(project("project:1", "Final"));
+        indexer.index(project("project:2", "Other"));
+        UUID deletedTeam = UUID.randomUUID();
+        indexer.delete("project:3", deletedTeam);
+
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client, times(1)).bulk(request.capture());
+        List<BulkOperation> operations = request.getValue().operations();
+        assertEquals(3, operations.size());
+        BulkOperation first = operations.stream()
+                .filter(operation -> operation.isIndex() && "project:1".equals(operation.index().id()))
+                .findFirst().orElseThrow();
+        assertEquals("Final", ((Document) first.index().document()).get("title"));
+        BulkOperation delete = operations.stream().filter(BulkOperation::isDelete).findFirst().orElseThrow();
+        assertEquals("project:3", delete.delete().id());
+        assertEquals("collabflow-work-items", delete.delete().index());
+        verify(this.operations, never()).delete(any(DeleteQuery.class), eq(WorkItemDocument.class));
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.coalesced").counter().count());
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.applied").tag("op", "delete").counter().count());
+
+        // Both indexed teams and the team of the deleted document have their cached results dropped
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> teams = ArgumentCaptor.forClass(Collection.class);
+        verify(resultCache).invalidate(teams.capture());
+        assertEquals(3, teams.getValue().size());
+        assertTrue(teams.getValue().contains(deletedTeam));
+    }
+
+    @Test
+    @DisplayName("2 - only the documents that failed in a bulk are retried, up to max-attempts")
+    void t02_flush_retriesFailedDocuments() throws Exception {
+        whenBulk("project:1");
+
+        indexer.index(project("project:1", "A"));
+        indexer.index(project("project:2", "B"));
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+        ArgumentCaptor<BulkRequest> requests = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client, times(2)).bulk(requests.capture());
+        assertEquals(List.of("project:1"), ids(requests.getAllValues().get(1)));
+
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.applied").tag("op", "index").counter().count());
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.retried").counter().count());
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("3 - while a rebuild is running every change is also written to the new index, in the same bulk")
+    void t03_flush_mirrorsIntoRebuiltIndex() throws Exception {
+        whenBulk();
+        when(valueOperations.get("search:reindex:mirror")).thenReturn("collabflow-work-items-v20260301000000");
+
+        indexer.index(project("project:1", "A"));
+        indexer.delete("project:2", UUID.randomUUID());
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client).bulk(request.capture());
+        List<BulkOperation> operations = request.getValue().operations();
+        // The live operations come first, then their copies for the new index
+        assertEquals(List.of("collabflow-work-items", "collabflow-work-items", "collabflow-work-items-v20260301000000",
+                "collabflow-work-items-v20260301000000"), operations.stream().map(SearchBulkIndexerTest::index).toList());
+        assertEquals(ids(request.getValue()).subList(0, 2), ids(request.getValue()).subList(2, 4));
+        assertEquals(2, operations.stream().filter(BulkOperation::isDelete).count());
+        // Mirror items answer for no queued change and are not counted as applied
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.applied").tag("op", "index").counter().count());
+    }
+
+    @Test
+    @DisplayName("4 - activity goes to its month's index in the same bulk and is not mirrored")
+    void t04_flush_routesActivityToMonthlyIndex() throws Exception {
+        whenBulk();
+        when(valueOperations.get("search:reindex:mirror")).thenReturn("collabflow-work-items-v20260301000000");
+        when(activityIndices.ensureTemplate()).thenReturn(true);
+
+        indexer.index(project("project:1", "A"));
+        indexer.index(WorkItemDocument.builder()
+                .id("activity:1")
+                .resourceType("activity")
+                .teamId(UUID.randomUUID().toString())
+                .occurredAt(Instant.parse("2026-02-28T23:59:59Z"))
+                .build());
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client).bulk(request.capture());
+        Map<String, List<String>> indicesById = new HashMap<>();
+        request.getValue().operations().forEach(operation ->
+                indicesById.computeIfAbsent(operation.index().id(), id -> new ArrayList<>()).add(index(operation)));
+        assertEquals(List.of("collabflow-activity-2026.02"), indicesById.get("activity:1"));
+        assertEquals(List.of("collabflow-work-items", "collabflow-work-items-v20260301000000"), indicesById.get("project:1"));
+    }
+
+    @Test
+    @DisplayName("5 - activity waits for the monthly index template instead of getting a guessed mapping")
+    void t05_flush_holdsActivityBackWithoutTemplate() throws Exception {
+        when(activityIndices.ensureTemplate()).thenReturn(false);
+
+        indexer.index(WorkItemDocument.builder()
+                .id("activity:1")
+                .resourceType("activity")
+                .teamId(UUID.randomUUID().toString())
+                .build());
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        verify(client, never()).bulk(any(BulkRequest.class));
+        assertEquals(1.0, meterRegistry.get("collabflow.search.index.retried").counter().count());
+    }
+
+    @Test
+    @DisplayName("6 - a queued project is built from its row at flush time, with the updated_at the trigger wrote")
+    void t06_flush_buildsProjectFromDatabase() throws Exception {
+        whenBulk();
+        Instant stored = Instant.parse("2026-03-01T10:00:00.123456Z");
+        Project project = Project.builder().id(UUID.randomUUID()).teamId(UUID.randomUUID()).name("Roadmap").build();
+        project.setUpdatedAt(stored);
+        Project removed = Project.builder().id(UUID.randomUUID()).teamId(UUID.randomUUID()).name("Old").build();
+        removed.setDeleted(true);
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project, removed));
+
+        indexer.indexProject(project.getId());
+        indexer.indexProject(removed.getId());
+        ReflectionTestUtils.invokeMethod(indexer, "flush");
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client).bulk(request.capture());
+        Map<Boolean, List<BulkOperation>> byType = request.getValue().operations().stream()
+                .collect(Collectors.partitioningBy(BulkOperation::isDelete));
+        Document document = (Document) byType.get(false).get(0).index().document();
+        assertEquals("project:" + project.getId(), byType.get(false).get(0).index().id());
+        // At the millisecond precision of the date_time mapping
+        assertEquals("2026-03-01T10:00:00.123Z", document.get("updatedAt"));
+        // A project deleted by the time of the flush is removed from the index instead
+        assertEquals("project:" + removed.getId(), byType.get(true).get(0).delete().id());
+    }
+
+    /** Answers every bulk request item by item; the listed ids fail with a 429. */
+    private void whenBulk(String... failing) throws Exception {
+        Set<String> failed = Set.of(failing);
+        when(operations.getElasticsearchConverter()).thenReturn(converter);
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            List<BulkResponseItem> items = request.operations().stream().map(operation -> BulkResponseItem.of(item -> {
+                String id = operation.isDelete() ? operation.delete().id() : operation.index().id();
+                item.operationType(operation.isDelete() ? OperationType.Delete : OperationType.Index)
+                        .index(index(operation))
+                        .id(id)
+                        .status(failed.contains(id) ? 429 : 200);
+                if (failed.contains(id)) {
+                    item.error(error -> error.type("es_rejected_execution_exception").reason("busy"));
+                }
+                return item;
+            })).toList();
+            return BulkResponse.of(response -> response.errors(!failed.isEmpty()).took(1).items(items));
+        });
+    }
+
+    private static String index(BulkOperation operation) {
+        return operation.isDelete() ? operation.delete().index() : operation.index().index();
+    }
+
+    private static List<String> ids(BulkRequest request) {
+        return request.operations().stream()
+                .map(operation -> operation.isDelete() ? operation.delete().id() : operation.index().id())
+                .toList();
+    }
+
+    private WorkItemDocument project(String id, String title) {
+        return WorkItemDocument.builder()
+                .id(id)
+                .resourceType("project")
+                .resourceId(UUID.randomUUID().toString())
+                .teamId(UUID.randomUUID().toString())
+                .title(title)
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.collabflow;
+
+import com.collabflow.domain.search.dto.ReindexStatusResponse;
+import com.collabflow.domain.search.model.WorkItemDocument;
+import com.collabflow.domain.search.service.ActivityIndices;
+import com.collabflow.domain.search.service.SearchBulkIndexer;
+import com.collabflow.domain.search.service.SearchReindexJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchReindexJobTest {
+
+    private static final String UNFINISHED = "collabflow-work-items-v20260301000000";
+
+    @Mock private ElasticsearchOperations operations;
+    @Mock private SearchBulkIndexer bulkIndexer;
+    @Mock private ActivityIndices activityIndices;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private IndexOperations indexOps;
+
+    private SearchReindexJob job;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        job = new SearchReindexJob(operations, bulkIndexer, activityIndices, jdbcTemplate, transactionManager,
+                new SimpleMeterRegistry(), 100, 10, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(job, "shutdown");
+    }
+
+    @Test
+    @DisplayName("1 - resume continues the unfinished rebuild from its checkpoints instead of starting over")
+    void t01_start_resumesFromCheckpoints() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(checkpointRow("project", 40));
+            handler.processRow(checkpointRow("task", 250));
+            handler.processRow(checkpointRow("activity", 7));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(operations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOps);
+        when(indexOps.exists()).thenReturn(true);
+        when(activityIndices.ensureTemplate()).thenReturn(true);
+        when(operations.delete(any(DeleteQuery.class), eq(WorkItemDocument.class), any(IndexCoordinates.class)))
+                .thenReturn(ByQueryResponse.builder().withDeleted(7).build());
+
+        ReindexStatusResponse started = job.start(true);
+
+        assertEquals(UNFINISHED, started.getTargetIndex());
+        assertEquals(Map.of("project", 40L, "task", 250L, "activity", 7L), started.getIndexed());
+        ReindexStatusResponse finished = awaitFinished();
+        assertEquals("completed", finished.getState());
+
+        verify(bulkIndexer).startMirroring(UNFINISHED);
+        // Neither recreated nor discarded, and the loaded sources are not read again
+        verify(indexOps, never()).create(any(), any());
+        verify(indexOps, never()).delete();
+        verify(transactionManager, never()).getTransaction(any());
+        verify(jdbcTemplate).update("DELETE FROM search_reindex_checkpoints WHERE target_index = ?", UNFINISHED);
+        // Activity from before the monthly indices is removed from the live index, not the new version
+        ArgumentCaptor<DeleteQuery> purge = ArgumentCaptor.forClass(DeleteQuery.class);
+        verify(operations).delete(purge.capture(), eq(WorkItemDocument.class), eq(IndexCoordinates.of("collabflow-work-items")));
+        assertTrue(((NativeQuery) purge.getValue().getQuery()).getQuery().toString().contains("\"activity\""));
+    }
+
+    @Test
+    @DisplayName("2 - documents the mirror already wrote (409) are not retried, other failures are")
+    void t02_bulkLoad_toleratesConflicts() {
+        IndexCoordinates target = IndexCoordinates.of(UNFINISHED);
+        when(operations.bulkIndex(anyList(), eq(target)))
+                .thenThrow(new BulkFailureException("partial", Map.of(
+                        "task:1", new BulkFailureException.FailureDetails(409, "version conflict"),
+                        "task:2", new BulkFailureException.FailureDetails(429, "busy"))))
+                .thenReturn(List.of());
+
+        ReflectionTestUtils.invokeMethod(job, "bulkLoad", List.of(task("task:1"), task("task:2"), task("task:3")), target);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IndexQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(operations, times(2)).bulkIndex(queries.capture(), eq(target));
+        assertEquals(List.of("task:2"), queries.getAllValues().get(1).stream().map(IndexQuery::getId).toList());
+        assertTrue(queries.getAllValues().get(0).stream().allMatch(query -> query.getOpType() == IndexQuery.OpType.CREATE));
+    }
+
+    @Test
+    @DisplayName("3 - the first swap replaces the index Spring Data created under the alias name")
+    void t03_swapAlias_firstSwapRemovesConcreteIndex() {
+        IndexOperations aliasOps = mock(IndexOperations.class);
+        IndexOperations versionOps = mock(IndexOperations.class);
+        IndexOperations staleOps = mock(IndexOperations.class);
+        when(operations.indexOps(IndexCoordinates.of("collabflow-work-items"))).thenReturn(aliasOps);
+        when(operations.indexOps(IndexCoordinates.of("collabflow-work-items-v*"))).thenReturn(versionOps);
+        when(operations.indexOps(IndexCoordinates.of("collabflow-work-items-v20250101000000"))).thenReturn(staleOps);
+        when(aliasOps.exists()).thenReturn(true);
+        when(aliasOps.getInformation()).thenReturn(List.of(IndexInformation.of("collabflow-work-items", null, null, List.of())));
+        when(versionOps.getInformation()).thenReturn(List.of(
+                IndexInformation.of(UNFINISHED, null, null, List.of()),
+                IndexInformation.of("collabflow-work-items-v20250101000000", null, null, List.of())));
+
+        ReflectionTestUtils.invokeMethod(job, "swapAlias", UNFINISHED);
+
+        ArgumentCaptor<AliasActions> actions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(aliasOps).alias(actions.capture());
+        List<AliasAction> list = actions.getValue().getActions();
+        assertEquals(2, list.size());
+        assertTrue(list.get(0) instanceof AliasAction.Add);
+        assertTrue(list.get(1) instanceof AliasAction.RemoveIndex);
+        assertEquals(List.of("collabflow-work-items"), List.of(list.get(1).getParameters().getIndices()));
+        // A version that is neither the new one nor the one it replaced is deleted
+        verify(staleOps).delete();
+    }
+
+    private ReindexStatusResponse awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReindexStatusResponse status = job.status();
+            if (status.getFinishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Reindex did not finish");
+    }
+
+    private static ResultSet checkpointRow(String source, long indexed) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("source")).thenReturn(source);
+        when(rs.getString("target_index")).thenReturn(UNFINISHED);
+        when(rs.getObject("last_id", UUID.class)).thenReturn(UUID.randomUUID());
+        when(rs.getLong("indexed")).thenReturn(indexed);
+        when(rs.getBoolean("completed")).thenReturn(true);
+        return rs;
+    }
+
+    private static WorkItemDocument task(String id) {
+        return WorkItemDocument.builder().id(id).resourceType("task").build();
+    }
+}
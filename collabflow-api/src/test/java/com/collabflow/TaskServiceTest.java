@@ -0,0 +1,134 @@
+package com.collabflow;
+
+import com.collabflow.domain.common.ordering.OrderCompactionScheduler;
+import com.collabflow.domain.project.model.Project;
+import com.collabflow.domain.project.repository.ProjectRepository;
+import com.collabflow.domain.search.service.SearchIndexService;
+import com.collabflow.domain.task.dto.TaskResponse;
+import com.collabflow.domain.task.mapper.TaskMapper;
+import com.collabflow.domain.task.model.Task;
+import com.collabflow.domain.task.repository.TaskAssignmentRepository;
+import com.collabflow.domain.task.repository.TaskRepository;
+import com.collabflow.domain.task.service.TaskService;
+import com.collabflow.domain.tasklist.model.TaskList;
+import com.collabflow.domain.tasklist.repository.TaskListRepository;
+import com.collabflow.domain.team.model.enums.TeamRole;
+import com.collabflow.domain.team.service.TeamAccessService;
+import com.collabflow.domain.user.model.User;
+import com.collabflow.domain.user.repository.UserRepository;
+import com.collabflow.events.publisher.DomainEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private TaskListRepository taskListRepository;
+    @Mock private ProjectRepository projectRepository;
+    @Mock private TeamAccessService teamAccessService;
+    @Mock private UserRepository userRepository;
+    @Mock private TaskAssignmentRepository assignmentRepository;
+    @Mock private TaskMapper mapper;
+    @Mock private DomainEventPublisher domainEventPublisher;
+    @Mock private SearchIndexService searchIndexService;
+    @Mock private OrderCompactionScheduler orderCompactionScheduler;
+
+    @InjectMocks private TaskService taskService;
+
+    private final User user = User.builder().id(UUID.randomUUID()).username("alice").build();
+    private Project project;
+    private TaskList list;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        project = Project.builder().id(UUID.randomUUID()).teamId(UUID.randomUUID()).build();
+        list = TaskList.builder().id(UUID.randomUUID()).project(project).name("Doing").build();
+        task = Task.builder().id(UUID.randomUUID()).project(project).taskList(list).title("Fix bug").position(5000.0).build();
+
+        when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        when(taskListRepository.findById(list.getId())).thenReturn(Optional.of(list));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        when(teamAccessService.roleOf(project.getTeamId(), user.getId())).thenReturn(Optional.of(TeamRole.MEMBER));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mapper.toResponse(any(Task.class))).thenReturn(new TaskResponse());
+    }
+
+    @Test
+    @DisplayName("1 - a free newPosition with room around it is used as given")
+    void t01_moveTask_freePositionKept() {
+        Task previous = Task.builder().id(UUID.randomUUID()).position(1000.0).build();
+        whenPrevious(1500.0, previous);
+        when(taskRepository.findNextPosition(list.getId(), 1500.0, task.getId())).thenReturn(Optional.of(2000.0));
+
+        taskService.moveTask(task.getId(), list.getId(), 1500.0, user);
+
+        assertEquals(1500.0, task.getPosition());
+        verify(orderCompactionScheduler, never()).schedule(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("2 - a newPosition that is already taken places the task after the task holding it")
+    void t02_moveTask_takenPositionGoesAfterHolder() {
+        Task holder = Task.builder().id(UUID.randomUUID()).position(1000.0).build();
+        whenPrevious(1000.0, holder);
+        when(taskRepository.findNextPosition(list.getId(), 1000.0, task.getId())).thenReturn(Optional.of(2000.0));
+        when(taskRepository.findPositionInList(holder.getId(), list.getId())).thenReturn(Optional.of(1000.0));
+
+        taskService.moveTask(task.getId(), list.getId(), 1000.0, user);
+
+        assertEquals(1500.0, task.getPosition());
+    }
+
+    @Test
+    @DisplayName("3 - a newPosition halved toward its neighbour schedules a compaction of the column")
+    void t03_moveTask_crowdedPositionSchedulesCompaction() {
+        whenPrevious(0.0004, null);
+        when(taskRepository.findNextPosition(list.getId(), 0.0004, task.getId())).thenReturn(Optional.of(0.0008));
+
+        taskService.moveTask(task.getId(), list.getId(), 0.0004, user);
+
+        assertEquals(0.0004, task.getPosition());
+        verify(orderCompactionScheduler).schedule(eq("tasks:" + list.getId()), any());
+    }
+
+    @Test
+    @DisplayName("4 - a gap without room renumbers the column in place, leaving the moving task to the move itself")
+    void t04_moveTask_noRoomCompactsWithoutMovingTask() {
+        Task holder = Task.builder().id(UUID.randomUUID()).position(1000.0).build();
+        whenPrevious(1000.0, holder);
+        when(taskRepository.findPositionInList(holder.getId(), list.getId())).thenReturn(Optional.of(1000.0));
+        when(taskRepository.findNextPosition(list.getId(), 1000.0, task.getId()))
+                .thenReturn(Optional.of(1000.0 + 1e-10))
+                .thenReturn(Optional.of(1000.0 + 1e-10))
+                .thenReturn(Optional.of(2000.0));
+
+        taskService.moveTask(task.getId(), list.getId(), 1000.0, user);
+
+        // Excluded, so its version is not bumped under the entity this transaction saves
+        verify(taskRepository).compactPositions(list.getId(), task.getId());
+        assertEquals(1500.0, task.getPosition());
+    }
+
+    private void whenPrevious(double position, Task previous) {
+        when(taskRepository.findFirstByTaskList_IdAndIsDeletedFalseAndPositionLessThanEqualAndIdNotOrderByPositionDescIdDesc(
+                eq(list.getId()), eq(position), eq(task.getId()))).thenReturn(Optional.ofNullable(previous));
+    }
+}
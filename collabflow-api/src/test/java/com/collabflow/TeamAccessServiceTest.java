@@ -0,0 +1,155 @@
+package com.collabflow;
+
+import com.collabflow.domain.team.model.enums.TeamRole;
+import com.collabflow.domain.team.repository.TeamMembershipRepository;
+import com.collabflow.domain.team.service.TeamAccessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TeamAccessServiceTest {
+
+    @Mock private TeamMembershipRepository teamMembershipRepository;
+    @Mock private StringRedisTemplate redis;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final UUID teamId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    private TeamAccessService service;
+    private MessageListener invalidationListener;
+
+    @BeforeEach
+    void setUp() {
+        service = new TeamAccessService(teamMembershipRepository, redis, listenerContainer);
+        ReflectionTestUtils.setField(service, "localMaxTeams", 100L);
+        ReflectionTestUtils.setField(service, "localTtlSeconds", 600L);
+        ReflectionTestUtils.setField(service, "redisTtlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(Topic.class));
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    @DisplayName("1 - a miss on both tiers is read from the database and filled guarded by the generation seen first")
+    void t01_roleOf_readsThroughAndFillsWithGeneration() {
+        when(redis.opsForHash()).thenReturn(hashOperations);
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(hashOperations.entries("team-access:" + teamId)).thenReturn(Map.of());
+        when(valueOperations.get("team-access:generation:" + teamId)).thenReturn("4");
+        when(teamMembershipRepository.findMemberRolesByTeamId(teamId)).thenReturn(List.of(member(userId, TeamRole.ADMIN)));
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        assertEquals(Optional.of(TeamRole.ADMIN), service.roleOf(teamId, userId));
+        assertTrue(service.isMember(teamId, userId));
+
+        InOrder order = inOrder(valueOperations, teamMembershipRepository, redis);
+        order.verify(valueOperations).get("team-access:generation:" + teamId);
+        order.verify(teamMembershipRepository).findMemberRolesByTeamId(teamId);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        order.verify(redis).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertEquals(List.of("team-access:" + teamId, "team-access:generation:" + teamId), keys.getValue());
+        assertEquals(List.of("4", "600", userId.toString(), "ADMIN"), List.of(args.getValue()));
+        // The second lookup is served by the local tier
+        verify(teamMembershipRepository, times(1)).findMemberRolesByTeamId(teamId);
+        verify(hashOperations, times(1)).entries(anyString());
+    }
+
+    @Test
+    @DisplayName("2 - refresh bumps the generation and deletes the hash instead of writing its own snapshot")
+    void t02_refreshAfterCommit_bumpsGenerationAndDeletes() {
+        when(redis.opsForHash()).thenReturn(hashOperations);
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(hashOperations.entries("team-access:" + teamId))
+                .thenReturn(Map.of(userId.toString(), "MEMBER"))
+                .thenReturn(Map.of(userId.toString(), "ADMIN"));
+        assertEquals(Optional.of(TeamRole.MEMBER), service.roleOf(teamId, userId));
+
+        service.refreshAfterCommit(teamId);
+
+        InOrder order = inOrder(valueOperations, redis);
+        order.verify(valueOperations).increment("team-access:generation:" + teamId);
+        order.verify(redis).expire(eq("team-access:generation:" + teamId), any(Duration.class));
+        order.verify(redis).delete("team-access:" + teamId);
+        order.verify(redis).convertAndSend("team-access:invalidate", teamId.toString());
+        verify(teamMembershipRepository, never()).findMemberRolesByTeamId(any());
+        verify(redis, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        // The local copy is gone, so the next read sees the refilled shared tier
+        assertEquals(Optional.of(TeamRole.ADMIN), service.roleOf(teamId, userId));
+    }
+
+    @Test
+    @DisplayName("3 - an invalidation from another node drops the local copy and notifies listeners")
+    void t03_invalidationMessage_dropsLocalCopy() {
+        when(redis.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("team-access:" + teamId))
+                .thenReturn(Map.of(userId.toString(), "MEMBER"))
+                .thenReturn(Map.of(UUID.randomUUID().toString(), "OWNER"));
+        List<UUID> notified = new ArrayList<>();
+        service.addInvalidationListener(notified::add);
+        assertTrue(service.isMember(teamId, userId));
+        assertTrue(service.isMember(teamId, userId));
+
+        invalidationListener.onMessage(new DefaultMessage(
+                "team-access:invalidate".getBytes(StandardCharsets.UTF_8), teamId.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(List.of(teamId), notified);
+        assertEquals(Optional.empty(), service.roleOf(teamId, userId));
+        verify(hashOperations, times(2)).entries("team-access:" + teamId);
+    }
+
+    private static TeamMembershipRepository.MemberRoleView member(UUID userId, TeamRole role) {
+        return new TeamMembershipRepository.MemberRoleView() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public TeamRole getRole() {
+                return role;
+            }
+        };
+    }
+}
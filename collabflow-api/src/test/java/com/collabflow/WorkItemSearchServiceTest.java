@@ -0,0 +1,143 @@
+package com.collabflow;
+
+import com.collabflow.domain.search.dto.SearchFilters;
+import com.collabflow.domain.search.dto.SearchResponse;
+import com.collabflow.domain.search.dto.SearchSuggestionResponse;
+import com.collabflow.domain.search.service.ElasticsearchSearchEngine;
+import com.collabflow.domain.search.service.PostgresSearchEngine;
+import com.collabflow.domain.search.service.SearchResultCache;
+import com.collabflow.domain.search.service.WorkItemSearchService;
+import com.collabflow.domain.team.service.TeamAccessService;
+import com.collabflow.domain.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkItemSearchServiceTest {
+
+    @Mock private ElasticsearchSearchEngine elasticsearch;
+    @Mock private PostgresSearchEngine postgres;
+    @Mock private TeamAccessService teamAccessService;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+
+    private final UUID teamId = UUID.randomUUID();
+    private final SearchResponse fromPostgres = SearchResponse.builder().query("bug").total(0).items(List.of()).build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        user = mock(User.class);
+        when(user.getId()).thenReturn(UUID.randomUUID());
+        when(teamAccessService.isMember(eq(teamId), any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("1 - Elasticsearch failures fall back to Postgres, and the circuit opens at the threshold")
+    void t01_search_fallsBackAndOpensCircuit() {
+        WorkItemSearchService service = new WorkItemSearchService(elasticsearch, postgres, teamAccessService,
+                resultCache(false), new ConcurrentMapCacheManager(WorkItemSearchService.SUGGESTIONS_CACHE), meterRegistry, true, 50, 10, 2, 60000);
+        SearchFilters tasks = SearchFilters.of(List.of("TASK"), null, null, null, null);
+        when(elasticsearch.search(eq(teamId), anyString(), any(), any(), anyInt(), anyBoolean()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(postgres.search(teamId, "bug", tasks, null, 20, false)).thenReturn(fromPostgres);
+
+        assertSame(fromPostgres, service.search(teamId, " bug ", tasks, null, null, false, user));
+        assertSame(fromPostgres, service.search(teamId, "bug", tasks, null, null, false, user));
+        // circuit is open now: Elasticsearch is not asked again
+        assertSame(fromPostgres, service.search(teamId, "bug", tasks, null, null, false, user));
+
+        verify(elasticsearch, times(2)).search(eq(teamId), anyString(), any(), any(), anyInt(), anyBoolean());
+        assertEquals(3.0, meterRegistry.get("collabflow.search.fallback").counter().count());
+        assertEquals(1.0, meterRegistry.get("collabflow.search.circuit.open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("2 - with search disabled Postgres answers without touching Elasticsearch")
+    void t02_search_disabledUsesPostgres() {
+        WorkItemSearchService service = new WorkItemSearchService(elasticsearch, postgres, teamAccessService,
+                resultCache(false), new ConcurrentMapCacheManager(WorkItemSearchService.SUGGESTIONS_CACHE), meterRegistry, false, 50, 10, 5, 30000);
+        when(postgres.search(teamId, "bug", SearchFilters.NONE, null, 50, true)).thenReturn(fromPostgres);
+
+        assertSame(fromPostgres, service.search(teamId, "bug", null, null, 500, true, user));
+
+        verify(elasticsearch, never()).search(any(), anyString(), any(), any(), anyInt(), anyBoolean());
+        assertEquals(0.0, meterRegistry.get("collabflow.search.fallback").counter().count());
+    }
+
+    @Test
+    @DisplayName("3 - suggestions are cached per team and normalized prefix")
+    void t03_suggest_cachesPerTeamAndPrefix() {
+        WorkItemSearchService service = new WorkItemSearchService(elasticsearch, postgres, teamAccessService,
+                resultCache(false), new ConcurrentMapCacheManager(WorkItemSearchService.SUGGESTIONS_CACHE), meterRegistry, true, 50, 10, 5, 30000);
+        List<SearchSuggestionResponse> suggestions = List.of(SearchSuggestionResponse.builder()
+                .id("task:" + UUID.randomUUID()).resourceType("task").title("Login bug").build());
+        when(elasticsearch.suggest(teamId, "log", 10)).thenReturn(suggestions);
+
+        assertSame(suggestions, service.suggest(teamId, "Log", null, user));
+        assertSame(suggestions, service.suggest(teamId, " log ", 10, user));
+        assertEquals(List.of(), service.suggest(teamId, "   ", null, user));
+
+        verify(elasticsearch, times(1)).suggest(teamId, "log", 10);
+        verify(postgres, never()).suggest(any(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("4 - equal searches share a cached result until the team's generation is bumped")
+    void t04_search_cachedUntilGenerationBumped() {
+        WorkItemSearchService service = new WorkItemSearchService(elasticsearch, postgres, teamAccessService,
+                resultCache(true), new ConcurrentMapCacheManager(WorkItemSearchService.SUGGESTIONS_CACHE),
+                meterRegistry, true, 50, 10, 5, 30000);
+        SearchResponse fromIndex = SearchResponse.builder().query("bug").total(1).items(List.of()).build();
+        SearchFilters tasks = SearchFilters.of(List.of("task"), null, null, null, null);
+        when(elasticsearch.search(eq(teamId), anyString(), eq(tasks), any(), eq(20), eq(false))).thenReturn(fromIndex);
+        // generation 3, bumped long ago; then bumped to 4
+        when(hashOperations.multiGet(eq("search:generation:" + teamId), any()))
+                .thenReturn(List.of("3", "1000"), List.of("3", "1000"), List.of("4", "1000"));
+
+        assertEquals(1, service.search(teamId, "Bug", tasks, null, null, false, user).getTotal());
+        SearchResponse cached = service.search(teamId, "  bug ", SearchFilters.of(List.of("TASK"), null, null, null, null),
+                null, null, false, user);
+        assertEquals("bug", cached.getQuery());
+        service.search(teamId, "bug", tasks, null, null, false, user);
+
+        verify(elasticsearch, times(2)).search(eq(teamId), anyString(), eq(tasks), any(), eq(20), eq(false));
+        assertEquals(1.0, meterRegistry.get("collabflow.search.cache").tag("result", "hit").counter().count());
+    }
+
+    private SearchResultCache resultCache(boolean enabled) {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        if (enabled) {
+            when(redis.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        }
+        return new SearchResultCache(redis, new ConcurrentMapCacheManager(SearchResultCache.CACHE), meterRegistry,
+                enabled, 1500);
+    }
+}
@@ -110,6 +110,12 @@ export const NotificationProvider: React.FC<{ children: React.ReactNode }> = ({
         setIsConnected(true);
         client.subscribe('/user/queue/notifications', (frame: IMessage) => {
           try {
+            if (frame.headers['type'] === 'unread-count') {
+              const { unreadCount: count }: { unreadCount: number } = JSON.parse(frame.body);
+              setUnreadCount(count);
+              return;
+            }
+
             const incoming: InAppNotification = JSON.parse(frame.body);
             prependNotification(incoming);
             showToast('info', `${incoming.title}: ${incoming.message}`);